@@ -0,0 +1,115 @@
+package com.six.spacex.codec;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary codec against Java serialization of an equivalent mission. Domain objects are not
+ * {@link Serializable}, so the serialization side works on plain records with the same content.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CodecBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int rocketCount;
+
+    private final MissionCodec codec = new MissionCodec();
+
+    private Mission mission;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+
+    private MissionRecord record;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        MissionId missionId = new MissionId(UUID.randomUUID());
+        List<Rocket> rockets = new ArrayList<>(rocketCount);
+        List<RocketRecord> rocketRecords = new ArrayList<>(rocketCount);
+        for (int i = 0; i < rocketCount; i++) {
+            Rocket rocket = new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + i).assignToMission(missionId);
+            rockets.add(rocket);
+            rocketRecords.add(new RocketRecord(rocket.getId().value(), rocket.getName(), rocket.getStatus().name(),
+                    missionId.value(), rocket.getVersion()));
+        }
+        mission = new Mission(missionId, "Mars", rockets);
+        buffer = ByteBuffer.allocate(codec.encodedSize(mission));
+        encoded = ByteBuffer.allocate(codec.encodedSize(mission));
+        codec.encode(mission, encoded);
+        encoded.flip();
+
+        record = new MissionRecord(missionId.value(), mission.getName(), mission.getStatus().name(), rocketRecords,
+                mission.getVersion());
+        serialized = serialize(record);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        codec.encode(mission, buffer.clear());
+        return buffer;
+    }
+
+    @Benchmark
+    public Mission decodeBinary() {
+        return codec.decode(encoded.rewind());
+    }
+
+    @Benchmark
+    public byte[] encodeJavaSerialization() throws IOException {
+        return serialize(record);
+    }
+
+    @Benchmark
+    public Object decodeJavaSerialization() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private record RocketRecord(UUID id, String name, String status, UUID missionId, long version)
+            implements Serializable {
+    }
+
+    private record MissionRecord(UUID id, String name, String status, List<RocketRecord> rockets, long version)
+            implements Serializable {
+    }
+}
@@ -0,0 +1,74 @@
+package com.six.spacex.domain;
+
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transitions of immutable objects never contend, the threaded variants show allocation pressure
+ * of many threads transitioning at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TransitionBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int rocketsPerMission;
+
+    private Rocket onGround;
+    private Mission scheduled;
+    private List<Rocket> rockets;
+
+    @Setup
+    public void setUp() {
+        MissionId missionId = new MissionId(UUID.randomUUID());
+        rockets = new ArrayList<>(rocketsPerMission);
+        for (int i = 0; i < rocketsPerMission; i++) {
+            rockets.add(new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + i).assignToMission(missionId));
+        }
+        onGround = rockets.get(0);
+        scheduled = new Mission(missionId, "Mars", rockets);
+    }
+
+    @Benchmark
+    public Rocket rocketChangeStatus() {
+        return onGround.changeStatus(RocketStatus.IN_SPACE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Rocket rocketChangeStatusConcurrently() {
+        return onGround.changeStatus(RocketStatus.IN_SPACE);
+    }
+
+    @Benchmark
+    public Mission missionChangeStatus() {
+        return scheduled.changeStatus(MissionStatus.IN_PROGRESS, rockets);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Mission missionChangeStatusConcurrently() {
+        return scheduled.changeStatus(MissionStatus.IN_PROGRESS, rockets);
+    }
+}
@@ -0,0 +1,58 @@
+package com.six.spacex.domain.collection;
+
+import com.six.spacex.domain.id.RocketId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of random present keys. Keys are fresh copies of the stored IDs, as they are when parsed from
+ * a request, so a lookup cannot hit a key object which is already in the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class UuidHashMapBenchmark {
+
+    @Param({"1000", "1000000", "4000000"})
+    private int size;
+
+    @Param({"concurrent", "uuid"})
+    private String map;
+
+    private Map<RocketId, String> rockets;
+    private RocketId[] keys;
+
+    @Setup
+    public void setUp() {
+        rockets = map.equals("uuid") ? new UuidHashMap<>(RocketId::new) : new ConcurrentHashMap<>();
+        keys = new RocketId[size];
+        for (int i = 0; i < size; i++) {
+            UUID uuid = UUID.randomUUID();
+            rockets.put(new RocketId(uuid), "Dragon");
+            keys[i] = new RocketId(new UUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+    }
+
+    @Benchmark
+    public String get() {
+        return rockets.get(keys[ThreadLocalRandom.current().nextInt(size)]);
+    }
+}
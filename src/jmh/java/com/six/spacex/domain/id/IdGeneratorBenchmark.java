@@ -0,0 +1,64 @@
+package com.six.spacex.domain.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Total generation throughput of the shared {@link java.security.SecureRandom} against the thread-local
+ * time-ordered generator, from one to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IdGeneratorBenchmark {
+
+    @Param({"random", "timeOrdered"})
+    private String generator;
+
+    private IdGenerator ids;
+
+    @Setup
+    public void setUp() {
+        ids = generator.equals("random") ? IdGenerator.RANDOM : new TimeOrderedIdGenerator();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID threads1() {
+        return ids.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID threads4() {
+        return ids.next();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public UUID threads16() {
+        return ids.next();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UUID threads64() {
+        return ids.next();
+    }
+}
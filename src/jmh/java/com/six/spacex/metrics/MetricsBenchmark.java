@@ -0,0 +1,65 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.service.SpaceXState;
+import com.six.spacex.service.facade.SpaceXFacade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of instrumenting the facade on its cheapest call. {@code jfr} runs without a recording,
+ * so it measures the disabled events.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+public class MetricsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Metrics {
+
+        @Param({"off", "memory", "jfr"})
+        private String registry;
+
+        private SpaceXFacade facade;
+        private JfrMetricsRegistry jfr;
+
+        @Setup
+        public void setUp(SpaceXState state) {
+            MetricsRegistry metrics = switch (registry) {
+                case "memory" -> new InMemoryMetricsRegistry();
+                case "jfr" -> jfr = new JfrMetricsRegistry();
+                default -> MetricsRegistry.NOOP;
+            };
+            facade = InstrumentedSpaceXFacade.instrument(state.facade, metrics);
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (jfr != null) {
+                jfr.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public Mission getMission(SpaceXState state, Metrics metrics) {
+        return metrics.facade.getMission(state.missionId(state.randomMission()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top 50 missions by rocket count: full sort, bounded heap and sorted index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MissionQueryBenchmark {
+
+    private static final int PAGE = 50;
+
+    @Param({"1000", "100000"})
+    private int missions;
+
+    private MissionInMemoryRepository repository;
+    private ObservableRepository<MissionId, Mission> indexed;
+    private Mission cursor;
+
+    @Setup
+    public void setUp() {
+        StripedLock locks = new StripedLock();
+        repository = new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks);
+        indexed = new ObservableRepository<>(repository, locks);
+        for (int i = 0; i < missions; i++) {
+            MissionId missionId = new MissionId(UUID.randomUUID());
+            List<Rocket> rockets = new ArrayList<>();
+            for (int r = ThreadLocalRandom.current().nextInt(20); r > 0; r--) {
+                rockets.add(new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(missionId));
+            }
+            repository.save(new Mission(missionId, "Mission " + i, rockets));
+        }
+        indexed.addIndex(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME);
+        List<Mission> firstPages = indexed.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.first(missions / 2))
+                .toList();
+        cursor = firstPages.get(firstPages.size() - 1);
+    }
+
+    @Benchmark
+    public List<Mission> fullSort() {
+        return repository.getAll().stream().sorted(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME).limit(PAGE).toList();
+    }
+
+    @Benchmark
+    public List<Mission> boundedHeap() {
+        return repository.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.first(PAGE)).toList();
+    }
+
+    @Benchmark
+    public List<Mission> sortedIndex() {
+        return indexed.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.first(PAGE)).toList();
+    }
+
+    @Benchmark
+    public List<Mission> sortedIndexAfterCursor() {
+        return indexed.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.after(cursor, PAGE)).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential against always-parallel selection of a full sort and of a top page, the sizes where parallel
+ * starts to win give the threshold of {@link ParallelQuery}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ParallelQueryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int missions;
+
+    @Param({"all", "top50"})
+    private String page;
+
+    private MissionInMemoryRepository repository;
+    private PageRequest<Mission> pageRequest;
+    private ParallelQuery parallel;
+
+    @Setup
+    public void setUp() {
+        repository = new MissionInMemoryRepository();
+        for (int i = 0; i < missions; i++) {
+            MissionId missionId = new MissionId(UUID.randomUUID());
+            List<Rocket> rockets = new ArrayList<>();
+            for (int r = ThreadLocalRandom.current().nextInt(5); r > 0; r--) {
+                rockets.add(new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(missionId));
+            }
+            repository.save(new Mission(missionId, "Mission " + i, rockets));
+        }
+        pageRequest = page.equals("all") ? PageRequest.all() : PageRequest.first(50);
+        parallel = new ParallelQuery(ForkJoinPool.commonPool(), 0);
+    }
+
+    @Benchmark
+    public List<Mission> sequential() {
+        return ParallelQuery.sequential().query(repository, Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, pageRequest).toList();
+    }
+
+    @Benchmark
+    public List<Mission> parallel() {
+        return parallel.query(repository, Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, pageRequest).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RocketsByMissionIdBenchmark {
+
+    private static final int ROCKETS_PER_MISSION = 10;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rockets;
+
+    private RocketInMemoryRepository repository;
+    private MissionId missionId;
+
+    @Setup
+    public void setUp() {
+        repository = new RocketInMemoryRepository(new HashMap<>());
+        for (int i = 0; i < rockets; i++) {
+            if (i % ROCKETS_PER_MISSION == 0) {
+                missionId = new MissionId(UUID.randomUUID());
+            }
+            repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + i).assignToMission(missionId));
+        }
+    }
+
+    @Benchmark
+    public List<Rocket> scan() {
+        return repository.getAll().stream()
+                .filter(rocket ->
+                        rocket.getMissionId().isPresent() && missionId.equals(rocket.getMissionId().get())
+                )
+                .toList();
+    }
+
+    @Benchmark
+    public List<Rocket> index() {
+        return repository.getByMissionId(missionId);
+    }
+}
@@ -0,0 +1,137 @@
+package com.six.spacex.repository.cache;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.collection.UuidHashMap;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.StripedLock;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skewed lookups and updates, 90% of them in the hottest 10% of the missions, over a delegate whose reads
+ * and saves cost {@code delegateCost} CPU tokens, standing in for a file or database. The cache holds a fifth
+ * of the missions, {@code write-behind} flushes every 10 ms or at 1024 pending missions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(4)
+public class CachingRepositoryBenchmark {
+
+    private static final int MISSIONS = 100_000;
+    private static final ThreadLocal<Lookups> LOOKUPS = new ThreadLocal<>();
+
+    @Param({"none", "write-through", "write-behind"})
+    private String cache;
+
+    @Param({"0", "2000"})
+    private long delegateCost;
+
+    private CrudRepository<MissionId, Mission> repository;
+    private MissionId[] ids;
+
+    /**
+     * Lookups of one thread, a miss is a read of the delegate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+
+        public long misses;
+
+        private long lookups;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            lookups = 0;
+            misses = 0;
+            LOOKUPS.set(this);
+        }
+
+        public long hits() {
+            return lookups - misses;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        StripedLock locks = new StripedLock();
+        MissionInMemoryRepository delegate = new MissionInMemoryRepository(new UuidHashMap<>(MissionId::new), locks) {
+            @Override
+            public Optional<Mission> get(MissionId id) {
+                Lookups lookups = LOOKUPS.get();
+                if (lookups != null) {
+                    lookups.misses++;
+                }
+                Blackhole.consumeCPU(delegateCost);
+                return super.get(id);
+            }
+
+            @Override
+            public Mission save(Mission mission) {
+                Blackhole.consumeCPU(delegateCost);
+                return super.save(mission);
+            }
+        };
+        ids = new MissionId[MISSIONS];
+        for (int i = 0; i < MISSIONS; i++) {
+            ids[i] = delegate.save(new Mission(new MissionId(UUID.randomUUID()), "Mission " + i)).getId();
+        }
+        repository = switch (cache) {
+            case "write-through" -> new CachingRepository<>(delegate, MISSIONS / 5, locks);
+            case "write-behind" -> new CachingRepository<>(delegate, MISSIONS / 5, locks, Duration.ofMillis(10), 1024);
+            default -> delegate;
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (repository instanceof CachingRepository<?, ?> caching) {
+            caching.close();
+        }
+    }
+
+    @Benchmark
+    public Optional<Mission> get(Lookups lookups) {
+        lookups.lookups++;
+        return repository.get(nextId());
+    }
+
+    @Benchmark
+    public Optional<Mission> update(Lookups lookups) {
+        lookups.lookups++;
+        return repository.update(nextId(), mission -> mission.assignRockets(List.of()));
+    }
+
+    private MissionId nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int bound = random.nextInt(10) == 0 ? MISSIONS : MISSIONS / 10;
+        return ids[random.nextInt(bound)];
+    }
+}
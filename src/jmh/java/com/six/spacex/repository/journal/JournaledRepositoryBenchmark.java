@@ -0,0 +1,91 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.codec.RocketCodec;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.StripedLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Save latency of journaled rockets with 8 concurrent writers, each writer saves its own rocket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(8)
+public class JournaledRepositoryBenchmark {
+
+    @Param({"PER_WRITE", "BATCH", "INTERVAL"})
+    private FsyncPolicy fsyncPolicy;
+
+    private Path directory;
+    private JournaledRocketRepository repository;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rockets");
+        StripedLock locks = new StripedLock();
+        repository = new JournaledRocketRepository(
+                new RocketInMemoryRepository(new ConcurrentHashMap<>(), locks),
+                new Journal<>(directory, new RocketCodec(), fsyncPolicy),
+                new SnapshotStore<>(directory, new RocketCodec()),
+                locks
+        );
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file: files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private Rocket rocket;
+
+        @Setup
+        public void setUp(JournaledRepositoryBenchmark benchmark) {
+            rocket = benchmark.repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        }
+    }
+
+    @Benchmark
+    public Rocket save(Writer writer) {
+        Rocket rocket = writer.rocket;
+        writer.rocket = repository.save(rocket.getStatus() == RocketStatus.ON_GROUND
+                ? rocket.repair()
+                : rocket.onGround());
+        return writer.rocket;
+    }
+}
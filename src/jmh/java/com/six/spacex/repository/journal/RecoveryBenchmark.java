@@ -0,0 +1,99 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.codec.RocketCodec;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.StripedLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup time of a journaled rocket repository, every rocket has 4 saved versions.
+ * JOURNAL replays all of them, SNAPSHOT loads the latest versions and an empty journal tail.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class RecoveryBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"100000", "1000000"})
+    private int rockets;
+
+    @Param({"JOURNAL", "SNAPSHOT"})
+    private String startFrom;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("rockets");
+        try (JournaledRocketRepository repository = open(directory)) {
+            for (int from = 0; from < rockets; from += BATCH_SIZE) {
+                List<Rocket> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = from; i < Math.min(rockets, from + BATCH_SIZE); i++) {
+                    batch.add(new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + (i % 100)));
+                }
+                for (int version = 0; version < 4; version++) {
+                    batch = repository.saveAll(batch);
+                    batch = batch.stream().map(rocket -> rocket.getVersion() % 2 == 0 ? rocket.repair() : rocket.onGround()).toList();
+                }
+            }
+            if (startFrom.equals("SNAPSHOT")) {
+                repository.snapshot();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file: files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int recover() {
+        try (JournaledRocketRepository repository = open(directory)) {
+            return repository.getAll().size();
+        }
+    }
+
+    private static JournaledRocketRepository open(Path directory) {
+        StripedLock locks = new StripedLock();
+        return new JournaledRocketRepository(
+                new RocketInMemoryRepository(new ConcurrentHashMap<>(), locks),
+                new Journal<>(directory, new RocketCodec(), FsyncPolicy.INTERVAL),
+                new SnapshotStore<>(directory, new RocketCodec()),
+                locks
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.six.spacex.service;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-thread slot for contended benchmarks, {@link #rejected} counts operations that ran out of
+ * optimistic retries.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class Contention {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    public long rejected;
+
+    private int slot;
+
+    @Setup
+    public void setUp() {
+        slot = THREADS.getAndIncrement() % SpaceXState.ROCKETS_PER_MISSION;
+        rejected = 0;
+    }
+
+    public int slot() {
+        return slot;
+    }
+}
@@ -0,0 +1,103 @@
+package com.six.spacex.service;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.StripedLock;
+import com.six.spacex.repository.transaction.StripedTransactionManager;
+import com.six.spacex.service.facade.DefaultSpaceXFacade;
+import com.six.spacex.service.mission.DefaultMissionService;
+import com.six.spacex.service.rocket.DefaultRocketService;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory repositories, services and a transactional facade filled with scheduled missions
+ * of {@value #ROCKETS_PER_MISSION} rockets each, all rockets are on ground.
+ */
+@State(Scope.Benchmark)
+public class SpaceXState {
+
+    public static final int ROCKETS_PER_MISSION = 10;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rockets;
+
+    public RocketInMemoryRepository rocketRepository;
+    public DefaultRocketService rocketService;
+    public DefaultMissionService missionService;
+    public DefaultSpaceXFacade facade;
+
+    private MissionId[] missionIds;
+    private RocketId[] rocketIds;
+
+    @Setup
+    public void setUp() {
+        StripedLock locks = new StripedLock();
+        MissionInMemoryRepository missionRepository = new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks);
+        rocketRepository = new RocketInMemoryRepository(new ConcurrentHashMap<>(), locks);
+        missionService = new DefaultMissionService(missionRepository);
+        rocketService = new DefaultRocketService(rocketRepository);
+        facade = new DefaultSpaceXFacade(missionService, rocketService,
+                new StripedTransactionManager(missionRepository, rocketRepository, locks));
+
+        missionIds = new MissionId[rockets / ROCKETS_PER_MISSION];
+        rocketIds = new RocketId[missionIds.length * ROCKETS_PER_MISSION];
+        for (int m = 0; m < missionIds.length; m++) {
+            MissionId missionId = new MissionId(UUID.randomUUID());
+            List<Rocket> assigned = new ArrayList<>(ROCKETS_PER_MISSION);
+            for (int r = 0; r < ROCKETS_PER_MISSION; r++) {
+                int index = m * ROCKETS_PER_MISSION + r;
+                Rocket rocket = new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + index)
+                        .assignToMission(missionId);
+                assigned.add(rocketRepository.save(rocket));
+                rocketIds[index] = rocket.getId();
+            }
+            missionRepository.save(new Mission(missionId, "Mission " + m, assigned));
+            missionIds[m] = missionId;
+        }
+    }
+
+    public MissionId missionId(int index) {
+        return missionIds[index];
+    }
+
+    public RocketId rocketId(int mission, int rocket) {
+        return rocketIds[mission * ROCKETS_PER_MISSION + rocket];
+    }
+
+    public List<RocketId> rocketIds(int mission) {
+        return Arrays.asList(rocketIds).subList(mission * ROCKETS_PER_MISSION, (mission + 1) * ROCKETS_PER_MISSION);
+    }
+
+    public int randomMission() {
+        return ThreadLocalRandom.current().nextInt(missionIds.length);
+    }
+
+    public RocketId randomRocketId() {
+        return rocketIds[ThreadLocalRandom.current().nextInt(rocketIds.length)];
+    }
+
+    /**
+     * Puts a started rocket back on ground behind the facade, so it can be started again while its mission
+     * stays in progress.
+     */
+    public void land(RocketId id) {
+        if (rocketRepository.get(id).orElseThrow().getStatus() == RocketStatus.IN_SPACE) {
+            rocketRepository.update(id, Rocket::onGround);
+        }
+    }
+}
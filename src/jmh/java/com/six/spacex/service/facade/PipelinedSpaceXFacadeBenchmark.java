@@ -0,0 +1,77 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.service.Contention;
+import com.six.spacex.service.SpaceXState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the lock-based transactional facade against the single-writer pipeline on the same
+ * repositories. Rockets are reassigned to their own mission, which keeps every mission scheduled,
+ * once spread over random missions and once with all threads on the first mission.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(PipelinedSpaceXFacadeBenchmark.THREADS)
+public class PipelinedSpaceXFacadeBenchmark {
+
+    static final int THREADS = 8;
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+
+        @Param({"striped", "pipelined"})
+        private String engine;
+
+        private SpaceXFacade facade;
+
+        @Setup
+        public void setUp(SpaceXState state) {
+            facade = engine.equals("pipelined")
+                    ? new PipelinedSpaceXFacade(state.missionService, state.rocketService)
+                    : state.facade;
+        }
+
+        @TearDown
+        public void tearDown() {
+            if (facade instanceof PipelinedSpaceXFacade pipelined) {
+                pipelined.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public Mission assignRocketsToRandomMission(SpaceXState state, Engine engine) {
+        int mission = state.randomMission();
+        return engine.facade.assignRocketsToMission(state.missionId(mission), state.rocketIds(mission));
+    }
+
+    @Benchmark
+    public Mission assignRocketToSameMission(SpaceXState state, Engine engine, Contention contention) {
+        try {
+            return engine.facade.assignRocketsToMission(state.missionId(0), List.of(state.rocketId(0, contention.slot())));
+        } catch (StaleObjectException e) {
+            contention.rejected++;
+            return null;
+        }
+    }
+}
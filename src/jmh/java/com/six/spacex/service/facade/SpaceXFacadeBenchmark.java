@@ -0,0 +1,108 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.service.Contention;
+import com.six.spacex.service.SpaceXState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded benchmarks pick random missions and rockets, contended ones make every thread
+ * change its own rocket of the same mission, so transactions collide on the mission. Started rockets
+ * are landed right away to be started again, so start benchmarks include one repository update.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SpaceXFacadeBenchmark {
+
+    private static final int THREADS = 4;
+
+    private static final Comparator<Mission> BY_ROCKETS_AND_NAME = Comparator
+            .comparing((Mission mission) -> mission.getRockets().size())
+            .reversed()
+            .thenComparing(Mission::getName, Comparator.reverseOrder());
+
+    @Benchmark
+    public Rocket startRocket(SpaceXState state) {
+        RocketId id = state.randomRocketId();
+        Rocket started = state.facade.startRocket(id);
+        state.land(id);
+        return started;
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Rocket startRocketContended(SpaceXState state, Contention contention) {
+        RocketId id = state.rocketId(0, contention.slot());
+        try {
+            return state.facade.startRocket(id);
+        } catch (StaleObjectException e) {
+            contention.rejected++;
+            return null;
+        } finally {
+            state.land(id);
+        }
+    }
+
+    @Benchmark
+    public Mission assignRocketsToMission(SpaceXState state) {
+        int mission = state.randomMission();
+        return state.facade.assignRocketsToMission(state.missionId(mission), state.rocketIds(mission));
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Mission assignRocketsToMissionContended(SpaceXState state, Contention contention) {
+        try {
+            return state.facade.assignRocketsToMission(state.missionId(0), List.of(state.rocketId(0, contention.slot())));
+        } catch (StaleObjectException e) {
+            contention.rejected++;
+            return null;
+        }
+    }
+
+    @Benchmark
+    public List<Mission> getMissionsSortedBy(SpaceXState state) {
+        return state.facade.getMissionsSortedBy(BY_ROCKETS_AND_NAME);
+    }
+
+    @Benchmark
+    @Group("getMissionsSortedByWhileStarting")
+    @GroupThreads(1)
+    public List<Mission> getMissionsSortedByReader(SpaceXState state) {
+        return state.facade.getMissionsSortedBy(BY_ROCKETS_AND_NAME);
+    }
+
+    @Benchmark
+    @Group("getMissionsSortedByWhileStarting")
+    @GroupThreads(THREADS - 1)
+    public Rocket getMissionsSortedByWriter(SpaceXState state, Contention contention) {
+        RocketId id = state.rocketId(state.randomMission(), contention.slot());
+        try {
+            return state.facade.startRocket(id);
+        } catch (StaleObjectException e) {
+            contention.rejected++;
+            return null;
+        } finally {
+            state.land(id);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.six.spacex.service.rocket;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.service.Contention;
+import com.six.spacex.service.SpaceXState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RocketServiceBenchmark {
+
+    @Benchmark
+    public List<Rocket> getRocketsByMissionId(SpaceXState state) {
+        return state.rocketService.getRocketsByMissionId(state.missionId(state.randomMission()));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Rocket> getRocketsByMissionIdConcurrently(SpaceXState state) {
+        return state.rocketService.getRocketsByMissionId(state.missionId(state.randomMission()));
+    }
+
+    @Benchmark
+    @Group("getRocketsByMissionIdWhileStarting")
+    @GroupThreads(2)
+    public List<Rocket> getRocketsByMissionIdReader(SpaceXState state) {
+        return state.rocketService.getRocketsByMissionId(state.missionId(state.randomMission()));
+    }
+
+    @Benchmark
+    @Group("getRocketsByMissionIdWhileStarting")
+    @GroupThreads(2)
+    public Rocket getRocketsByMissionIdWriter(SpaceXState state, Contention contention) {
+        RocketId id = state.rocketId(state.randomMission(), contention.slot());
+        state.rocketService.start(id);
+        return state.rocketService.putOnGround(id);
+    }
+}
@@ -1,10 +1,8 @@
 package com.six.spacex;
 
-import java.text.MessageFormat;
-
-public class InternalSpaceXException extends RuntimeException {
+public class InternalSpaceXException extends LazyMessageException {
 
     public InternalSpaceXException(String message, Object... params) {
-        super(MessageFormat.format(message, params));
+        super(message, params);
     }
 }
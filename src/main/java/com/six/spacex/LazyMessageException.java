@@ -0,0 +1,52 @@
+package com.six.spacex;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.text.MessageFormat;
+
+/**
+ * Keeps the message pattern with its parameters and formats them on the first {@link #getMessage()},
+ * so exceptions that are caught and handled never pay for {@link MessageFormat} and {@code toString()}
+ * of their parameters.
+ */
+public abstract class LazyMessageException extends RuntimeException {
+
+    private final String pattern;
+    private final transient Object[] params;
+    private volatile String message;
+
+    protected LazyMessageException(String pattern, Object... params) {
+        this(null, true, pattern, params);
+    }
+
+    /**
+     * @param writableStackTrace {@code false} for expected rejections, which are handled and never logged
+     */
+    protected LazyMessageException(Throwable cause, boolean writableStackTrace, String pattern, Object... params) {
+        super(null, cause, true, writableStackTrace);
+        this.pattern = pattern;
+        this.params = params;
+    }
+
+    @Override
+    public String getMessage() {
+        String rendered = message;
+        if (rendered == null) {
+            rendered = MessageFormat.format(pattern, params);
+            message = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * Message before formatting, the same for every exception thrown for the same cause.
+     */
+    public String getMessagePattern() {
+        return pattern;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getMessage();
+        out.defaultWriteObject();
+    }
+}
@@ -0,0 +1,13 @@
+package com.six.spacex.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary form of a value. Encoding writes at the buffer position, decoding reads from it,
+ * both advance the position past the value.
+ */
+public interface Codec<T> {
+    int encodedSize(T value);
+    void encode(T value, ByteBuffer buffer);
+    T decode(ByteBuffer buffer);
+}
@@ -0,0 +1,10 @@
+package com.six.spacex.codec;
+
+import java.text.MessageFormat;
+
+public class CodecException extends RuntimeException {
+
+    public CodecException(String message, Object... params) {
+        super(MessageFormat.format(message, params));
+    }
+}
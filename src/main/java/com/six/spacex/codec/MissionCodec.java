@@ -0,0 +1,68 @@
+package com.six.spacex.codec;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout: format version (byte), mission ID (2 longs), version (varint), status (byte), name,
+ * rocket count (varint) and the rockets in the {@link RocketCodec} layout without their format version.
+ * Encoding does not allocate.
+ */
+public class MissionCodec implements Codec<Mission> {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    private final RocketCodec rocketCodec = new RocketCodec();
+    private final Codec<MissionStatus> statusCodec = new MissionStatusCodec();
+
+    @Override
+    public int encodedSize(Mission mission) {
+        int size = 1 + 16 + Binary.varLongSize(mission.getVersion()) + 1 + Binary.stringSize(mission.getName())
+                + Binary.varLongSize(mission.getRockets().size());
+        for (Rocket rocket: mission.getRockets().values()) {
+            size += rocketCodec.bodySize(rocket);
+        }
+        return size;
+    }
+
+    @Override
+    public void encode(Mission mission, ByteBuffer buffer) {
+        buffer.put(FORMAT_VERSION);
+        Binary.putUuid(mission.getId().value(), buffer);
+        Binary.putVarLong(mission.getVersion(), buffer);
+        statusCodec.encode(mission.getStatus(), buffer);
+        Binary.putString(mission.getName(), buffer);
+        Binary.putVarLong(mission.getRockets().size(), buffer);
+        for (Rocket rocket: mission.getRockets().values()) {
+            rocketCodec.encodeBody(rocket, buffer);
+        }
+    }
+
+    @Override
+    public Mission decode(ByteBuffer buffer) {
+        byte formatVersion = buffer.get();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new CodecException("Unsupported mission format version {0}", formatVersion);
+        }
+        MissionId id = new MissionId(Binary.getUuid(buffer));
+        long version = Binary.getVarLong(buffer);
+        MissionStatus status = statusCodec.decode(buffer);
+        String name = Binary.getString(buffer);
+        long rocketCount = Binary.getVarLong(buffer);
+        // every rocket takes at least its minimal body, so a corrupt count cannot size the list
+        if (rocketCount < 0 || rocketCount > buffer.remaining() / RocketCodec.MIN_BODY_SIZE) {
+            throw new CodecException("Rocket count {0} exceeds remaining {1} bytes", rocketCount, buffer.remaining());
+        }
+        List<Rocket> rockets = new ArrayList<>((int) rocketCount);
+        for (int i = 0; i < rocketCount; i++) {
+            rockets.add(rocketCodec.decodeBody(buffer));
+        }
+        return Mission.restore(id, name, status, rockets, version);
+    }
+}
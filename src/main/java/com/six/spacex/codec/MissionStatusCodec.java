@@ -0,0 +1,38 @@
+package com.six.spacex.codec;
+
+import com.six.spacex.domain.MissionStatus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stable one-byte codes, independent of the declaration order of {@link MissionStatus}.
+ */
+public class MissionStatusCodec implements Codec<MissionStatus> {
+
+    @Override
+    public int encodedSize(MissionStatus status) {
+        return 1;
+    }
+
+    @Override
+    public void encode(MissionStatus status, ByteBuffer buffer) {
+        buffer.put(switch (status) {
+            case SCHEDULED -> (byte) 1;
+            case PENDING -> (byte) 2;
+            case IN_PROGRESS -> (byte) 3;
+            case ENDED -> (byte) 4;
+        });
+    }
+
+    @Override
+    public MissionStatus decode(ByteBuffer buffer) {
+        byte code = buffer.get();
+        return switch (code) {
+            case 1 -> MissionStatus.SCHEDULED;
+            case 2 -> MissionStatus.PENDING;
+            case 3 -> MissionStatus.IN_PROGRESS;
+            case 4 -> MissionStatus.ENDED;
+            default -> throw new CodecException("Unknown mission status code {0}", code);
+        };
+    }
+}
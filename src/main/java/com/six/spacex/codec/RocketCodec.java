@@ -0,0 +1,77 @@
+package com.six.spacex.codec;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Layout: format version (byte), rocket ID (2 longs), version (varint), status (byte),
+ * flags (byte, bit 0 - assigned to a mission), mission ID (2 longs, only if assigned), name.
+ * Encoding does not allocate.
+ */
+public class RocketCodec implements Codec<Rocket> {
+
+    public static final byte FORMAT_VERSION = 1;
+
+    /**
+     * ID, one byte each of version, status and flags, and the length of an empty name.
+     */
+    static final int MIN_BODY_SIZE = 16 + 1 + 1 + 1 + 1;
+
+    private static final byte ASSIGNED = 1;
+
+    private final Codec<RocketStatus> statusCodec = new RocketStatusCodec();
+
+    @Override
+    public int encodedSize(Rocket rocket) {
+        return 1 + bodySize(rocket);
+    }
+
+    @Override
+    public void encode(Rocket rocket, ByteBuffer buffer) {
+        buffer.put(FORMAT_VERSION);
+        encodeBody(rocket, buffer);
+    }
+
+    @Override
+    public Rocket decode(ByteBuffer buffer) {
+        byte formatVersion = buffer.get();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new CodecException("Unsupported rocket format version {0}", formatVersion);
+        }
+        return decodeBody(buffer);
+    }
+
+    int bodySize(Rocket rocket) {
+        return 16 + Binary.varLongSize(rocket.getVersion()) + 1 + 1
+                + (rocket.getMissionId().isPresent() ? 16 : 0) + Binary.stringSize(rocket.getName());
+    }
+
+    void encodeBody(Rocket rocket, ByteBuffer buffer) {
+        Binary.putUuid(rocket.getId().value(), buffer);
+        Binary.putVarLong(rocket.getVersion(), buffer);
+        statusCodec.encode(rocket.getStatus(), buffer);
+        Optional<MissionId> missionId = rocket.getMissionId();
+        if (missionId.isPresent()) {
+            buffer.put(ASSIGNED);
+            Binary.putUuid(missionId.get().value(), buffer);
+        } else {
+            buffer.put((byte) 0);
+        }
+        Binary.putString(rocket.getName(), buffer);
+    }
+
+    Rocket decodeBody(ByteBuffer buffer) {
+        RocketId id = new RocketId(Binary.getUuid(buffer));
+        long version = Binary.getVarLong(buffer);
+        RocketStatus status = statusCodec.decode(buffer);
+        Optional<MissionId> missionId = (buffer.get() & ASSIGNED) != 0
+                ? Optional.of(new MissionId(Binary.getUuid(buffer)))
+                : Optional.empty();
+        return Rocket.restore(id, Binary.getString(buffer), status, missionId, version);
+    }
+}
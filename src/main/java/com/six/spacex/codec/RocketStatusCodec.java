@@ -0,0 +1,36 @@
+package com.six.spacex.codec;
+
+import com.six.spacex.domain.RocketStatus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stable one-byte codes, independent of the declaration order of {@link RocketStatus}.
+ */
+public class RocketStatusCodec implements Codec<RocketStatus> {
+
+    @Override
+    public int encodedSize(RocketStatus status) {
+        return 1;
+    }
+
+    @Override
+    public void encode(RocketStatus status, ByteBuffer buffer) {
+        buffer.put(switch (status) {
+            case ON_GROUND -> (byte) 1;
+            case IN_REPAIR -> (byte) 2;
+            case IN_SPACE -> (byte) 3;
+        });
+    }
+
+    @Override
+    public RocketStatus decode(ByteBuffer buffer) {
+        byte code = buffer.get();
+        return switch (code) {
+            case 1 -> RocketStatus.ON_GROUND;
+            case 2 -> RocketStatus.IN_REPAIR;
+            case 3 -> RocketStatus.IN_SPACE;
+            default -> throw new CodecException("Unknown rocket status code {0}", code);
+        };
+    }
+}
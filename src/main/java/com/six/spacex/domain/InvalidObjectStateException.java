@@ -1,10 +1,29 @@
 package com.six.spacex.domain;
 
-import java.text.MessageFormat;
+import com.six.spacex.LazyMessageException;
 
-public class InvalidObjectStateException extends RuntimeException {
+public class InvalidObjectStateException extends LazyMessageException {
+
+    /**
+     * System property which turns off stack traces of rejected transitions, e.g. for a load where rejections are
+     * frequent, expected and never logged.
+     */
+    public static final String STACKLESS_REJECTIONS_PROPERTY = "spacex.rejections.stackless";
+
+    private static final boolean STACKLESS_REJECTIONS = Boolean.getBoolean(STACKLESS_REJECTIONS_PROPERTY);
 
     public InvalidObjectStateException(String message, Object... params) {
-        super(MessageFormat.format(message, params));
+        super(message, params);
+    }
+
+    private InvalidObjectStateException(boolean writableStackTrace, String message, Object... params) {
+        super(null, writableStackTrace, message, params);
+    }
+
+    /**
+     * Rejection of a transition, created with a stack trace unless {@value #STACKLESS_REJECTIONS_PROPERTY} is set.
+     */
+    public static InvalidObjectStateException rejected(String message, Object... params) {
+        return new InvalidObjectStateException(!STACKLESS_REJECTIONS, message, params);
     }
 }
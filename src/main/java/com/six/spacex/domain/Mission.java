@@ -1,116 +1,138 @@
 package com.six.spacex.domain;
 
-import com.six.spacex.InternalSpaceXException;
+import com.six.spacex.domain.collection.PersistentHashMap;
 import com.six.spacex.domain.id.MissionId;
 import com.six.spacex.domain.id.RocketId;
 
-import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class Mission implements SpaceXObject {
 
-    private static final Map<MissionStatus, Set<MissionStatus>> TRANSITIONS = Map.of(
-            MissionStatus.SCHEDULED, Set.of(MissionStatus.PENDING, MissionStatus.IN_PROGRESS),
-            MissionStatus.PENDING, Set.of(MissionStatus.SCHEDULED),
-            MissionStatus.IN_PROGRESS, Set.of(MissionStatus.IN_PROGRESS, MissionStatus.ENDED)
-    );
+    private static final int[] TRANSITIONS = Transitions.of(MissionStatus.class, Map.of(
+            MissionStatus.SCHEDULED, EnumSet.of(MissionStatus.PENDING, MissionStatus.IN_PROGRESS),
+            MissionStatus.PENDING, EnumSet.of(MissionStatus.SCHEDULED),
+            MissionStatus.IN_PROGRESS, EnumSet.of(MissionStatus.IN_PROGRESS, MissionStatus.ENDED),
+            MissionStatus.ENDED, EnumSet.noneOf(MissionStatus.class)
+    ));
+
+    /**
+     * Missions with the most rockets first, then by name, e.g. for dashboards.
+     */
+    public static final Comparator<Mission> BY_ROCKET_COUNT_DESC_THEN_NAME = Comparator
+            .comparingInt((Mission mission) -> mission.getRockets().size())
+            .reversed()
+            .thenComparing(Mission::getName);
 
     private final MissionId id;
     private final String name;
     private final MissionStatus status;
-    private final Map<RocketId, Rocket> rockets;
-
-//    static {
-//        MissionStatus[] allStatuses = MissionStatus.values();
-//        if (TRANSITIONS.size() != allStatuses.length) {
-//            throw new InternalSpaceXException(
-//                    "Some mission statuses are not handled. Transitions: {0}, All statuses: {1}",
-//                    TRANSITIONS, Arrays.stream(allStatuses).toList()
-//            );
-//        }
-//    }
+    private final PersistentHashMap<RocketId, Rocket> rockets;
+    private final long version;
 
     public Mission(MissionId id, String name) {
-        this(id, name, MissionStatus.SCHEDULED, List.of());
+        this(id, name, MissionStatus.SCHEDULED, List.of(), 0);
     }
 
     public Mission(MissionId id, String name, List<Rocket> rockets) {
-        this(id, name, MissionStatus.SCHEDULED, rockets);
+        this(id, name, MissionStatus.SCHEDULED, rockets, 0);
+    }
+
+    private Mission(MissionId id, String name, MissionStatus status, List<Rocket> rockets, long version) {
+        this(id, name, status, distinct(id, rockets), version);
     }
 
-    private Mission(MissionId id, String name, MissionStatus status, List<Rocket> rockets) {
-        this(id, name, status, rockets.stream().collect(Collectors.toMap(Rocket::getId, rocket -> rocket)));
+    private Mission(MissionId id, String name, MissionStatus status, PersistentHashMap<RocketId, Rocket> rockets,
+                    List<Rocket> added, long version) {
+        this(id, name, status, plusAll(rockets, added), version);
     }
 
-    private Mission(MissionId id, String name, MissionStatus status, Map<RocketId, Rocket> rockets) {
+    private Mission(MissionId id, String name, MissionStatus status, PersistentHashMap<RocketId, Rocket> rockets,
+                    long version) {
         this.id = id;
         this.name = name;
         this.status = status;
         this.rockets = rockets;
+        this.version = version;
         validate();
     }
 
+    /**
+     * Recreates a mission in the given state, e.g. when it is read from a storage.
+     */
+    public static Mission restore(MissionId id, String name, MissionStatus status, List<Rocket> rockets,
+                                  long version) {
+        return new Mission(id, name, status, rockets, version);
+    }
+
     public Mission assignRockets(List<Rocket> rockets) {
         if (status == MissionStatus.IN_PROGRESS) {
-            throw new InvalidObjectStateException(
-                    "Rockets cannot be assigned to mission because its already in progress. Mission", this
+            throw InvalidObjectStateException.rejected(
+                    "Rockets cannot be assigned to mission because its already in progress. Mission: {0}", this
             );
         }
         for (Rocket rocket: rockets) {
             MissionId missionId = rocket.getMissionId().orElseThrow();
             if (!id.equals(missionId)) {
-                throw new InvalidObjectStateException("Mission ID {0} and rocket assigned ID {1} are not equals", id, missionId);
+                throw InvalidObjectStateException.rejected(
+                        "Mission ID {0} and rocket assigned ID {1} are not equals", id, missionId
+                );
             }
-            this.rockets.put(rocket.getId(), rocket);
         }
-        return new Mission(id, name, status, this.rockets);
+        return new Mission(id, name, status, this.rockets, rockets, version + 1);
     }
 
     public Mission end() {
-        isTransitionAllowed(MissionStatus.ENDED);
         return changeStatus(MissionStatus.ENDED, List.of());
     }
 
     public Mission start(List<Rocket> rockets) {
-        isTransitionAllowed(MissionStatus.IN_PROGRESS);
         return changeStatus(MissionStatus.IN_PROGRESS, rockets);
     }
 
     public Mission schedule(List<Rocket> rockets) {
-        isTransitionAllowed(MissionStatus.SCHEDULED);
         return changeStatus(MissionStatus.SCHEDULED, rockets);
     }
 
     public Mission markAsPending(List<Rocket> rockets) {
-        isTransitionAllowed(MissionStatus.PENDING);
         return changeStatus(MissionStatus.PENDING, rockets);
     }
 
     public Mission changeStatus(MissionStatus updatedStatus, List<Rocket> rockets) {
-        isTransitionAllowed(updatedStatus);
-        if (updatedStatus == MissionStatus.PENDING && rockets.isEmpty()) {
-            throw new InvalidObjectStateException(
-                    "Mission cannot be marked as pending because there are no rockets. Mission: {0}", this
-            );
-        }
-        if (updatedStatus != MissionStatus.ENDED && this.rockets.size() != rockets.size()) {
-            throw new InvalidObjectStateException(
-                    "Number of rockets has changed. Originally: {0}, now: {1}, mission: {2}",
-                    this.rockets.size(), rockets.size(), this
-            );
-        }
-        for (Rocket rocket: rockets) {
-            if (this.rockets.get(rocket.getId()) == null) {
-                throw new InvalidObjectStateException("There is no rocket with ID {0}. Mission: {1}", rocket.getId(), this);
-            }
+        TransitionResult<Mission> rejection = rejection(updatedStatus, rockets);
+        if (rejection != null) {
+            throw rejection.toException();
         }
-        return new Mission(id, name, updatedStatus, rockets);
+        return transition(updatedStatus, rockets);
     }
 
+    public TransitionResult<Mission> tryEnd() {
+        return tryChangeStatus(MissionStatus.ENDED, List.of());
+    }
+
+    public TransitionResult<Mission> tryStart(List<Rocket> rockets) {
+        return tryChangeStatus(MissionStatus.IN_PROGRESS, rockets);
+    }
+
+    public TransitionResult<Mission> trySchedule(List<Rocket> rockets) {
+        return tryChangeStatus(MissionStatus.SCHEDULED, rockets);
+    }
+
+    public TransitionResult<Mission> tryMarkAsPending(List<Rocket> rockets) {
+        return tryChangeStatus(MissionStatus.PENDING, rockets);
+    }
+
+    public TransitionResult<Mission> tryChangeStatus(MissionStatus updatedStatus, List<Rocket> rockets) {
+        TransitionResult<Mission> rejection = rejection(updatedStatus, rockets);
+        return rejection != null ? rejection : TransitionResult.success(transition(updatedStatus, rockets));
+    }
+
+    @Override
     public MissionId getId() {
         return id;
     }
@@ -127,17 +149,22 @@ public class Mission implements SpaceXObject {
         return rockets;
     }
 
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         Mission mission = (Mission) o;
         return Objects.equals(id, mission.id) && Objects.equals(name, mission.name)
-                && status == mission.status && Objects.equals(rockets, mission.rockets);
+                && status == mission.status && Objects.equals(rockets, mission.rockets) && version == mission.version;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, status, rockets);
+        return Objects.hash(id, name, status, rockets, version);
     }
 
     @Override
@@ -147,6 +174,7 @@ public class Mission implements SpaceXObject {
         sb.append(", name='").append(name).append('\'');
         sb.append(", status=").append(status);
         sb.append(", rockets=").append(rockets);
+        sb.append(", version=").append(version);
         sb.append('}');
         return sb.toString();
     }
@@ -171,17 +199,99 @@ public class Mission implements SpaceXObject {
         }
     }
 
-    private void isTransitionAllowed(MissionStatus updatedStatus) {
-        if (!TRANSITIONS.get(status).contains(updatedStatus)) {
-            throw new InvalidObjectStateException(
-                    "Mission status cannot be updated from {0} to {1}. Rocket: {2}", status, updatedStatus, this
+    /**
+     * Returns {@code null} if the transition is allowed, so allowed transitions allocate nothing but the new mission
+     * and, for several rockets, the set checking that their IDs are distinct.
+     */
+    private TransitionResult<Mission> rejection(MissionStatus updatedStatus, List<Rocket> rockets) {
+        if (!Transitions.isAllowed(TRANSITIONS, status, updatedStatus)) {
+            return TransitionResult.rejected(
+                    "Mission status cannot be updated from {0} to {1}. Mission: {2}", status, updatedStatus, this
             );
         }
+        if (updatedStatus == MissionStatus.PENDING && rockets.isEmpty()) {
+            return TransitionResult.rejected(
+                    "Mission cannot be marked as pending because there are no rockets. Mission: {0}", this
+            );
+        }
+        if (updatedStatus != MissionStatus.ENDED && this.rockets.size() != rockets.size()) {
+            return TransitionResult.rejected(
+                    "Number of rockets has changed. Originally: {0}, now: {1}, mission: {2}",
+                    this.rockets.size(), rockets.size(), this
+            );
+        }
+        boolean rocketInSpace = false;
+        for (int i = 0; i < rockets.size(); i++) {
+            Rocket rocket = rockets.get(i);
+            if (!this.rockets.containsKey(rocket.getId())) {
+                return TransitionResult.rejected("There is no rocket with ID {0}. Mission: {1}", rocket.getId(), this);
+            }
+            rocketInSpace |= rocket.getStatus() == RocketStatus.IN_SPACE;
+        }
+        RocketId repeated = repeatedId(rockets);
+        if (repeated != null) {
+            return TransitionResult.rejected("Rocket with ID {0} is repeated. Mission: {1}", repeated, this);
+        }
+        if (updatedStatus == MissionStatus.IN_PROGRESS && !rocketInSpace) {
+            return TransitionResult.rejected(
+                    "Mission cannot be in progress, there is no rocket in space. Mission: {0}", this
+            );
+        }
+        return null;
+    }
+
+    /**
+     * Only changed rockets are replaced, the rest of the trie is shared with this mission.
+     */
+    private Mission transition(MissionStatus updatedStatus, List<Rocket> rockets) {
+        if (updatedStatus == MissionStatus.ENDED) {
+            return new Mission(id, name, updatedStatus, PersistentHashMap.empty(), version + 1);
+        }
+        return new Mission(id, name, updatedStatus, this.rockets, rockets, version + 1);
     }
 
     private boolean noRocketIsInSpace() {
-        return rockets.values()
-                .stream()
-                .noneMatch(rocket -> rocket.getStatus() == RocketStatus.IN_SPACE);
+        for (Rocket rocket: rockets.values()) {
+            if (rocket.getStatus() == RocketStatus.IN_SPACE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Every rocket of the list grows the trie, a repeated ID would silently drop the earlier rocket.
+     */
+    private static PersistentHashMap<RocketId, Rocket> distinct(MissionId id, List<Rocket> rockets) {
+        PersistentHashMap<RocketId, Rocket> distinct = plusAll(PersistentHashMap.empty(), rockets);
+        if (distinct.size() != rockets.size()) {
+            throw new InvalidObjectStateException(
+                    "Rocket with ID {0} is repeated. Mission ID: {1}", repeatedId(rockets), id
+            );
+        }
+        return distinct;
+    }
+
+    private static RocketId repeatedId(List<Rocket> rockets) {
+        if (rockets.size() < 2) {
+            return null;
+        }
+        Set<RocketId> ids = new HashSet<>(rockets.size() * 2);
+        for (int i = 0; i < rockets.size(); i++) {
+            RocketId rocketId = rockets.get(i).getId();
+            if (!ids.add(rocketId)) {
+                return rocketId;
+            }
+        }
+        return null;
+    }
+
+    private static PersistentHashMap<RocketId, Rocket> plusAll(PersistentHashMap<RocketId, Rocket> rockets,
+                                                               List<Rocket> added) {
+        for (int i = 0; i < added.size(); i++) {
+            Rocket rocket = added.get(i);
+            rockets = rockets.plus(rocket.getId(), rocket);
+        }
+        return rockets;
     }
 }
@@ -0,0 +1,133 @@
+package com.six.spacex.domain;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Canonical instances of rocket and mission names, so objects named alike share one string. Names are held
+ * weakly and leave the interner once no rocket or mission refers to them. The interner is split into segments
+ * by hash, each with its own monitor, so concurrent adds rarely meet.
+ * <p>
+ * Interning is opt-in: the facades take an interner for the names of added rockets and missions.
+ */
+public final class NameInterner {
+
+    private static final int SEGMENTS = 16;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Map<Name, Name>[] segments = new Map[SEGMENTS];
+    private final ReferenceQueue<String> cleared = new ReferenceQueue<>();
+    private final BiFunction<String, ReferenceQueue<String>, Reference<String>> references;
+
+    public NameInterner() {
+        this(WeakReference::new);
+    }
+
+    /**
+     * @param references creates the reference holding a name, registered with the given queue
+     */
+    NameInterner(BiFunction<String, ReferenceQueue<String>, Reference<String>> references) {
+        this.references = references;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Invalid names, {@code null} or blank, are returned as they are and are never kept, the object they are
+     * meant for rejects them.
+     *
+     * @return the canonical instance equal to the name
+     */
+    public String intern(String name) {
+        if (name == null || name.isBlank()) {
+            return name;
+        }
+        expungeCleared();
+        int hash = name.hashCode();
+        Map<Name, Name> segment = segments[(hash ^ hash >>> 16) & (SEGMENTS - 1)];
+        synchronized (segment) {
+            Name pooled = segment.get(new Name(hash, name, null));
+            String canonical = pooled == null ? null : pooled.get();
+            if (canonical == null) {
+                canonical = name;
+                Name kept = new Name(hash, null, references.apply(name, cleared));
+                segment.put(kept, kept);
+            }
+            return canonical;
+        }
+    }
+
+    /**
+     * Number of names kept, including those cleared but not expunged yet.
+     */
+    public int size() {
+        expungeCleared();
+        int size = 0;
+        for (Map<Name, Name> segment: segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Sweeps the segments only once the queue reports a cleared name, so lookups rarely pay for it.
+     */
+    private void expungeCleared() {
+        if (cleared.poll() == null) {
+            return;
+        }
+        while (cleared.poll() != null) {
+            // drained, one sweep removes them all
+        }
+        for (Map<Name, Name> segment: segments) {
+            synchronized (segment) {
+                segment.keySet().removeIf(name -> name.get() == null);
+            }
+        }
+    }
+
+    /**
+     * Key of a segment, a kept name held by its reference or a looked up name held strongly. A cleared name
+     * equals only itself.
+     */
+    private static final class Name {
+
+        private final int hash;
+        private final String value;
+        private final Reference<String> reference;
+
+        private Name(int hash, String value, Reference<String> reference) {
+            this.hash = hash;
+            this.value = value;
+            this.reference = reference;
+        }
+
+        private String get() {
+            return reference == null ? value : reference.get();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Name other) || hash != other.hash) {
+                return false;
+            }
+            String name = get();
+            return name != null && name.equals(other.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.six.spacex.domain;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical instances of rocket and mission names with a dense ID for each, e.g. for storage layers which
+ * keep the ID instead of the name. Lookups of known names are lock-free, adding a name takes the pool's monitor.
+ * Once the pool is full, new names are returned as they are and get no ID, so a stream of unique names
+ * cannot make it grow without bound. Names are never dropped, as their IDs may be stored; to share name
+ * instances between objects use a {@link NameInterner}.
+ */
+public final class NamePool {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    private final Map<String, Name> names = new ConcurrentHashMap<>();
+    private final int capacity;
+    private volatile String[][] chunks = new String[0][];
+    private volatile int size;
+
+    public NamePool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative, capacity: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the canonical instance equal to the name, or the name itself if it is {@code null} or the pool is full
+     */
+    public String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        Name pooled = lookup(name);
+        return pooled == null ? name : pooled.value();
+    }
+
+    /**
+     * @return ID of the name, empty if the pool is full
+     */
+    public OptionalInt idOf(String name) {
+        Name pooled = lookup(name);
+        return pooled == null ? OptionalInt.empty() : OptionalInt.of(pooled.id());
+    }
+
+    public String nameOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("There is no name with ID " + id);
+        }
+        return chunks[id >>> CHUNK_BITS][id & CHUNK_MASK];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Name lookup(String name) {
+        Name pooled = names.get(name);
+        return pooled != null ? pooled : add(name);
+    }
+
+    private synchronized Name add(String name) {
+        Name pooled = names.get(name);
+        if (pooled != null || size == capacity) {
+            return pooled;
+        }
+        int id = size;
+        if ((id >>> CHUNK_BITS) == chunks.length) {
+            String[][] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = new String[1 << CHUNK_BITS];
+            chunks = grown;
+        }
+        chunks[id >>> CHUNK_BITS][id & CHUNK_MASK] = name;
+        pooled = new Name(name, id);
+        // the name is in its chunk before anybody can learn its ID
+        names.put(name, pooled);
+        size = id + 1;
+        return pooled;
+    }
+
+    private record Name(String value, int id) {
+    }
+}
@@ -1,54 +1,50 @@
 package com.six.spacex.domain;
 
-import com.six.spacex.InternalSpaceXException;
 import com.six.spacex.domain.id.MissionId;
 import com.six.spacex.domain.id.RocketId;
 
-import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 
 public class Rocket implements SpaceXObject {
 
-    private static final Map<RocketStatus, Set<RocketStatus>> TRANSITIONS = Map.of(
-            RocketStatus.ON_GROUND, Set.of(RocketStatus.IN_REPAIR, RocketStatus.IN_SPACE),
-            RocketStatus.IN_REPAIR, Set.of(RocketStatus.ON_GROUND),
-            RocketStatus.IN_SPACE, Set.of(RocketStatus.ON_GROUND)
-    );
+    private static final int[] TRANSITIONS = Transitions.of(RocketStatus.class, Map.of(
+            RocketStatus.ON_GROUND, EnumSet.of(RocketStatus.IN_REPAIR, RocketStatus.IN_SPACE),
+            RocketStatus.IN_REPAIR, EnumSet.of(RocketStatus.ON_GROUND),
+            RocketStatus.IN_SPACE, EnumSet.of(RocketStatus.ON_GROUND)
+    ));
 
     private final RocketId id;
     private final String name;
     private final RocketStatus status;
-    private final Optional<MissionId> missionId;
-
-    static {
-       RocketStatus[] allStatuses = RocketStatus.values();
-       if (TRANSITIONS.size() != allStatuses.length) {
-           throw new InternalSpaceXException(
-                   "Some rocket statuses are not handled. Transitions: {0}, All statuses: {1}",
-                   TRANSITIONS, Arrays.stream(allStatuses).toList()
-           );
-       }
-    }
+    // nullable, so transitions do not allocate an Optional
+    private final MissionId missionId;
+    private final long version;
 
     public Rocket(RocketId id, String name) {
-        this(id, name, RocketStatus.ON_GROUND, Optional.empty());
+        this(id, name, RocketStatus.ON_GROUND, null, 0);
     }
 
-    private Rocket(RocketId id, String name, RocketStatus status, Optional<MissionId> missionId) {
+    private Rocket(RocketId id, String name, RocketStatus status, MissionId missionId, long version) {
         this.id = id;
         this.name = name;
         this.status = status;
         this.missionId = missionId;
+        this.version = version;
         validate();
     }
 
+    /**
+     * Recreates a rocket in the given state, e.g. when it is read from a storage.
+     */
+    public static Rocket restore(RocketId id, String name, RocketStatus status, Optional<MissionId> missionId,
+                                 long version) {
+        return new Rocket(id, name, status, missionId.orElse(null), version);
+    }
+
     public Rocket start() {
-        if (missionId.isEmpty()) {
-            throw new InvalidObjectStateException("Rocket cannot go to space because there is no mission. Rocket: {0}", this);
-        }
         return changeStatus(RocketStatus.IN_SPACE);
     }
 
@@ -61,14 +57,40 @@ public class Rocket implements SpaceXObject {
     }
 
     public Rocket changeStatus(RocketStatus updatedStatus) {
-        isTransitionAllowed(updatedStatus);
-        return new Rocket(id, name, updatedStatus, missionId);
+        TransitionResult<Rocket> rejection = rejection(updatedStatus);
+        if (rejection != null) {
+            throw rejection.toException();
+        }
+        return new Rocket(id, name, updatedStatus, missionId, version + 1);
+    }
+
+    public TransitionResult<Rocket> tryStart() {
+        return tryChangeStatus(RocketStatus.IN_SPACE);
+    }
+
+    public TransitionResult<Rocket> tryOnGround() {
+        return tryChangeStatus(RocketStatus.ON_GROUND);
+    }
+
+    public TransitionResult<Rocket> tryRepair() {
+        return tryChangeStatus(RocketStatus.IN_REPAIR);
+    }
+
+    public TransitionResult<Rocket> tryChangeStatus(RocketStatus updatedStatus) {
+        TransitionResult<Rocket> rejection = rejection(updatedStatus);
+        return rejection != null
+                ? rejection
+                : TransitionResult.success(new Rocket(id, name, updatedStatus, missionId, version + 1));
     }
 
     public Rocket assignToMission(MissionId missionId) {
-        return new Rocket(id, name, status, Optional.of(missionId));
+        if (missionId == null) {
+            throw new InvalidObjectStateException("Rocket cannot be assigned to null mission. Rocket: {0}", this);
+        }
+        return new Rocket(id, name, status, missionId, version + 1);
     }
 
+    @Override
     public RocketId getId() {
         return id;
     }
@@ -82,7 +104,12 @@ public class Rocket implements SpaceXObject {
     }
 
     public Optional<MissionId> getMissionId() {
-        return missionId;
+        return Optional.ofNullable(missionId);
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
     }
 
     @Override
@@ -90,12 +117,12 @@ public class Rocket implements SpaceXObject {
         if (o == null || getClass() != o.getClass()) return false;
         Rocket rocket = (Rocket) o;
         return Objects.equals(id, rocket.id) && Objects.equals(name, rocket.name)
-                && status == rocket.status && Objects.equals(missionId, rocket.missionId);
+                && status == rocket.status && Objects.equals(missionId, rocket.missionId) && version == rocket.version;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, status, missionId);
+        return Objects.hash(id, name, status, missionId, version);
     }
 
     @Override
@@ -105,16 +132,26 @@ public class Rocket implements SpaceXObject {
         sb.append(", name='").append(name).append('\'');
         sb.append(", status=").append(status);
         sb.append(", missionId=").append(missionId);
+        sb.append(", version=").append(version);
         sb.append('}');
         return sb.toString();
     }
 
-    private void isTransitionAllowed(RocketStatus updatedStatus) {
-        if (!TRANSITIONS.get(status).contains(updatedStatus)) {
-            throw new InvalidObjectStateException(
+    /**
+     * Returns {@code null} if the transition is allowed, so allowed transitions allocate nothing but the new rocket.
+     */
+    private TransitionResult<Rocket> rejection(RocketStatus updatedStatus) {
+        if (!Transitions.isAllowed(TRANSITIONS, status, updatedStatus)) {
+            return TransitionResult.rejected(
                     "Rocket status cannot be updated from {0} to {1}. Rocket: {2}", status, updatedStatus, this
             );
         }
+        if (updatedStatus == RocketStatus.IN_SPACE && missionId == null) {
+            return TransitionResult.rejected(
+                    "Rocket cannot go to space because there is no mission. Rocket: {0}", this
+            );
+        }
+        return null;
     }
 
     private void validate() {
@@ -127,7 +164,7 @@ public class Rocket implements SpaceXObject {
         if (status == null) {
             throw new InvalidObjectStateException("Rocket status cannot be null. Rocket: {0}", this);
         }
-        if (status == RocketStatus.IN_SPACE && missionId.isEmpty()) {
+        if (status == RocketStatus.IN_SPACE && missionId == null) {
             throw new InvalidObjectStateException("Rocket is IN_SPACE and there is no mission assigned. Rocket: {0}", this);
         }
     }
@@ -1,3 +1,13 @@
 package com.six.spacex.domain;
 
-public interface SpaceXObject { }
+import com.six.spacex.domain.id.SpaceXId;
+
+public interface SpaceXObject {
+
+    SpaceXId getId();
+
+    /**
+     * Every state transition returns a new object with the version incremented by one.
+     */
+    long getVersion();
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.six.spacex.domain;
+
+import java.text.MessageFormat;
+import java.util.Optional;
+
+/**
+ * Outcome of a transition for callers that branch on rejections instead of catching
+ * {@link InvalidObjectStateException}. The rejection reason is formatted only when it is asked for.
+ */
+public final class TransitionResult<T> {
+
+    private final T value;
+    private final String reason;
+    private final Object[] params;
+
+    private TransitionResult(T value, String reason, Object[] params) {
+        this.value = value;
+        this.reason = reason;
+        this.params = params;
+    }
+
+    public static <T> TransitionResult<T> success(T value) {
+        return new TransitionResult<>(value, null, null);
+    }
+
+    public static <T> TransitionResult<T> rejected(String reason, Object... params) {
+        return new TransitionResult<>(null, reason, params);
+    }
+
+    public boolean isSuccess() {
+        return reason == null;
+    }
+
+    public boolean isRejected() {
+        return reason != null;
+    }
+
+    public Optional<T> toOptional() {
+        return Optional.ofNullable(value);
+    }
+
+    public T orElse(T other) {
+        return isSuccess() ? value : other;
+    }
+
+    public T orElseThrow() {
+        if (isRejected()) {
+            throw toException();
+        }
+        return value;
+    }
+
+    public String getReason() {
+        return isRejected() ? MessageFormat.format(reason, params) : null;
+    }
+
+    public InvalidObjectStateException toException() {
+        if (isSuccess()) {
+            throw new IllegalStateException("Successful transition has no rejection");
+        }
+        return InvalidObjectStateException.rejected(reason, params);
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "TransitionResult{value=" + value + '}' : "TransitionResult{reason=" + getReason() + '}';
+    }
+}
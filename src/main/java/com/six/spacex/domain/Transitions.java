@@ -0,0 +1,35 @@
+package com.six.spacex.domain;
+
+import com.six.spacex.InternalSpaceXException;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Transition table packed into one bitmask of allowed target ordinals per source ordinal.
+ */
+final class Transitions {
+
+    private Transitions() {
+    }
+
+    static <S extends Enum<S>> int[] of(Class<S> type, Map<S, EnumSet<S>> allowed) {
+        S[] allStatuses = type.getEnumConstants();
+        if (allowed.size() != allStatuses.length) {
+            throw new InternalSpaceXException(
+                    "Some statuses of {0} are not handled. Transitions: {1}", type.getSimpleName(), allowed
+            );
+        }
+        int[] transitions = new int[allStatuses.length];
+        allowed.forEach((from, targets) -> {
+            for (S target: targets) {
+                transitions[from.ordinal()] |= 1 << target.ordinal();
+            }
+        });
+        return transitions;
+    }
+
+    static boolean isAllowed(int[] transitions, Enum<?> from, Enum<?> to) {
+        return (transitions[from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+}
@@ -0,0 +1,390 @@
+package com.six.spacex.domain.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash array mapped trie. {@link #plus(Object, Object)} and {@link #minus(Object)} return a new map
+ * in O(log32 n), which shares all untouched nodes with this one, so old versions stay valid and can be read
+ * concurrently without copying. Mutators of {@link Map} throw {@link UnsupportedOperationException}.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object NOT_FOUND = new Object();
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        Objects.requireNonNull(key);
+        int hash = hash(key);
+        boolean added = root.find(hash, key, 0) == NOT_FOUND;
+        Node updated = root.put(hash, key, value, 0);
+        return updated == root ? this : new PersistentHashMap<>(updated, added ? size + 1 : size);
+    }
+
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (key == null) {
+            return this;
+        }
+        Node updated = root.remove(hash(key), key, 0);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? empty() : new PersistentHashMap<>(updated, size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Object value = root.find(hash(key), key, 0);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && root.find(hash(key), key, 0) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private abstract static class Node {
+
+        /**
+         * Returns the value or {@link #NOT_FOUND}, values may be {@code null}.
+         */
+        abstract Object find(int hash, Object key, int shift);
+
+        /**
+         * Returns this node if the key is already mapped to the same value instance.
+         */
+        abstract Node put(int hash, Object key, Object value, int shift);
+
+        /**
+         * Returns this node if there is no such key and {@code null} if the node became empty.
+         */
+        abstract Node remove(int hash, Object key, int shift);
+
+        abstract int slots();
+
+        /**
+         * Key at the slot, or {@code null} if the slot holds a child node.
+         */
+        abstract Object keyAt(int slot);
+
+        abstract Object valueAt(int slot);
+    }
+
+    /**
+     * Slots are pairs in {@link #array}: a key and its value, or {@code null} and a child node.
+     */
+    private static final class BitmapNode extends Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int index = index(bit);
+            Object storedKey = array[2 * index];
+            Object storedValue = array[2 * index + 1];
+            if (storedKey == null) {
+                return ((Node) storedValue).find(hash, key, shift + BITS);
+            }
+            return key.equals(storedKey) ? storedValue : NOT_FOUND;
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] updated = new Object[array.length + 2];
+                System.arraycopy(array, 0, updated, 0, 2 * index);
+                updated[2 * index] = key;
+                updated[2 * index + 1] = value;
+                System.arraycopy(array, 2 * index, updated, 2 * index + 2, array.length - 2 * index);
+                return new BitmapNode(bitmap | bit, updated);
+            }
+            Object storedKey = array[2 * index];
+            Object storedValue = array[2 * index + 1];
+            if (storedKey == null) {
+                Node child = (Node) storedValue;
+                Node updatedChild = child.put(hash, key, value, shift + BITS);
+                return updatedChild == child ? this : withSlot(index, null, updatedChild);
+            }
+            if (key.equals(storedKey)) {
+                return storedValue == value ? this : withSlot(index, storedKey, value);
+            }
+            Node child = pair(storedKey, storedValue, hash(storedKey), key, value, hash, shift + BITS);
+            return withSlot(index, null, child);
+        }
+
+        @Override
+        Node remove(int hash, Object key, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object storedKey = array[2 * index];
+            Object storedValue = array[2 * index + 1];
+            if (storedKey == null) {
+                Node child = (Node) storedValue;
+                Node updatedChild = child.remove(hash, key, shift + BITS);
+                if (updatedChild == child) {
+                    return this;
+                }
+                return updatedChild == null ? withoutSlot(bit, index) : withSlot(index, null, updatedChild);
+            }
+            return key.equals(storedKey) ? withoutSlot(bit, index) : this;
+        }
+
+        @Override
+        int slots() {
+            return array.length / 2;
+        }
+
+        @Override
+        Object keyAt(int slot) {
+            return array[2 * slot];
+        }
+
+        @Override
+        Object valueAt(int slot) {
+            return array[2 * slot + 1];
+        }
+
+        private static Node pair(Object key1, Object value1, int hash1, Object key2, Object value2, int hash2,
+                                 int shift) {
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] {key1, key2}, new Object[] {value1, value2});
+            }
+            return EMPTY.put(hash1, key1, value1, shift).put(hash2, key2, value2, shift);
+        }
+
+        private BitmapNode withSlot(int index, Object key, Object value) {
+            Object[] updated = array.clone();
+            updated[2 * index] = key;
+            updated[2 * index + 1] = value;
+            return new BitmapNode(bitmap, updated);
+        }
+
+        private BitmapNode withoutSlot(int bit, int index) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] updated = new Object[array.length - 2];
+            System.arraycopy(array, 0, updated, 0, 2 * index);
+            System.arraycopy(array, 2 * index + 2, updated, 2 * index, array.length - 2 * index - 2);
+            return new BitmapNode(bitmap ^ bit, updated);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+    }
+
+    /**
+     * Keys with equal full hashes, they can only be told apart by {@link Object#equals(Object)}.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+        private final Object[] keys;
+        private final Object[] values;
+
+        CollisionNode(int hash, Object[] keys, Object[] values) {
+            this.hash = hash;
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            return index < 0 ? NOT_FOUND : values[index];
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift) {
+            if (hash != this.hash) {
+                // the key shares all hash bits used so far, but not the whole hash
+                return new BitmapNode(BitmapNode.bit(this.hash, shift), new Object[] {null, this})
+                        .put(hash, key, value, shift);
+            }
+            int index = indexOf(key);
+            if (index >= 0) {
+                if (values[index] == value) {
+                    return this;
+                }
+                Object[] updatedValues = values.clone();
+                updatedValues[index] = value;
+                return new CollisionNode(hash, keys, updatedValues);
+            }
+            Object[] updatedKeys = Arrays.copyOf(keys, keys.length + 1);
+            Object[] updatedValues = Arrays.copyOf(values, values.length + 1);
+            updatedKeys[keys.length] = key;
+            updatedValues[values.length] = value;
+            return new CollisionNode(hash, updatedKeys, updatedValues);
+        }
+
+        @Override
+        Node remove(int hash, Object key, int shift) {
+            int index = hash == this.hash ? indexOf(key) : -1;
+            if (index < 0) {
+                return this;
+            }
+            if (keys.length == 2) {
+                int other = 1 - index;
+                return BitmapNode.EMPTY.put(hash, keys[other], values[other], shift);
+            }
+            Object[] updatedKeys = new Object[keys.length - 1];
+            Object[] updatedValues = new Object[values.length - 1];
+            System.arraycopy(keys, 0, updatedKeys, 0, index);
+            System.arraycopy(keys, index + 1, updatedKeys, index, keys.length - index - 1);
+            System.arraycopy(values, 0, updatedValues, 0, index);
+            System.arraycopy(values, index + 1, updatedValues, index, values.length - index - 1);
+            return new CollisionNode(hash, updatedKeys, updatedValues);
+        }
+
+        @Override
+        int slots() {
+            return keys.length;
+        }
+
+        @Override
+        Object keyAt(int slot) {
+            return keys[slot];
+        }
+
+        @Override
+        Object valueAt(int slot) {
+            return values[slot];
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Depth-first walk, the trie is at most 7 levels deep plus a collision node.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+        private final Node[] nodes = new Node[8];
+        private final int[] slots = new int[8];
+        private int depth;
+        private Entry<K, V> next;
+
+        EntryIterator(Node root) {
+            nodes[0] = root;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> current = next;
+            advance();
+            return current;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                int slot = slots[depth];
+                if (slot == node.slots()) {
+                    depth--;
+                    continue;
+                }
+                slots[depth] = slot + 1;
+                Object key = node.keyAt(slot);
+                if (key == null) {
+                    depth++;
+                    nodes[depth] = (Node) node.valueAt(slot);
+                    slots[depth] = 0;
+                } else {
+                    next = new SimpleImmutableEntry<>((K) key, (V) node.valueAt(slot));
+                    return;
+                }
+            }
+            next = null;
+        }
+    }
+}
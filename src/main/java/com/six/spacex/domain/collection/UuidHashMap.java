@@ -0,0 +1,343 @@
+package com.six.spacex.domain.collection;
+
+import com.six.spacex.domain.id.SpaceXId;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Open-addressing hash map with linear probing, keyed by the two longs of the UUID inside an ID. Keys are kept
+ * in one flat {@code long[]} next to the values, so there is no node per entry and a lookup probes adjacent
+ * slots without dereferencing any key object. Key objects are created by the key factory only when keys are
+ * iterated.
+ * <p>
+ * The map is split into independent segments, each with its own table. Reads never lock and see every write
+ * which completed before they started. Writes lock only the segment of their key, so writers of different
+ * keys rarely meet. A removed entry leaves a tombstone, which only its own key can take again, so a slot never
+ * changes its key while readers may probe it; tombstones are dropped when a segment's table is rebuilt.
+ * {@code null} values are not supported, compound operations of {@link java.util.Map} and {@link #clear()}
+ * are not atomic.
+ */
+public final class UuidHashMap<K extends SpaceXId, V> extends AbstractMap<K, V> {
+
+    private static final int MAX_SEGMENTS = 64;
+    private static final int DEFAULT_SEGMENTS = Math.min(MAX_SEGMENTS, 4 * Runtime.getRuntime().availableProcessors());
+    private static final int MIN_CAPACITY = 16;
+    private static final Object TOMBSTONE = new Object();
+
+    private final Function<UUID, K> keyFactory;
+    private final Class<?> keyType;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    /**
+     * @param keyFactory creates keys from UUIDs, e.g. {@code RocketId::new}
+     */
+    public UuidHashMap(Function<UUID, K> keyFactory) {
+        this(keyFactory, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param segments number of independently locked segments, rounded up to a power of two, at most
+     *                 {@value #MAX_SEGMENTS}
+     */
+    public UuidHashMap(Function<UUID, K> keyFactory, int segments) {
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, segments - 1)) << 1);
+        this.keyFactory = keyFactory;
+        this.keyType = keyFactory.apply(new UUID(0, 0)).getClass();
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (!keyType.isInstance(key)) {
+            return null;
+        }
+        UUID uuid = ((SpaceXId) key).value();
+        long high = uuid.getMostSignificantBits();
+        long low = uuid.getLeastSignificantBits();
+        long hash = hash(high, low);
+        Table current = segmentOf(hash).table;
+        for (int slot = current.slotOf(hash); ; slot = (slot + 1) & current.mask) {
+            // a slot is published by its value, so its key is visible once the value is
+            Object value = current.values.get(slot);
+            if (value == null) {
+                return null;
+            }
+            if (current.keys[2 * slot] == high && current.keys[2 * slot + 1] == low) {
+                return value == TOMBSTONE ? null : (V) value;
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(value);
+        UUID uuid = key.value();
+        long high = uuid.getMostSignificantBits();
+        long low = uuid.getLeastSignificantBits();
+        long hash = hash(high, low);
+        return cast(segmentOf(hash).put(hash, high, low, value));
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!keyType.isInstance(key)) {
+            return null;
+        }
+        UUID uuid = ((SpaceXId) key).value();
+        long high = uuid.getMostSignificantBits();
+        long low = uuid.getLeastSignificantBits();
+        long hash = hash(high, low);
+        return cast(segmentOf(hash).remove(hash, high, low));
+    }
+
+    /**
+     * Clears the segments one by one, entries put meanwhile into a cleared segment stay.
+     */
+    @Override
+    public void clear() {
+        for (Segment segment: segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment: segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Iterates every segment's table as it was when the iteration reached the segment, values are read as they
+     * are when reached.
+     */
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<>(segments) {
+                    @Override
+                    V entry(Table table, int slot, Object value) {
+                        return cast(value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return UuidHashMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new SlotIterator<>(segments) {
+                    @Override
+                    Entry<K, V> entry(Table table, int slot, Object value) {
+                        K key = keyFactory.apply(new UUID(table.keys[2 * slot], table.keys[2 * slot + 1]));
+                        return new SimpleImmutableEntry<>(key, cast(value));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return UuidHashMap.this.size();
+            }
+        };
+    }
+
+    private static long hash(long high, long low) {
+        return (high ^ low) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * The top bits select the segment, the slot is taken from lower bits.
+     */
+    private Segment segmentOf(long hash) {
+        return segments[(int) (hash >>> 58) & segmentMask];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(Object value) {
+        return (V) value;
+    }
+
+    /**
+     * Writes are serialized by the segment's monitor.
+     */
+    private static final class Segment {
+
+        private volatile Table table = new Table(MIN_CAPACITY);
+        private volatile int size;
+        private int used;
+
+        synchronized Object put(long hash, long high, long low, Object value) {
+            int slot = find(table, hash, high, low);
+            Object previous = table.values.get(slot);
+            if (previous == null) {
+                if (used + 1 > table.threshold) {
+                    table = rebuild(size + 1);
+                    slot = find(table, hash, high, low);
+                }
+                table.keys[2 * slot] = high;
+                table.keys[2 * slot + 1] = low;
+                used++;
+            }
+            table.values.set(slot, value);
+            if (previous == null || previous == TOMBSTONE) {
+                size++;
+                return null;
+            }
+            return previous;
+        }
+
+        synchronized Object remove(long hash, long high, long low) {
+            int slot = find(table, hash, high, low);
+            Object previous = table.values.get(slot);
+            if (previous == null || previous == TOMBSTONE) {
+                return null;
+            }
+            table.values.set(slot, TOMBSTONE);
+            size--;
+            return previous;
+        }
+
+        synchronized void clear() {
+            table = new Table(MIN_CAPACITY);
+            size = 0;
+            used = 0;
+        }
+
+        /**
+         * Slot of the key, or the empty slot where it would be inserted.
+         */
+        private static int find(Table table, long hash, long high, long low) {
+            for (int slot = table.slotOf(hash); ; slot = (slot + 1) & table.mask) {
+                if (table.values.get(slot) == null
+                        || table.keys[2 * slot] == high && table.keys[2 * slot + 1] == low) {
+                    return slot;
+                }
+            }
+        }
+
+        /**
+         * New table for the live entries only, readers keep probing the old one until the new one is published.
+         */
+        private Table rebuild(int entries) {
+            Table rebuilt = new Table(Math.max(MIN_CAPACITY, Integer.highestOneBit(entries * 2 - 1) << 1));
+            Table current = table;
+            for (int slot = 0; slot <= current.mask; slot++) {
+                Object value = current.values.get(slot);
+                if (value != null && value != TOMBSTONE) {
+                    long high = current.keys[2 * slot];
+                    long low = current.keys[2 * slot + 1];
+                    int target = find(rebuilt, hash(high, low), high, low);
+                    rebuilt.keys[2 * target] = high;
+                    rebuilt.keys[2 * target + 1] = low;
+                    rebuilt.values.set(target, value);
+                }
+            }
+            used = size;
+            return rebuilt;
+        }
+    }
+
+    private static final class Table {
+
+        private final long[] keys;
+        private final AtomicReferenceArray<Object> values;
+        private final int mask;
+        private final int threshold;
+
+        Table(int capacity) {
+            this.keys = new long[2 * capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.threshold = capacity / 4 * 3;
+        }
+
+        int slotOf(long hash) {
+            return (int) (hash >>> 16) & mask;
+        }
+    }
+
+    private abstract static class SlotIterator<T> implements Iterator<T> {
+
+        private final Segment[] segments;
+        private int segment = -1;
+        private Table table;
+        private int slot;
+        private Object value;
+
+        SlotIterator(Segment[] segments) {
+            this.segments = segments;
+            advance();
+        }
+
+        abstract T entry(Table table, int slot, Object value);
+
+        @Override
+        public boolean hasNext() {
+            return value != null;
+        }
+
+        @Override
+        public T next() {
+            if (value == null) {
+                throw new NoSuchElementException();
+            }
+            T next = entry(table, slot, value);
+            advance();
+            return next;
+        }
+
+        private void advance() {
+            value = null;
+            while (true) {
+                if (table == null || slot >= table.mask) {
+                    if (++segment == segments.length) {
+                        return;
+                    }
+                    table = segments[segment].table;
+                    slot = -1;
+                }
+                while (++slot <= table.mask) {
+                    Object candidate = table.values.get(slot);
+                    if (candidate != null && candidate != TOMBSTONE) {
+                        value = candidate;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
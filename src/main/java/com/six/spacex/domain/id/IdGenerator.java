@@ -0,0 +1,24 @@
+package com.six.spacex.domain.id;
+
+import java.util.UUID;
+
+/**
+ * Source of UUIDs for new rockets and missions.
+ */
+public interface IdGenerator {
+
+    /**
+     * Random version 4 UUIDs from the shared {@link java.security.SecureRandom} of {@link UUID#randomUUID()}.
+     */
+    IdGenerator RANDOM = UUID::randomUUID;
+
+    UUID next();
+
+    default RocketId nextRocketId() {
+        return new RocketId(next());
+    }
+
+    default MissionId nextMissionId() {
+        return new MissionId(next());
+    }
+}
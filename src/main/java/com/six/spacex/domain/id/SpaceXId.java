@@ -1,3 +1,7 @@
 package com.six.spacex.domain.id;
 
-public interface SpaceXId { }
+import java.util.UUID;
+
+public interface SpaceXId {
+    UUID value();
+}
@@ -0,0 +1,35 @@
+package com.six.spacex.domain.id;
+
+import java.time.InstantSource;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version 7 UUIDs: 48 bits of Unix milliseconds followed by 74 random bits, so IDs sort by creation time
+ * and new entries land next to each other in sorted and on-disk indexes. Random bits come from the
+ * {@link ThreadLocalRandom} of the calling thread, so generators never contend. They are unique with
+ * overwhelming probability but not unpredictable, use {@link IdGenerator#RANDOM} where IDs must not be guessed.
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+
+    private final InstantSource clock;
+
+    public TimeOrderedIdGenerator() {
+        this(InstantSource.system());
+    }
+
+    public TimeOrderedIdGenerator(InstantSource clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = clock.millis() << 16 | VERSION | random.nextInt(1 << 12);
+        long low = VARIANT | random.nextLong() >>> 2;
+        return new UUID(high, low);
+    }
+}
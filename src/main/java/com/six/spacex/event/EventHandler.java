@@ -0,0 +1,10 @@
+package com.six.spacex.event;
+
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * @param endOfBatch {@code true} for the last event of a poll, e.g. to flush work buffered for the batch
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,81 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.repository.ObservableRepository;
+import com.six.spacex.repository.RepositoryListener;
+
+import java.util.Optional;
+
+/**
+ * Turns saves of observed repositories into {@link SpaceXEvent}s on an {@link EventRing}. Events are published
+ * by the saving thread after the save, publishing never blocks it.
+ */
+public class EventPublisher {
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final EventRing<SpaceXEvent> ring;
+    private final RepositoryListener<Rocket> rocketListener = this::rocketSaved;
+    private final RepositoryListener<Mission> missionListener = this::missionSaved;
+
+    public EventPublisher() {
+        this(new EventRing<>(DEFAULT_CAPACITY));
+    }
+
+    public EventPublisher(EventRing<SpaceXEvent> ring) {
+        this.ring = ring;
+    }
+
+    public EventPublisher attach(ObservableRepository<MissionId, Mission> missions,
+                                 ObservableRepository<?, Rocket> rockets) {
+        missions.addListener(missionListener);
+        rockets.addListener(rocketListener);
+        return this;
+    }
+
+    public EventRing<SpaceXEvent>.Subscription subscribe() {
+        return ring.subscribe();
+    }
+
+    public RepositoryListener<Rocket> getRocketListener() {
+        return rocketListener;
+    }
+
+    public RepositoryListener<Mission> getMissionListener() {
+        return missionListener;
+    }
+
+    private void rocketSaved(Rocket previous, Rocket saved) {
+        if (previous == null) {
+            ring.publish(new RocketAdded(saved.getId(), saved.getName(), saved.getStatus(), saved.getVersion()));
+        }
+        Optional<MissionId> previousMissionId = previous == null ? Optional.empty() : previous.getMissionId();
+        if (saved.getMissionId().isPresent() && !previousMissionId.equals(saved.getMissionId())) {
+            ring.publish(new RocketAssigned(
+                    saved.getId(), previousMissionId, saved.getMissionId().get(), saved.getVersion()
+            ));
+        }
+        if (previous != null && previous.getStatus() != saved.getStatus()) {
+            ring.publish(new RocketStatusChanged(saved.getId(), previous.getStatus(), saved.getStatus(), saved.getVersion()));
+        }
+    }
+
+    private void missionSaved(Mission previous, Mission saved) {
+        if (previous == null) {
+            ring.publish(new MissionAdded(
+                    saved.getId(), saved.getName(), saved.getStatus(), saved.getRockets().size(), saved.getVersion()
+            ));
+            return;
+        }
+        if (previous.getStatus() != saved.getStatus()) {
+            ring.publish(new MissionStatusChanged(saved.getId(), previous.getStatus(), saved.getStatus(), saved.getVersion()));
+        }
+        if (previous.getRockets().size() != saved.getRockets().size()) {
+            ring.publish(new MissionRocketsAssigned(
+                    saved.getId(), previous.getRockets().size(), saved.getRockets().size(), saved.getVersion()
+            ));
+        }
+    }
+}
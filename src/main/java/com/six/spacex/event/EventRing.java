@@ -0,0 +1,115 @@
+package com.six.spacex.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free broadcast ring for many producers and many consumers. Publishing never waits: when the ring
+ * is full the oldest events are overwritten. Every {@link Subscription} reads all events at its own pace, one that
+ * falls more than the capacity behind skips the overwritten events and counts them as lost.
+ */
+public class EventRing<E> {
+
+    private final AtomicReferenceArray<Entry<E>> entries;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    public EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return sequence of the event
+     */
+    public long publish(E event) {
+        long sequence = next.getAndIncrement();
+        Entry<E> entry = new Entry<>(sequence, event);
+        int index = (int) sequence & mask;
+        Entry<E> current;
+        do {
+            current = entries.get(index);
+            if (current != null && current.sequence > sequence) {
+                // a producer one lap ahead already took the slot, the event counts as lost for everybody
+                return sequence;
+            }
+        } while (!entries.compareAndSet(index, current, entry));
+        return sequence;
+    }
+
+    /**
+     * Subscription receives events published after this call. It must be polled by one thread at a time.
+     */
+    public Subscription subscribe() {
+        return new Subscription(next.get());
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    private record Entry<E>(long sequence, E event) {
+    }
+
+    public class Subscription {
+
+        private long cursor;
+        private long lost;
+
+        private Subscription(long cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * Hands over up to {@code maxBatch} published events in order. The cursor moves past an event after
+         * the handler returned, so an event whose handler threw is handed over again by the next poll.
+         *
+         * @return number of handled events, 0 if there is nothing new
+         */
+        public int poll(EventHandler<? super E> handler, int maxBatch) {
+            skipOverwritten();
+            int polled = 0;
+            Entry<E> entry = read(cursor);
+            while (entry != null && polled < maxBatch) {
+                Entry<E> following = polled + 1 < maxBatch ? read(cursor + 1) : null;
+                handler.onEvent(entry.event(), entry.sequence(), following == null);
+                cursor++;
+                polled++;
+                entry = following;
+            }
+            return polled;
+        }
+
+        /**
+         * Number of events overwritten before this subscription read them.
+         */
+        public long getLost() {
+            return lost;
+        }
+
+        /**
+         * Number of published events this subscription has not read yet, including lost ones.
+         */
+        public long getLag() {
+            return next.get() - cursor;
+        }
+
+        private void skipOverwritten() {
+            long oldest = next.get() - entries.length();
+            Entry<E> entry = entries.get((int) cursor & mask);
+            if (entry != null && entry.sequence() > cursor) {
+                oldest = Math.max(oldest, entry.sequence() - entries.length() + 1);
+            }
+            if (cursor < oldest) {
+                lost += oldest - cursor;
+                cursor = oldest;
+            }
+        }
+
+        private Entry<E> read(long sequence) {
+            Entry<E> entry = entries.get((int) sequence & mask);
+            return entry != null && entry.sequence() == sequence ? entry : null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.id.MissionId;
+
+public record MissionAdded(MissionId id, String name, MissionStatus status, int rocketCount, long version)
+        implements SpaceXEvent {
+}
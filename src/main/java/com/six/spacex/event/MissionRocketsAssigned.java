@@ -0,0 +1,7 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.id.MissionId;
+
+public record MissionRocketsAssigned(MissionId id, int previousRocketCount, int rocketCount, long version)
+        implements SpaceXEvent {
+}
@@ -0,0 +1,8 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.id.MissionId;
+
+public record MissionStatusChanged(MissionId id, MissionStatus previousStatus, MissionStatus status, long version)
+        implements SpaceXEvent {
+}
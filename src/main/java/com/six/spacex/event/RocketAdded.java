@@ -0,0 +1,7 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.RocketId;
+
+public record RocketAdded(RocketId id, String name, RocketStatus status, long version) implements SpaceXEvent {
+}
@@ -0,0 +1,13 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+
+import java.util.Optional;
+
+/**
+ * @param previousMissionId empty if the rocket was not assigned before
+ */
+public record RocketAssigned(RocketId id, Optional<MissionId> previousMissionId, MissionId missionId, long version)
+        implements SpaceXEvent {
+}
@@ -0,0 +1,8 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.RocketId;
+
+public record RocketStatusChanged(RocketId id, RocketStatus previousStatus, RocketStatus status, long version)
+        implements SpaceXEvent {
+}
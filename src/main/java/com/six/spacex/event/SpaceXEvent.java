@@ -0,0 +1,18 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.id.SpaceXId;
+
+/**
+ * Change of a rocket or a mission, published after the change was saved.
+ */
+public sealed interface SpaceXEvent
+        permits RocketAdded, RocketAssigned, RocketStatusChanged, MissionAdded, MissionRocketsAssigned,
+        MissionStatusChanged {
+
+    SpaceXId id();
+
+    /**
+     * Version of the object after the change.
+     */
+    long version();
+}
@@ -0,0 +1,64 @@
+package com.six.spacex.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a {@link Histogram} per operation and a counter per operation and rejection cause in memory,
+ * to be read by a monitoring endpoint or a test.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private final Map<String, Histogram> timers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, LongAdder>> rejections = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public Histogram timer(String operation) {
+        return timers.computeIfAbsent(operation, name -> new Histogram());
+    }
+
+    @Override
+    public void rejected(String operation, String cause) {
+        Map<String, LongAdder> causes = rejections.get(operation);
+        if (causes == null) {
+            causes = rejections.computeIfAbsent(operation, name -> new ConcurrentHashMap<>());
+        }
+        LongAdder count = causes.get(cause);
+        if (count == null) {
+            count = causes.computeIfAbsent(cause, name -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public Map<String, Histogram> getTimers() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * @return number of rejections of the operation by cause
+     */
+    public Map<String, Long> getRejections(String operation) {
+        Map<String, Long> counts = new TreeMap<>();
+        rejections.getOrDefault(operation, Map.of()).forEach((cause, count) -> counts.put(cause, count.sum()));
+        return counts;
+    }
+
+    /**
+     * @return current value of every gauge
+     */
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, value) -> values.put(name, value.getAsLong()));
+        return values;
+    }
+}
@@ -0,0 +1,123 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.service.mission.MissionService;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Records every call of the service as operation {@code missionService.<method>}.
+ */
+public class InstrumentedMissionService<ID extends SpaceXId, O extends SpaceXObject, R extends SpaceXObject>
+        implements MissionService<ID, O, R> {
+
+    private final MissionService<ID, O, R> delegate;
+    private final Operation getAllSorted;
+    private final Operation query;
+    private final Operation getAll;
+    private final Operation get;
+    private final Operation save;
+    private final Operation saveAll;
+    private final Operation assignRockets;
+    private final Operation markAsPending;
+    private final Operation start;
+    private final Operation schedule;
+    private final Operation end;
+    private final Operation endAll;
+
+    public InstrumentedMissionService(MissionService<ID, O, R> delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.getAllSorted = new Operation(registry, "missionService.getAllSorted");
+        this.query = new Operation(registry, "missionService.query");
+        this.getAll = new Operation(registry, "missionService.getAll");
+        this.get = new Operation(registry, "missionService.get");
+        this.save = new Operation(registry, "missionService.save");
+        this.saveAll = new Operation(registry, "missionService.saveAll");
+        this.assignRockets = new Operation(registry, "missionService.assignRockets");
+        this.markAsPending = new Operation(registry, "missionService.markAsPending");
+        this.start = new Operation(registry, "missionService.start");
+        this.schedule = new Operation(registry, "missionService.schedule");
+        this.end = new Operation(registry, "missionService.end");
+        this.endAll = new Operation(registry, "missionService.endAll");
+    }
+
+    /**
+     * @return the service itself if metrics are disabled
+     */
+    public static <ID extends SpaceXId, O extends SpaceXObject, R extends SpaceXObject> MissionService<ID, O, R> instrument(
+            MissionService<ID, O, R> service, MetricsRegistry registry) {
+        return registry == MetricsRegistry.NOOP ? service : new InstrumentedMissionService<>(service, registry);
+    }
+
+    @Override
+    public List<O> getAll(Comparator<O> comparator) {
+        return getAllSorted.call(() -> delegate.getAll(comparator));
+    }
+
+    @Override
+    public Stream<O> query(Comparator<O> comparator, PageRequest<O> page) {
+        return query.call(() -> delegate.query(comparator, page));
+    }
+
+    @Override
+    public List<O> getAll() {
+        return getAll.call(delegate::getAll);
+    }
+
+    @Override
+    public Optional<O> get(ID id) {
+        return get.call(() -> delegate.get(id));
+    }
+
+    @Override
+    public O save(O object) {
+        return save.call(() -> delegate.save(object));
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects) {
+        return saveAll.call(() -> delegate.saveAll(objects));
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion) {
+        return saveAll.call(() -> delegate.saveAll(objects, expectedVersion));
+    }
+
+    @Override
+    public O assignRockets(ID id, List<R> rockets) {
+        return assignRockets.call(() -> delegate.assignRockets(id, rockets));
+    }
+
+    @Override
+    public O markAsPending(ID id, List<R> rockets) {
+        return markAsPending.call(() -> delegate.markAsPending(id, rockets));
+    }
+
+    @Override
+    public O start(ID id, List<R> rockets) {
+        return start.call(() -> delegate.start(id, rockets));
+    }
+
+    @Override
+    public O schedule(ID id, List<R> rockets) {
+        return schedule.call(() -> delegate.schedule(id, rockets));
+    }
+
+    @Override
+    public O end(ID id) {
+        return end.call(() -> delegate.end(id));
+    }
+
+    @Override
+    public List<O> endAll(Collection<ID> ids) {
+        return endAll.call(() -> delegate.endAll(ids));
+    }
+}
@@ -0,0 +1,88 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.PageRequest;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Records every call of the repository as operation {@code <name>.<method>} and registers the gauge
+ * {@code <name>.size}, read from {@link CrudRepository#count()}, which is not recorded as an operation.
+ */
+public class InstrumentedRepository<ID extends SpaceXId, O extends SpaceXObject> implements CrudRepository<ID, O> {
+
+    private final CrudRepository<ID, O> delegate;
+    private final Operation getAll;
+    private final Operation get;
+    private final Operation save;
+    private final Operation saveAll;
+    private final Operation query;
+    private final Operation update;
+
+    public InstrumentedRepository(CrudRepository<ID, O> delegate, MetricsRegistry registry, String name) {
+        this.delegate = delegate;
+        this.getAll = new Operation(registry, name + ".getAll");
+        this.get = new Operation(registry, name + ".get");
+        this.save = new Operation(registry, name + ".save");
+        this.saveAll = new Operation(registry, name + ".saveAll");
+        this.query = new Operation(registry, name + ".query");
+        this.update = new Operation(registry, name + ".update");
+        registry.gauge(name + ".size", delegate::count);
+    }
+
+    /**
+     * @return the repository itself if metrics are disabled
+     */
+    public static <ID extends SpaceXId, O extends SpaceXObject> CrudRepository<ID, O> instrument(
+            CrudRepository<ID, O> repository, MetricsRegistry registry, String name) {
+        return registry == MetricsRegistry.NOOP ? repository : new InstrumentedRepository<>(repository, registry, name);
+    }
+
+    @Override
+    public List<O> getAll() {
+        return getAll.call(delegate::getAll);
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public Optional<O> get(ID id) {
+        return get.call(() -> delegate.get(id));
+    }
+
+    @Override
+    public O save(O object) {
+        return save.call(() -> delegate.save(object));
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects) {
+        return saveAll.call(() -> delegate.saveAll(objects));
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion) {
+        return saveAll.call(() -> delegate.saveAll(objects, expectedVersion));
+    }
+
+    @Override
+    public Stream<O> query(Comparator<O> comparator, PageRequest<O> page) {
+        return query.call(() -> delegate.query(comparator, page));
+    }
+
+    @Override
+    public Optional<O> update(ID id, Function<O, O> operation) {
+        return update.call(() -> delegate.update(id, operation));
+    }
+}
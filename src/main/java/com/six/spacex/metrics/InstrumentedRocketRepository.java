@@ -0,0 +1,32 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.RocketRepository;
+
+import java.util.List;
+
+public class InstrumentedRocketRepository extends InstrumentedRepository<RocketId, Rocket> implements RocketRepository {
+
+    private final RocketRepository delegate;
+    private final Operation getByMissionId;
+
+    public InstrumentedRocketRepository(RocketRepository delegate, MetricsRegistry registry, String name) {
+        super(delegate, registry, name);
+        this.delegate = delegate;
+        this.getByMissionId = new Operation(registry, name + ".getByMissionId");
+    }
+
+    /**
+     * @return the repository itself if metrics are disabled
+     */
+    public static RocketRepository instrument(RocketRepository repository, MetricsRegistry registry, String name) {
+        return registry == MetricsRegistry.NOOP ? repository : new InstrumentedRocketRepository(repository, registry, name);
+    }
+
+    @Override
+    public List<Rocket> getByMissionId(MissionId missionId) {
+        return getByMissionId.call(() -> delegate.getByMissionId(missionId));
+    }
+}
@@ -0,0 +1,137 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.service.rocket.RocketService;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Records every call of the service as operation {@code rocketService.<method>}.
+ */
+public class InstrumentedRocketService<ID extends SpaceXId, O extends SpaceXObject, MID extends SpaceXId>
+        implements RocketService<ID, O, MID> {
+
+    private final RocketService<ID, O, MID> delegate;
+    private final Operation getAllSorted;
+    private final Operation query;
+    private final Operation getAll;
+    private final Operation get;
+    private final Operation save;
+    private final Operation saveAll;
+    private final Operation getRocketsByMissionId;
+    private final Operation assignToMission;
+    private final Operation repair;
+    private final Operation putOnGround;
+    private final Operation start;
+    private final Operation repairAll;
+    private final Operation putOnGroundAll;
+    private final Operation startAll;
+
+    public InstrumentedRocketService(RocketService<ID, O, MID> delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.getAllSorted = new Operation(registry, "rocketService.getAllSorted");
+        this.query = new Operation(registry, "rocketService.query");
+        this.getAll = new Operation(registry, "rocketService.getAll");
+        this.get = new Operation(registry, "rocketService.get");
+        this.save = new Operation(registry, "rocketService.save");
+        this.saveAll = new Operation(registry, "rocketService.saveAll");
+        this.getRocketsByMissionId = new Operation(registry, "rocketService.getRocketsByMissionId");
+        this.assignToMission = new Operation(registry, "rocketService.assignToMission");
+        this.repair = new Operation(registry, "rocketService.repair");
+        this.putOnGround = new Operation(registry, "rocketService.putOnGround");
+        this.start = new Operation(registry, "rocketService.start");
+        this.repairAll = new Operation(registry, "rocketService.repairAll");
+        this.putOnGroundAll = new Operation(registry, "rocketService.putOnGroundAll");
+        this.startAll = new Operation(registry, "rocketService.startAll");
+    }
+
+    /**
+     * @return the service itself if metrics are disabled
+     */
+    public static <ID extends SpaceXId, O extends SpaceXObject, MID extends SpaceXId> RocketService<ID, O, MID> instrument(
+            RocketService<ID, O, MID> service, MetricsRegistry registry) {
+        return registry == MetricsRegistry.NOOP ? service : new InstrumentedRocketService<>(service, registry);
+    }
+
+    @Override
+    public List<O> getAll(Comparator<O> comparator) {
+        return getAllSorted.call(() -> delegate.getAll(comparator));
+    }
+
+    @Override
+    public Stream<O> query(Comparator<O> comparator, PageRequest<O> page) {
+        return query.call(() -> delegate.query(comparator, page));
+    }
+
+    @Override
+    public List<O> getAll() {
+        return getAll.call(delegate::getAll);
+    }
+
+    @Override
+    public Optional<O> get(ID id) {
+        return get.call(() -> delegate.get(id));
+    }
+
+    @Override
+    public O save(O object) {
+        return save.call(() -> delegate.save(object));
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects) {
+        return saveAll.call(() -> delegate.saveAll(objects));
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion) {
+        return saveAll.call(() -> delegate.saveAll(objects, expectedVersion));
+    }
+
+    @Override
+    public List<O> getRocketsByMissionId(MID missionId) {
+        return getRocketsByMissionId.call(() -> delegate.getRocketsByMissionId(missionId));
+    }
+
+    @Override
+    public O assignToMission(ID rocketId, MID missionId) {
+        return assignToMission.call(() -> delegate.assignToMission(rocketId, missionId));
+    }
+
+    @Override
+    public O repair(ID rocketId) {
+        return repair.call(() -> delegate.repair(rocketId));
+    }
+
+    @Override
+    public O putOnGround(ID rocketId) {
+        return putOnGround.call(() -> delegate.putOnGround(rocketId));
+    }
+
+    @Override
+    public O start(ID rocketId) {
+        return start.call(() -> delegate.start(rocketId));
+    }
+
+    @Override
+    public List<O> repairAll(Collection<ID> rocketIds) {
+        return repairAll.call(() -> delegate.repairAll(rocketIds));
+    }
+
+    @Override
+    public List<O> putOnGroundAll(Collection<ID> rocketIds) {
+        return putOnGroundAll.call(() -> delegate.putOnGroundAll(rocketIds));
+    }
+
+    @Override
+    public List<O> startAll(Collection<ID> rocketIds) {
+        return startAll.call(() -> delegate.startAll(rocketIds));
+    }
+}
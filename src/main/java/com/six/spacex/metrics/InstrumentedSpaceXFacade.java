@@ -0,0 +1,130 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.service.facade.SpaceXFacade;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Records every call of the facade as operation {@code facade.<method>}.
+ */
+public class InstrumentedSpaceXFacade implements SpaceXFacade {
+
+    private final SpaceXFacade delegate;
+    private final Operation getMission;
+    private final Operation endMission;
+    private final Operation endMissions;
+    private final Operation startRocket;
+    private final Operation startRockets;
+    private final Operation markRocketAsRepaired;
+    private final Operation markRocketsAsRepaired;
+    private final Operation repairRocket;
+    private final Operation repairRockets;
+    private final Operation addRocket;
+    private final Operation assignRocketsToMission;
+    private final Operation addMission;
+    private final Operation getMissionsSortedBy;
+    private final Operation getMissionsPage;
+
+    public InstrumentedSpaceXFacade(SpaceXFacade delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.getMission = new Operation(registry, "facade.getMission");
+        this.endMission = new Operation(registry, "facade.endMission");
+        this.endMissions = new Operation(registry, "facade.endMissions");
+        this.startRocket = new Operation(registry, "facade.startRocket");
+        this.startRockets = new Operation(registry, "facade.startRockets");
+        this.markRocketAsRepaired = new Operation(registry, "facade.markRocketAsRepaired");
+        this.markRocketsAsRepaired = new Operation(registry, "facade.markRocketsAsRepaired");
+        this.repairRocket = new Operation(registry, "facade.repairRocket");
+        this.repairRockets = new Operation(registry, "facade.repairRockets");
+        this.addRocket = new Operation(registry, "facade.addRocket");
+        this.assignRocketsToMission = new Operation(registry, "facade.assignRocketsToMission");
+        this.addMission = new Operation(registry, "facade.addMission");
+        this.getMissionsSortedBy = new Operation(registry, "facade.getMissionsSortedBy");
+        this.getMissionsPage = new Operation(registry, "facade.getMissionsPage");
+    }
+
+    /**
+     * @return the facade itself if metrics are disabled
+     */
+    public static SpaceXFacade instrument(SpaceXFacade facade, MetricsRegistry registry) {
+        return registry == MetricsRegistry.NOOP ? facade : new InstrumentedSpaceXFacade(facade, registry);
+    }
+
+    @Override
+    public Mission getMission(MissionId id) {
+        return getMission.call(() -> delegate.getMission(id));
+    }
+
+    @Override
+    public Mission endMission(MissionId id) {
+        return endMission.call(() -> delegate.endMission(id));
+    }
+
+    @Override
+    public List<Mission> endMissions(Collection<MissionId> ids) {
+        return endMissions.call(() -> delegate.endMissions(ids));
+    }
+
+    @Override
+    public Rocket startRocket(RocketId id) {
+        return startRocket.call(() -> delegate.startRocket(id));
+    }
+
+    @Override
+    public List<Rocket> startRockets(Collection<RocketId> ids) {
+        return startRockets.call(() -> delegate.startRockets(ids));
+    }
+
+    @Override
+    public Rocket markRocketAsRepaired(RocketId id) {
+        return markRocketAsRepaired.call(() -> delegate.markRocketAsRepaired(id));
+    }
+
+    @Override
+    public List<Rocket> markRocketsAsRepaired(Collection<RocketId> ids) {
+        return markRocketsAsRepaired.call(() -> delegate.markRocketsAsRepaired(ids));
+    }
+
+    @Override
+    public Rocket repairRocket(RocketId id) {
+        return repairRocket.call(() -> delegate.repairRocket(id));
+    }
+
+    @Override
+    public List<Rocket> repairRockets(Collection<RocketId> ids) {
+        return repairRockets.call(() -> delegate.repairRockets(ids));
+    }
+
+    @Override
+    public Rocket addRocket(String name) {
+        return addRocket.call(() -> delegate.addRocket(name));
+    }
+
+    @Override
+    public Mission assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        return assignRocketsToMission.call(() -> delegate.assignRocketsToMission(missionId, rocketIds));
+    }
+
+    @Override
+    public Mission addMission(String name, List<Rocket> rockets) {
+        return addMission.call(() -> delegate.addMission(name, rockets));
+    }
+
+    @Override
+    public List<Mission> getMissionsSortedBy(Comparator<Mission> comparator) {
+        return getMissionsSortedBy.call(() -> delegate.getMissionsSortedBy(comparator));
+    }
+
+    @Override
+    public Stream<Mission> getMissionsSortedBy(Comparator<Mission> comparator, PageRequest<Mission> page) {
+        return getMissionsPage.call(() -> delegate.getMissionsSortedBy(comparator, page));
+    }
+}
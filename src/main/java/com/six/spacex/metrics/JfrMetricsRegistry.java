@@ -0,0 +1,125 @@
+package com.six.spacex.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Emits metrics as JDK Flight Recorder events: an event per operation with its latency, an event per
+ * rejection with its cause and, once per recording period, an event per gauge. Without a recording which
+ * enables them, e.g. {@code -XX:StartFlightRecording}, events are dropped before any field is set.
+ */
+public class JfrMetricsRegistry implements MetricsRegistry, Closeable {
+
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Runnable gaugeHook = this::emitGauges;
+
+    public JfrMetricsRegistry() {
+        FlightRecorder.addPeriodicEvent(GaugeEvent.class, gaugeHook);
+    }
+
+    @Override
+    public Timer timer(String operation) {
+        return new Timer() {
+            @Override
+            public void record(long nanos) {
+                OperationEvent event = new OperationEvent();
+                if (event.shouldCommit()) {
+                    event.operation = operation;
+                    event.latency = nanos;
+                    event.commit();
+                }
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return new OperationEvent().isEnabled();
+            }
+        };
+    }
+
+    @Override
+    public void rejected(String operation, String cause) {
+        RejectionEvent event = new RejectionEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.cause = cause;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Stops the periodic gauge events, registered gauges are no longer sampled.
+     */
+    @Override
+    public void close() {
+        FlightRecorder.removePeriodicEvent(gaugeHook);
+    }
+
+    private void emitGauges() {
+        gauges.forEach((name, value) -> {
+            GaugeEvent event = new GaugeEvent();
+            event.gauge = name;
+            event.value = value.getAsLong();
+            event.commit();
+        });
+    }
+
+    @Name("com.six.spacex.Operation")
+    @Label("SpaceX Operation")
+    @Category("SpaceX")
+    @StackTrace(false)
+    static final class OperationEvent extends Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Latency")
+        @Timespan(Timespan.NANOSECONDS)
+        long latency;
+    }
+
+    @Name("com.six.spacex.Rejection")
+    @Label("SpaceX Rejection")
+    @Description("Operation rejected by the state of an object")
+    @Category("SpaceX")
+    @StackTrace(false)
+    static final class RejectionEvent extends Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Cause")
+        String cause;
+    }
+
+    @Name("com.six.spacex.Gauge")
+    @Label("SpaceX Gauge")
+    @Category("SpaceX")
+    @Period("1 s")
+    @StackTrace(false)
+    static final class GaugeEvent extends Event {
+
+        @Label("Gauge")
+        String gauge;
+
+        @Label("Value")
+        long value;
+    }
+}
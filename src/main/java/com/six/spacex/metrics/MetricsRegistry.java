@@ -0,0 +1,78 @@
+package com.six.spacex.metrics;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Receiver of the metrics of instrumented facades, services and repositories, e.g. an
+ * {@link InMemoryMetricsRegistry}, a {@link JfrMetricsRegistry} or a bridge to a metrics library.
+ * Metrics are looked up once when a component is instrumented, recording must be cheap and thread-safe.
+ * Nothing is instrumented with {@link #NOOP}, so disabled metrics cost nothing.
+ */
+public interface MetricsRegistry {
+
+    MetricsRegistry NOOP = new MetricsRegistry() {
+        @Override
+        public Timer timer(String operation) {
+            return Timer.NOOP;
+        }
+
+        @Override
+        public void rejected(String operation, String cause) {
+        }
+
+        @Override
+        public void gauge(String name, LongSupplier value) {
+        }
+    };
+
+    Timer timer(String operation);
+
+    /**
+     * @param cause message pattern of the rejection, which names the cause without the rejected objects
+     */
+    void rejected(String operation, String cause);
+
+    /**
+     * Value is sampled whenever the registry reads it.
+     */
+    void gauge(String name, LongSupplier value);
+
+    static MetricsRegistry composite(MetricsRegistry... registries) {
+        List<MetricsRegistry> all = List.of(registries);
+        return new MetricsRegistry() {
+            @Override
+            public Timer timer(String operation) {
+                Timer[] timers = all.stream().map(registry -> registry.timer(operation)).toArray(Timer[]::new);
+                return new Timer() {
+                    @Override
+                    public void record(long nanos) {
+                        for (Timer timer: timers) {
+                            timer.record(nanos);
+                        }
+                    }
+
+                    @Override
+                    public boolean isEnabled() {
+                        for (Timer timer: timers) {
+                            if (timer.isEnabled()) {
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+                };
+            }
+
+            @Override
+            public void rejected(String operation, String cause) {
+                all.forEach(registry -> registry.rejected(operation, cause));
+            }
+
+            @Override
+            public void gauge(String name, LongSupplier value) {
+                all.forEach(registry -> registry.gauge(name, value));
+            }
+        };
+    }
+}
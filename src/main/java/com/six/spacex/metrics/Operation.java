@@ -0,0 +1,47 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.InvalidObjectStateException;
+import com.six.spacex.repository.StaleObjectException;
+
+import java.util.function.Supplier;
+
+/**
+ * Times one operation of an instrumented component and counts its rejections by cause.
+ * Streams are timed until they are returned, not until they are consumed.
+ */
+final class Operation {
+
+    private final MetricsRegistry registry;
+    private final String name;
+    private final Timer timer;
+
+    Operation(MetricsRegistry registry, String name) {
+        this.registry = registry;
+        this.name = name;
+        this.timer = registry.timer(name);
+    }
+
+    <T> T call(Supplier<T> call) {
+        if (!timer.isEnabled()) {
+            return countRejections(call);
+        }
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } catch (InvalidObjectStateException | StaleObjectException e) {
+            registry.rejected(name, e.getMessagePattern());
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+
+    private <T> T countRejections(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (InvalidObjectStateException | StaleObjectException e) {
+            registry.rejected(name, e.getMessagePattern());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.six.spacex.metrics;
+
+/**
+ * Records the latency of one operation, the number of records is its throughput.
+ */
+public interface Timer {
+
+    Timer NOOP = new Timer() {
+        @Override
+        public void record(long nanos) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    void record(long nanos);
+
+    /**
+     * Callers skip reading the clock while the timer is disabled.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+}
@@ -3,11 +3,59 @@ package com.six.spacex.repository;
 import com.six.spacex.domain.SpaceXObject;
 import com.six.spacex.domain.id.SpaceXId;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 public interface CrudRepository<ID extends SpaceXId, O extends SpaceXObject> {
     List<O> getAll();
     Optional<O> get(ID id);
     O save(O object);
-}
+
+    default List<O> saveAll(Collection<O> objects) {
+        return objects.stream().map(this::save).toList();
+    }
+
+    /**
+     * Saves the objects if every stored one has the expected version instead of the preceding one, so an object
+     * may skip versions which were never stored, e.g. ones coalesced by a write-behind cache. Repositories which
+     * check versions override this to save all objects or none, by default the versions are checked first
+     * and the objects are then saved one by one.
+     *
+     * @throws StaleObjectException if a stored object has another version
+     */
+    @SuppressWarnings("unchecked")
+    default List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion) {
+        for (O object: objects) {
+            StaleObjectException.requireVersion(get((ID) object.getId()).orElse(null), object,
+                    expectedVersion.applyAsLong(object));
+        }
+        return saveAll(objects);
+    }
+
+    /**
+     * Number of stored objects. By default counted from {@link #getAll()}, repositories which know it override this.
+     */
+    default int count() {
+        return getAll().size();
+    }
+
+    /**
+     * Page of objects sorted by the comparator, ties are ordered by ID. By default the best
+     * {@code offset + limit} objects are selected with a bounded heap in O(n log k).
+     */
+    default Stream<O> query(Comparator<O> comparator, PageRequest<O> page) {
+        return Queries.select(getAll(), comparator, page);
+    }
+
+    /**
+     * Atomically replaces the object stored under the ID with the result of the operation.
+     *
+     * @return updated object or empty if there is no object with the ID
+     */
+    Optional<O> update(ID id, Function<O, O> operation);
+}
\ No newline at end of file
@@ -1,18 +1,38 @@
 package com.six.spacex.repository;
 
 import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.collection.UuidHashMap;
 import com.six.spacex.domain.id.MissionId;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
+/**
+ * Writes of one mission are serialized by a lock stripe, reads are lock-free.
+ * Save rejects a mission which is not the direct successor of the stored version.
+ * Repository is thread-safe as long as the backing map is, e.g. the default {@link UuidHashMap}.
+ */
 public class MissionInMemoryRepository implements CrudRepository<MissionId, Mission> {
 
     private final Map<MissionId, Mission> missions;
+    private final StripedLock locks;
+
+    public MissionInMemoryRepository() {
+        this(new UuidHashMap<>(MissionId::new));
+    }
 
     public MissionInMemoryRepository(Map<MissionId, Mission> missions) {
+        this(missions, new StripedLock());
+    }
+
+    public MissionInMemoryRepository(Map<MissionId, Mission> missions, StripedLock locks) {
         this.missions = missions;
+        this.locks = locks;
     }
 
     @Override
@@ -20,6 +40,11 @@ public class MissionInMemoryRepository implements CrudRepository<MissionId, Miss
         return missions.values().stream().toList();
     }
 
+    @Override
+    public int count() {
+        return missions.size();
+    }
+
     @Override
     public Optional<Mission> get(MissionId id) {
         return Optional.ofNullable(missions.get(id));
@@ -27,7 +52,45 @@ public class MissionInMemoryRepository implements CrudRepository<MissionId, Miss
 
     @Override
     public Mission save(Mission mission) {
+        return locks.withLock(mission.getId(), () -> {
+            StaleObjectException.requireSuccessor(missions.get(mission.getId()), mission);
+            missions.put(mission.getId(), mission);
+            return mission;
+        });
+    }
+
+    @Override
+    public List<Mission> saveAll(Collection<Mission> batch) {
+        return saveAll(batch, mission -> mission.getVersion() - 1);
+    }
+
+    /**
+     * All or nothing: every mission is checked under the stripes of the batch before any of them is stored.
+     */
+    @Override
+    public List<Mission> saveAll(Collection<Mission> batch, ToLongFunction<Mission> expectedVersion) {
+        List<MissionId> ids = batch.stream().map(Mission::getId).toList();
+        return locks.withLocks(ids, () -> {
+            Map<MissionId, Mission> staged = new HashMap<>();
+            for (Mission mission: batch) {
+                Mission stored = staged.containsKey(mission.getId()) ? staged.get(mission.getId()) : missions.get(mission.getId());
+                StaleObjectException.requireVersion(stored, mission, expectedVersion.applyAsLong(mission));
+                staged.put(mission.getId(), mission);
+            }
+            batch.forEach(this::put);
+            return List.copyOf(batch);
+        });
+    }
+
+    @Override
+    public Optional<Mission> update(MissionId id, Function<Mission, Mission> operation) {
+        return locks.withLock(id, () -> get(id).map(operation).map(this::save));
+    }
+
+    /**
+     * Stores the mission without checking its version, the caller must hold the stripe of the mission.
+     */
+    void put(Mission mission) {
         missions.put(mission.getId(), mission);
-        return mission;
     }
 }
@@ -0,0 +1,129 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Notifies {@link RepositoryListener}s about every save of the delegate and serves queries
+ * in the order of a {@link SortedIndex} from the index. The delegate must be created with the same
+ * {@link StripedLock}.
+ */
+public class ObservableRepository<ID extends SpaceXId, O extends SpaceXObject> implements CrudRepository<ID, O> {
+
+    private final CrudRepository<ID, O> delegate;
+    private final StripedLock locks;
+    private final List<RepositoryListener<O>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Comparator<O>, SortedIndex<O>> indexes = new ConcurrentHashMap<>();
+
+    public ObservableRepository(CrudRepository<ID, O> delegate, StripedLock locks) {
+        this.delegate = delegate;
+        this.locks = locks;
+    }
+
+    /**
+     * Listener is called for saves which start after this method returns.
+     */
+    public void addListener(RepositoryListener<O> listener) {
+        listeners.add(listener);
+        locks.barrier();
+    }
+
+    public void removeListener(RepositoryListener<O> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Indexes all stored objects in the order, queries with the same comparator instance are served
+     * from the index from now on.
+     */
+    public SortedIndex<O> addIndex(Comparator<O> order) {
+        SortedIndex<O> index = new SortedIndex<>(order);
+        addListener(index);
+        for (O object: delegate.getAll()) {
+            index.saved(null, object);
+        }
+        indexes.put(order, index);
+        return index;
+    }
+
+    @Override
+    public List<O> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public Optional<O> get(ID id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public Stream<O> query(Comparator<O> comparator, PageRequest<O> page) {
+        SortedIndex<O> index = indexes.get(comparator);
+        return index != null ? index.query(page) : delegate.query(comparator, page);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public O save(O object) {
+        return locks.withLock(object.getId(), () -> {
+            O previous = delegate.get((ID) object.getId()).orElse(null);
+            O saved = delegate.save(object);
+            notify(previous, saved);
+            return saved;
+        });
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects) {
+        return notifying(objects, delegate::saveAll);
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion) {
+        return notifying(objects, batch -> delegate.saveAll(batch, expectedVersion));
+    }
+
+    @Override
+    public Optional<O> update(ID id, Function<O, O> operation) {
+        return locks.withLock(id, () -> get(id).map(operation).map(this::save));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<O> notifying(Collection<O> objects, Function<Collection<O>, List<O>> save) {
+        List<SpaceXId> ids = objects.stream().map(SpaceXObject::getId).toList();
+        return locks.withLocks(ids, () -> {
+            List<O> previous = new ArrayList<>(objects.size());
+            for (O object: objects) {
+                previous.add(delegate.get((ID) object.getId()).orElse(null));
+            }
+            List<O> saved = save.apply(objects);
+            for (int i = 0; i < saved.size(); i++) {
+                notify(previous.get(i), saved.get(i));
+            }
+            return saved;
+        });
+    }
+
+    private void notify(O previous, O saved) {
+        for (RepositoryListener<O> listener: listeners) {
+            listener.saved(previous, saved);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+
+import java.util.List;
+
+public class ObservableRocketRepository extends ObservableRepository<RocketId, Rocket> implements RocketRepository {
+
+    private final RocketRepository delegate;
+
+    public ObservableRocketRepository(RocketRepository delegate, StripedLock locks) {
+        super(delegate, locks);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Rocket> getByMissionId(MissionId missionId) {
+        return delegate.getByMissionId(missionId);
+    }
+}
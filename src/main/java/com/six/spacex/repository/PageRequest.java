@@ -0,0 +1,71 @@
+package com.six.spacex.repository;
+
+import java.util.Optional;
+
+/**
+ * Page of a sorted query, either by offset or by keyset: a page after a cursor starts right after
+ * the cursor object in the query order, so it stays stable while objects before it change.
+ */
+public class PageRequest<O> {
+
+    private static final PageRequest<?> ALL = new PageRequest<>(0, Integer.MAX_VALUE, null);
+
+    private final int offset;
+    private final int limit;
+    private final O cursor;
+
+    private PageRequest(int offset, int limit, O cursor) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative, offset: " + offset + ", limit: " + limit);
+        }
+        this.offset = offset;
+        this.limit = limit;
+        this.cursor = cursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <O> PageRequest<O> all() {
+        return (PageRequest<O>) ALL;
+    }
+
+    public static <O> PageRequest<O> first(int limit) {
+        return new PageRequest<>(0, limit, null);
+    }
+
+    public static <O> PageRequest<O> of(int offset, int limit) {
+        return new PageRequest<>(offset, limit, null);
+    }
+
+    /**
+     * @param cursor last object of the previous page
+     */
+    public static <O> PageRequest<O> after(O cursor, int limit) {
+        return new PageRequest<>(0, limit, cursor);
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Optional<O> getCursor() {
+        return Optional.ofNullable(cursor);
+    }
+
+    /**
+     * Number of objects from the start or the cursor which have to be found to serve the page.
+     */
+    int getEnd() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+    }
+
+    /**
+     * Page of all objects up to the end of this one, to be selected from a part of the objects and merged.
+     */
+    PageRequest<O> toEnd() {
+        return new PageRequest<>(0, getEnd(), cursor);
+    }
+}
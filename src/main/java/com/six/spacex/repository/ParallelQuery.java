@@ -0,0 +1,91 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Query mode of a service. Sequential queries are left to the repository, which may serve them from an index.
+ * Parallel queries read all objects and, from {@code threshold} objects on, split them into parts in a
+ * {@link ForkJoinPool}: every part selects its best {@code offset + limit} objects, which are merged pairwise
+ * on the way back. Below the threshold the forking costs more than it saves and the objects are selected
+ * sequentially.
+ */
+public class ParallelQuery {
+
+    public static final int DEFAULT_THRESHOLD = 20_000;
+
+    private static final int MIN_PART = 4_096;
+    private static final ParallelQuery SEQUENTIAL = new ParallelQuery(ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelQuery() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelQuery(ForkJoinPool pool, int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative, threshold: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public static ParallelQuery sequential() {
+        return SEQUENTIAL;
+    }
+
+    public <ID extends SpaceXId, O extends SpaceXObject> Stream<O> query(CrudRepository<ID, O> repository,
+                                                                        Comparator<O> comparator,
+                                                                        PageRequest<O> page) {
+        if (threshold == Integer.MAX_VALUE) {
+            return repository.query(comparator, page);
+        }
+        List<O> objects = repository.getAll();
+        if (objects.size() < threshold) {
+            return Queries.select(objects, comparator, page);
+        }
+        int part = Math.max(MIN_PART, objects.size() / (4 * pool.getParallelism()));
+        List<O> selected = pool.invoke(new SelectTask<>(objects, comparator, page.toEnd(), part));
+        return selected.stream().skip(page.getOffset()).limit(page.getLimit());
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private static final class SelectTask<O extends SpaceXObject> extends RecursiveTask<List<O>> {
+
+        private final List<O> objects;
+        private final Comparator<O> comparator;
+        private final PageRequest<O> page;
+        private final int part;
+
+        SelectTask(List<O> objects, Comparator<O> comparator, PageRequest<O> page, int part) {
+            this.objects = objects;
+            this.comparator = comparator;
+            this.page = page;
+            this.part = part;
+        }
+
+        @Override
+        protected List<O> compute() {
+            if (objects.size() <= part) {
+                return Queries.select(objects, comparator, page).toList();
+            }
+            int middle = objects.size() / 2;
+            SelectTask<O> left = new SelectTask<>(objects.subList(0, middle), comparator, page, part);
+            SelectTask<O> right = new SelectTask<>(objects.subList(middle, objects.size()), comparator, page, part);
+            left.fork();
+            List<O> rightSelected = right.compute();
+            return Queries.merge(List.of(left.join(), rightSelected), Queries.totalOrder(comparator), page.getEnd());
+        }
+    }
+}
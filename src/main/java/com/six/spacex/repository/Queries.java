@@ -0,0 +1,91 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.SpaceXObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+final class Queries {
+
+    private Queries() {
+    }
+
+    /**
+     * Ties of the order are broken by ID, so every object has exactly one position and keyset pages
+     * neither skip nor repeat objects.
+     */
+    static <O extends SpaceXObject> Comparator<O> totalOrder(Comparator<O> order) {
+        return order.thenComparing(object -> object.getId().value());
+    }
+
+    /**
+     * Keeps the best {@code offset + limit} objects in a bounded max-heap, which costs O(n log k)
+     * instead of sorting all n objects. A page which ends before its first object selects nothing.
+     */
+    static <O extends SpaceXObject> Stream<O> select(Collection<O> objects, Comparator<O> order, PageRequest<O> page) {
+        int end = page.getEnd();
+        if (end == 0) {
+            return Stream.empty();
+        }
+        Comparator<O> total = totalOrder(order);
+        O cursor = page.getCursor().orElse(null);
+        List<O> selected;
+        if (end >= objects.size()) {
+            selected = new ArrayList<>(objects.size());
+            for (O object: objects) {
+                if (cursor == null || total.compare(object, cursor) > 0) {
+                    selected.add(object);
+                }
+            }
+        } else {
+            PriorityQueue<O> heap = new PriorityQueue<>(end + 1, total.reversed());
+            for (O object: objects) {
+                if (cursor != null && total.compare(object, cursor) <= 0) {
+                    continue;
+                }
+                if (heap.size() < end) {
+                    heap.add(object);
+                } else if (total.compare(object, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(object);
+                }
+            }
+            selected = new ArrayList<>(heap);
+        }
+        selected.sort(total);
+        return selected.stream().skip(page.getOffset()).limit(page.getLimit());
+    }
+
+    /**
+     * Merges runs sorted by the order with a heap of their heads in O(k log r) for k objects from r runs.
+     */
+    static <O> List<O> merge(List<List<O>> runs, Comparator<O> order, int limit) {
+        PriorityQueue<Head<O>> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (first, second) -> order.compare(first.object(), second.object()));
+        for (List<O> run: runs) {
+            if (!run.isEmpty()) {
+                heads.add(new Head<>(run, 0));
+            }
+        }
+        List<O> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head<O> head = heads.poll();
+            merged.add(head.object());
+            if (head.index() + 1 < head.run().size()) {
+                heads.add(new Head<>(head.run(), head.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Head<O>(List<O> run, int index) {
+
+        O object() {
+            return run.get(index);
+        }
+    }
+}
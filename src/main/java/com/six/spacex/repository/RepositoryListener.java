@@ -0,0 +1,15 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.SpaceXObject;
+
+@FunctionalInterface
+public interface RepositoryListener<O extends SpaceXObject> {
+
+    /**
+     * Called under the lock stripe of the object right after it was saved, so calls for one object
+     * never overlap and arrive in the order of saves.
+     *
+     * @param previous stored version replaced by the save or {@code null} if the object is new
+     */
+    void saved(O previous, O saved);
+}
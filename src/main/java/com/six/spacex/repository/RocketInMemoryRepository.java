@@ -1,18 +1,44 @@
 package com.six.spacex.repository;
 
 import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.collection.UuidHashMap;
+import com.six.spacex.domain.id.MissionId;
 import com.six.spacex.domain.id.RocketId;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
-public class RocketInMemoryRepository implements CrudRepository<RocketId, Rocket> {
+/**
+ * Writes of one rocket are serialized by a lock stripe, reads are lock-free.
+ * Save rejects a rocket which is not the direct successor of the stored version.
+ * Repository is thread-safe as long as the backing map is, e.g. the default {@link UuidHashMap}.
+ */
+public class RocketInMemoryRepository implements RocketRepository {
 
     private final Map<RocketId, Rocket> rockets;
+    private final Map<MissionId, Set<RocketId>> rocketIdsByMissionId = new ConcurrentHashMap<>();
+    private final StripedLock locks;
+
+    public RocketInMemoryRepository() {
+        this(new UuidHashMap<>(RocketId::new));
+    }
 
     public RocketInMemoryRepository(Map<RocketId, Rocket> rockets) {
+        this(rockets, new StripedLock());
+    }
+
+    public RocketInMemoryRepository(Map<RocketId, Rocket> rockets, StripedLock locks) {
         this.rockets = rockets;
+        this.locks = locks;
+        rockets.values().forEach(rocket -> index(null, rocket));
     }
 
     @Override
@@ -20,14 +46,112 @@ public class RocketInMemoryRepository implements CrudRepository<RocketId, Rocket
         return rockets.values().stream().toList();
     }
 
+    @Override
+    public int count() {
+        return rockets.size();
+    }
+
     @Override
     public Optional<Rocket> get(RocketId id) {
         return Optional.ofNullable(rockets.get(id));
     }
 
+    @Override
+    public List<Rocket> getByMissionId(MissionId missionId) {
+        Set<RocketId> rocketIds = rocketIdsByMissionId.get(missionId);
+        if (rocketIds == null) {
+            return List.of();
+        }
+        List<Rocket> result = new ArrayList<>(rocketIds.size());
+        for (RocketId rocketId: rocketIds) {
+            Rocket rocket = rockets.get(rocketId);
+            // index entry may be one write behind a concurrent reassignment
+            if (rocket != null && rocket.getMissionId().filter(missionId::equals).isPresent()) {
+                result.add(rocket);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Rocket save(Rocket rocket) {
-        rockets.put(rocket.getId(), rocket);
-        return rocket;
+        return locks.withLock(rocket.getId(), () -> {
+            StaleObjectException.requireSuccessor(rockets.get(rocket.getId()), rocket);
+            put(rocket);
+            return rocket;
+        });
+    }
+
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> batch) {
+        return saveAll(batch, rocket -> rocket.getVersion() - 1);
+    }
+
+    /**
+     * All or nothing: every rocket is checked under the stripes of the batch before any of them is stored.
+     */
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> batch, ToLongFunction<Rocket> expectedVersion) {
+        List<RocketId> ids = batch.stream().map(Rocket::getId).toList();
+        return locks.withLocks(ids, () -> {
+            Map<RocketId, Rocket> staged = new HashMap<>();
+            for (Rocket rocket: batch) {
+                Rocket stored = staged.containsKey(rocket.getId()) ? staged.get(rocket.getId()) : rockets.get(rocket.getId());
+                StaleObjectException.requireVersion(stored, rocket, expectedVersion.applyAsLong(rocket));
+                staged.put(rocket.getId(), rocket);
+            }
+            batch.forEach(this::put);
+            return List.copyOf(batch);
+        });
+    }
+
+    @Override
+    public Optional<Rocket> update(RocketId id, Function<Rocket, Rocket> operation) {
+        return locks.withLock(id, () -> get(id).map(operation).map(this::save));
+    }
+
+    /**
+     * Stores the rocket without checking its version, the caller must hold the stripe of the rocket.
+     */
+    void put(Rocket rocket) {
+        index(rockets.put(rocket.getId(), rocket), rocket);
+    }
+
+    /**
+     * Drops the rocket when it moves to another shard of a {@link ShardedRocketRepository}, the caller must hold
+     * the stripe of the rocket.
+     */
+    void remove(RocketId id) {
+        Rocket previous = rockets.remove(id);
+        if (previous != null) {
+            previous.getMissionId().ifPresent(missionId ->
+                    rocketIdsByMissionId.computeIfPresent(missionId, (key, rocketIds) -> {
+                        rocketIds.remove(id);
+                        return rocketIds.isEmpty() ? null : rocketIds;
+                    })
+            );
+        }
+    }
+
+    private void index(Rocket previous, Rocket current) {
+        Optional<MissionId> previousMissionId = previous == null ? Optional.empty() : previous.getMissionId();
+        Optional<MissionId> currentMissionId = current.getMissionId();
+        if (previousMissionId.equals(currentMissionId)) {
+            return;
+        }
+        RocketId rocketId = current.getId();
+        previousMissionId.ifPresent(missionId ->
+                rocketIdsByMissionId.computeIfPresent(missionId, (id, rocketIds) -> {
+                    rocketIds.remove(rocketId);
+                    return rocketIds.isEmpty() ? null : rocketIds;
+                })
+        );
+        currentMissionId.ifPresent(missionId ->
+                rocketIdsByMissionId.compute(missionId, (id, rocketIds) -> {
+                    Set<RocketId> updated = rocketIds == null ? ConcurrentHashMap.newKeySet() : rocketIds;
+                    updated.add(rocketId);
+                    return updated;
+                })
+        );
     }
 }
@@ -0,0 +1,11 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+
+import java.util.List;
+
+public interface RocketRepository extends CrudRepository<RocketId, Rocket> {
+    List<Rocket> getByMissionId(MissionId missionId);
+}
@@ -0,0 +1,108 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.collection.UuidHashMap;
+import com.six.spacex.domain.id.MissionId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Missions partitioned by a hash of their ID into independent in-memory shards, so writers of different
+ * missions work on different maps. Scans over all missions query the shards in parallel and merge the results.
+ * Use the same shard count as the {@link ShardedRocketRepository}, then rockets live in the shard of their mission.
+ */
+public class ShardedMissionRepository implements CrudRepository<MissionId, Mission> {
+
+    private final List<MissionInMemoryRepository> shards;
+    private final StripedLock locks;
+
+    public ShardedMissionRepository(int shardCount) {
+        this(shardCount, new StripedLock());
+    }
+
+    /**
+     * @param locks shared with the rocket repository and a {@link com.six.spacex.repository.transaction.StripedTransactionManager}
+     */
+    public ShardedMissionRepository(int shardCount, StripedLock locks) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive, shard count: " + shardCount);
+        }
+        List<MissionInMemoryRepository> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new MissionInMemoryRepository(new UuidHashMap<>(MissionId::new), locks));
+        }
+        this.shards = List.copyOf(shards);
+        this.locks = locks;
+    }
+
+    @Override
+    public List<Mission> getAll() {
+        return Shards.getAll(shards);
+    }
+
+    @Override
+    public int count() {
+        return Shards.count(shards);
+    }
+
+    @Override
+    public Optional<Mission> get(MissionId id) {
+        return shardOf(id).get(id);
+    }
+
+    @Override
+    public Stream<Mission> query(Comparator<Mission> comparator, PageRequest<Mission> page) {
+        return Shards.query(shards, comparator, page);
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        return shardOf(mission.getId()).save(mission);
+    }
+
+    @Override
+    public List<Mission> saveAll(Collection<Mission> batch) {
+        return saveAll(batch, mission -> mission.getVersion() - 1);
+    }
+
+    /**
+     * All or nothing: every mission is checked under the stripes of the batch before any of them is stored
+     * into its shard.
+     */
+    @Override
+    public List<Mission> saveAll(Collection<Mission> batch, ToLongFunction<Mission> expectedVersion) {
+        List<MissionId> ids = batch.stream().map(Mission::getId).toList();
+        return locks.withLocks(ids, () -> {
+            Map<MissionId, Mission> staged = new HashMap<>();
+            for (Mission mission: batch) {
+                Mission stored = staged.containsKey(mission.getId()) ? staged.get(mission.getId()) : get(mission.getId()).orElse(null);
+                StaleObjectException.requireVersion(stored, mission, expectedVersion.applyAsLong(mission));
+                staged.put(mission.getId(), mission);
+            }
+            batch.forEach(mission -> shardOf(mission.getId()).put(mission));
+            return List.copyOf(batch);
+        });
+    }
+
+    @Override
+    public Optional<Mission> update(MissionId id, Function<Mission, Mission> operation) {
+        return shardOf(id).update(id, operation);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    private MissionInMemoryRepository shardOf(MissionId id) {
+        return shards.get(Shards.indexOf(id, shards.size()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.collection.UuidHashMap;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.domain.id.SpaceXId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Rockets partitioned like the {@link ShardedMissionRepository} of the same shard count: an assigned rocket
+ * lives in the shard of its mission, an unassigned one in the shard of its own ID. Rockets of a mission are
+ * therefore found in one shard, a reassigned rocket moves to the shard of the new mission. A directory maps every
+ * rocket to its current shard, it is written only when a rocket is added or moves.
+ */
+public class ShardedRocketRepository implements RocketRepository {
+
+    private final List<RocketInMemoryRepository> shards;
+    private final Map<RocketId, Integer> directory = new ConcurrentHashMap<>();
+    private final StripedLock locks;
+
+    public ShardedRocketRepository(int shardCount) {
+        this(shardCount, new StripedLock());
+    }
+
+    /**
+     * @param locks shared with the mission repository and a {@link com.six.spacex.repository.transaction.StripedTransactionManager}
+     */
+    public ShardedRocketRepository(int shardCount, StripedLock locks) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive, shard count: " + shardCount);
+        }
+        List<RocketInMemoryRepository> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new RocketInMemoryRepository(new UuidHashMap<>(RocketId::new), locks));
+        }
+        this.shards = List.copyOf(shards);
+        this.locks = locks;
+    }
+
+    @Override
+    public List<Rocket> getAll() {
+        return Shards.getAll(shards);
+    }
+
+    @Override
+    public int count() {
+        return Shards.count(shards);
+    }
+
+    @Override
+    public Optional<Rocket> get(RocketId id) {
+        Integer shard = directory.get(id);
+        while (shard != null) {
+            Optional<Rocket> rocket = shards.get(shard).get(id);
+            Integer current = directory.get(id);
+            // the rocket may have moved between the two reads, then the old shard no longer has it
+            if (rocket.isPresent() || shard.equals(current)) {
+                return rocket;
+            }
+            shard = current;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Rocket> getByMissionId(MissionId missionId) {
+        return shards.get(Shards.indexOf(missionId, shards.size())).getByMissionId(missionId);
+    }
+
+    @Override
+    public Stream<Rocket> query(Comparator<Rocket> comparator, PageRequest<Rocket> page) {
+        return Shards.query(shards, comparator, page);
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        return locks.withLock(rocket.getId(), () -> {
+            StaleObjectException.requireSuccessor(get(rocket.getId()).orElse(null), rocket);
+            put(rocket);
+            return rocket;
+        });
+    }
+
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> batch) {
+        return saveAll(batch, rocket -> rocket.getVersion() - 1);
+    }
+
+    /**
+     * All or nothing: every rocket is checked under the stripes of the batch before any of them is stored
+     * into its shard.
+     */
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> batch, ToLongFunction<Rocket> expectedVersion) {
+        List<RocketId> ids = batch.stream().map(Rocket::getId).toList();
+        return locks.withLocks(ids, () -> {
+            Map<RocketId, Rocket> staged = new HashMap<>();
+            for (Rocket rocket: batch) {
+                Rocket stored = staged.containsKey(rocket.getId()) ? staged.get(rocket.getId()) : get(rocket.getId()).orElse(null);
+                StaleObjectException.requireVersion(stored, rocket, expectedVersion.applyAsLong(rocket));
+                staged.put(rocket.getId(), rocket);
+            }
+            batch.forEach(this::put);
+            return List.copyOf(batch);
+        });
+    }
+
+    @Override
+    public Optional<Rocket> update(RocketId id, Function<Rocket, Rocket> operation) {
+        return locks.withLock(id, () -> get(id).map(operation).map(this::save));
+    }
+
+    /**
+     * Stores the rocket without checking its version, the caller must hold the stripe of the rocket. A moved
+     * rocket is stored into the new shard before the directory is switched and only then dropped from the old
+     * one, so readers always find a version of it.
+     */
+    private void put(Rocket rocket) {
+        Integer previousShard = directory.get(rocket.getId());
+        int shard = shardOf(rocket);
+        shards.get(shard).put(rocket);
+        if (previousShard == null || previousShard != shard) {
+            directory.put(rocket.getId(), shard);
+            if (previousShard != null) {
+                shards.get(previousShard).remove(rocket.getId());
+            }
+        }
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    private int shardOf(Rocket rocket) {
+        SpaceXId placement = rocket.getMissionId().<SpaceXId>map(missionId -> missionId).orElse(rocket.getId());
+        return Shards.indexOf(placement, shards.size());
+    }
+}
@@ -0,0 +1,52 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Placement of objects into shards and scans over all shards of a sharded repository.
+ */
+final class Shards {
+
+    private Shards() {
+    }
+
+    static int indexOf(SpaceXId id, int shardCount) {
+        long bits = id.value().getMostSignificantBits() ^ id.value().getLeastSignificantBits();
+        // mixed, so shards do not line up with the lock stripes, which use the plain hash code
+        return Math.floorMod(Long.hashCode(bits * 0x9E3779B97F4A7C15L), shardCount);
+    }
+
+    static <O extends SpaceXObject> List<O> getAll(List<? extends CrudRepository<?, O>> shards) {
+        return shards.parallelStream()
+                .flatMap(shard -> shard.getAll().stream())
+                .toList();
+    }
+
+    static int count(List<? extends CrudRepository<?, ?>> shards) {
+        int count = 0;
+        for (CrudRepository<?, ?> shard: shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    /**
+     * Every shard selects its own best {@code offset + limit} objects in parallel, then the sorted runs are
+     * merged with a heap of their heads in O(k log s) for k objects from s shards.
+     */
+    static <O extends SpaceXObject> Stream<O> query(List<? extends CrudRepository<?, O>> shards,
+                                                    Comparator<O> comparator, PageRequest<O> page) {
+        PageRequest<O> perShard = page.toEnd();
+        List<List<O>> runs = shards.parallelStream()
+                .map(shard -> shard.query(comparator, perShard).toList())
+                .toList();
+        return Queries.merge(runs, Queries.totalOrder(comparator), page.getEnd()).stream()
+                .skip(page.getOffset())
+                .limit(page.getLimit());
+    }
+}
@@ -0,0 +1,89 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Objects of a repository kept in a skip list in a fixed order, so a page is found in O(log n)
+ * and read in O(k). Reads are lock-free and weakly consistent: an object saved during a read is seen
+ * at most once, in its old or new position, and is missed only if the read has passed its new position
+ * before the old one is removed.
+ */
+public class SortedIndex<O extends SpaceXObject> implements RepositoryListener<O> {
+
+    private final Comparator<O> order;
+    private final NavigableSet<O> sorted;
+    private final Map<SpaceXId, O> indexed = new ConcurrentHashMap<>();
+
+    public SortedIndex(Comparator<O> order) {
+        this.order = order;
+        this.sorted = new ConcurrentSkipListSet<>(Queries.totalOrder(order)
+                .thenComparing((left, right) -> Long.compare(right.getVersion(), left.getVersion())));
+    }
+
+    public Comparator<O> getOrder() {
+        return order;
+    }
+
+    /**
+     * Older versions than the indexed one are ignored, so the index can be filled from a repository
+     * which is being written to.
+     */
+    @Override
+    public void saved(O previous, O saved) {
+        indexed.compute(saved.getId(), (id, current) -> {
+            if (current != null && current.getVersion() >= saved.getVersion()) {
+                return current;
+            }
+            sorted.add(saved);
+            if (current != null) {
+                sorted.remove(current);
+            }
+            indexed(current, saved);
+            return saved;
+        });
+    }
+
+    /**
+     * Called when the index takes a newer version of an object, {@code replaced} is {@code null} for a new one.
+     * Calls for one object are serialized, e.g. for counters kept next to the index.
+     */
+    protected void indexed(O replaced, O saved) {
+    }
+
+    /**
+     * All indexed objects in order.
+     */
+    public Stream<O> stream() {
+        return distinct(sorted);
+    }
+
+    public Stream<O> query(PageRequest<O> page) {
+        NavigableSet<O> from = page.getCursor()
+                .map(cursor -> sorted.tailSet(cursor, false))
+                .orElse(sorted);
+        return distinct(from).skip(page.getOffset()).limit(page.getLimit());
+    }
+
+    public int size() {
+        return indexed.size();
+    }
+
+    /**
+     * A saved object is added before its old version is removed, so a read may meet both and keeps the first.
+     * Versions of an object in one position are ordered newest first, so a keyset page never repeats its cursor.
+     */
+    private static <O extends SpaceXObject> Stream<O> distinct(NavigableSet<O> objects) {
+        Set<SpaceXId> seen = new HashSet<>();
+        return objects.stream().filter(object -> seen.add(object.getId()));
+    }
+}
@@ -0,0 +1,36 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.LazyMessageException;
+import com.six.spacex.domain.SpaceXObject;
+
+public class StaleObjectException extends LazyMessageException {
+
+    public StaleObjectException(String message, Object... params) {
+        super(message, params);
+    }
+
+    private StaleObjectException(boolean writableStackTrace, String message, Object... params) {
+        super(null, writableStackTrace, message, params);
+    }
+
+    /**
+     * Object can replace the stored one only if it was derived from it by exactly one transition.
+     * Conflicts are expected under contention and retried, so the exception has no stack trace.
+     */
+    public static void requireSuccessor(SpaceXObject stored, SpaceXObject updated) {
+        requireVersion(stored, updated, updated.getVersion() - 1);
+    }
+
+    /**
+     * Object can replace the stored one only if that has the expected version, the versions in between
+     * were never stored.
+     */
+    public static void requireVersion(SpaceXObject stored, SpaceXObject updated, long expectedVersion) {
+        if (stored != null && stored.getVersion() != expectedVersion) {
+            throw new StaleObjectException(
+                    false, "Object was modified concurrently. Stored version: {0}, saved version: {1}, object: {2}",
+                    stored.getVersion(), updated.getVersion(), updated
+            );
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.six.spacex.repository;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of reentrant locks, a key is always guarded by the same stripe.
+ * Writers of different keys rarely meet on one stripe, so there is no global lock.
+ */
+public class StripedLock {
+
+    private static final int DEFAULT_STRIPES = 4 * Runtime.getRuntime().availableProcessors();
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLock() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedLock(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Object key, Supplier<T> action) {
+        ReentrantLock lock = locks[indexOf(key)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds the stripes of all keys, stripes are always taken in ascending order, so two callers
+     * locking overlapping keys cannot deadlock.
+     */
+    public <T> T withLocks(Collection<?> keys, Supplier<T> action) {
+        int[] stripes = keys.stream().mapToInt(this::indexOf).sorted().distinct().toArray();
+        int locked = 0;
+        try {
+            for (int stripe: stripes) {
+                locks[stripe].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Takes and releases every stripe one by one, so everything done under a stripe before the call has
+     * finished when it returns. Only one stripe is held at a time.
+     */
+    public void barrier() {
+        for (ReentrantLock lock: locks) {
+            lock.lock();
+            lock.unlock();
+        }
+    }
+
+    public int indexOf(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,15 @@
+package com.six.spacex.repository.cache;
+
+/**
+ * Counters of a {@link CachingRepository} since its creation. Saves which replaced a pending write
+ * before it was flushed are counted as coalesced, they never reached the delegate. A flush fails if the
+ * delegate rejected any of its objects.
+ */
+public record CacheStats(long hits, long misses, long evictions, long saves, long coalescedSaves, long flushes,
+                         long flushFailures) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
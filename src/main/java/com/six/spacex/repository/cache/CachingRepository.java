@@ -0,0 +1,406 @@
+package com.six.spacex.repository.cache;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.StripedLock;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache of the objects of a slower delegate, bounded by a {@link SegmentedLruCache}.
+ * A miss loads the object under its lock stripe, so a load cannot put an object into the cache after
+ * a newer one was saved. The cache checks that every save is the direct successor of the current object.
+ * <p>
+ * Write-through mode saves to the delegate before the save returns. Write-behind mode keeps saves pending
+ * and flushes them every flush interval, when {@code maxPending} objects are pending, and on {@link #close()}.
+ * Repeated saves of an object are coalesced into its newest version: a flush saves the newest version of every
+ * pending object with one {@link CrudRepository#saveAll(Collection, ToLongFunction)}, which expects the stored
+ * object to have the version the first pending save succeeded, so the delegate still rejects an object saved
+ * to it past the cache. Flushes run only on the flusher thread, which holds no lock while the delegate takes
+ * its stripes. If the delegate rejects the batch, its objects are saved one by one and a rejected one stays
+ * pending for the next flush; until a flush succeeds, saves fail with a {@link FlushException}. Pending objects
+ * the delegate keeps rejecting are dropped with {@link #discardPending()}.
+ * Reads see pending objects, lists and pages are served from the delegate with pending objects laid over it.
+ * <p>
+ * Objects must not be saved to the delegate past the cache. The delegate must be created with the same
+ * {@link StripedLock}, so {@link #flush()}, {@link #discardPending()} and {@link #close()}, which wait for
+ * the flusher, must not be called while holding a stripe.
+ */
+public class CachingRepository<ID extends SpaceXId, O extends SpaceXObject> implements CrudRepository<ID, O>, Closeable {
+
+    private final CrudRepository<ID, O> delegate;
+    private final StripedLock locks;
+    private final SegmentedLruCache<ID, O> cache;
+    private final Map<ID, Pending<O>> pending = new ConcurrentHashMap<>();
+    private final int maxPending;
+    private final ScheduledExecutorService flusher;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder saves = new LongAdder();
+    private final LongAdder coalescedSaves = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile RuntimeException flushFailure;
+
+    /**
+     * Write-through cache.
+     */
+    public CachingRepository(CrudRepository<ID, O> delegate, int capacity, StripedLock locks) {
+        this.delegate = delegate;
+        this.locks = locks;
+        this.cache = new SegmentedLruCache<>(capacity);
+        this.maxPending = 0;
+        this.flusher = null;
+    }
+
+    /**
+     * Write-behind cache.
+     */
+    public CachingRepository(CrudRepository<ID, O> delegate, int capacity, StripedLock locks,
+                             Duration flushInterval, int maxPending) {
+        if (maxPending < 1) {
+            throw new IllegalArgumentException("Max pending must be positive, max pending: " + maxPending);
+        }
+        this.delegate = delegate;
+        this.locks = locks;
+        this.cache = new SegmentedLruCache<>(capacity);
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cache-flush").daemon().factory()
+        );
+        flusher.scheduleWithFixedDelay(
+                this::flushOnFlusher, flushInterval.toNanos(), flushInterval.toNanos(), TimeUnit.NANOSECONDS
+        );
+    }
+
+    @Override
+    public List<O> getAll() {
+        // pending before stored, an object flushed in between is then in both
+        Map<ID, O> pending = pending();
+        List<O> stored = delegate.getAll();
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        Map<SpaceXId, O> objects = new LinkedHashMap<>();
+        for (O object: stored) {
+            objects.put(object.getId(), object);
+        }
+        objects.putAll(pending);
+        return List.copyOf(objects.values());
+    }
+
+    /**
+     * Stored objects plus pending ones which the delegate does not hold yet, the pending ones are taken first,
+     * so an object flushed in between is found stored.
+     */
+    @Override
+    public int count() {
+        Collection<O> pending = pending().values();
+        int count = delegate.count();
+        for (O object: pending) {
+            if (delegate.get(id(object)).isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Optional<O> get(ID id) {
+        O object = newestPending(id);
+        if (object == null) {
+            object = cache.get(id);
+        }
+        if (object != null) {
+            hits.increment();
+            return Optional.of(object);
+        }
+        misses.increment();
+        return locks.withLock(id, () -> Optional.ofNullable(current(id)));
+    }
+
+    @Override
+    public Stream<O> query(Comparator<O> comparator, PageRequest<O> page) {
+        return pending.isEmpty() ? delegate.query(comparator, page) : CrudRepository.super.query(comparator, page);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public O save(O object) {
+        requireFlushed();
+        O saved = locks.withLock(object.getId(), () -> {
+            StaleObjectException.requireSuccessor(current((ID) object.getId()), object);
+            return store(List.of(object)).get(0);
+        });
+        flushIfFull();
+        return saved;
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects) {
+        return saveAll(objects, object -> object.getVersion() - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion) {
+        requireFlushed();
+        List<SpaceXId> ids = objects.stream().map(SpaceXObject::getId).toList();
+        List<O> saved = locks.withLocks(ids, () -> {
+            for (O object: objects) {
+                StaleObjectException.requireVersion(current((ID) object.getId()), object,
+                        expectedVersion.applyAsLong(object));
+            }
+            return store(objects);
+        });
+        flushIfFull();
+        return saved;
+    }
+
+    @Override
+    public Optional<O> update(ID id, Function<O, O> operation) {
+        return locks.withLock(id, () -> get(id).map(operation).map(this::save));
+    }
+
+    /**
+     * Saves all pending objects to the delegate on the flusher thread and waits for it, saves made meanwhile
+     * stay pending for the next flush.
+     *
+     * @throws FlushException if the delegate rejected any of the objects
+     */
+    public void flush() {
+        if (flusher == null) {
+            return;
+        }
+        await(flusher.submit(this::flushOnFlusher));
+        RuntimeException failure = flushFailure;
+        if (failure != null) {
+            throw new FlushException(failure, "Flush failed, pending objects: {0}", pending.size());
+        }
+    }
+
+    /**
+     * Drops all pending objects on the flusher thread, so reads fall back to the delegate, and clears a flush
+     * failure, e.g. after the delegate rejected an object which was saved to it past the cache.
+     *
+     * @return newest pending version of every dropped object
+     */
+    public List<O> discardPending() {
+        if (flusher == null) {
+            return List.of();
+        }
+        return await(flusher.submit(() -> locks.withLocks(List.copyOf(pending.keySet()), () -> {
+            List<O> discarded = new ArrayList<>();
+            for (ID id: List.copyOf(pending.keySet())) {
+                Pending<O> dropped = pending.remove(id);
+                if (dropped != null) {
+                    discarded.add(dropped.object());
+                    cache.remove(id);
+                }
+            }
+            flushFailure = null;
+            return discarded;
+        })));
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), cache.evictions(), saves.sum(), coalescedSaves.sum(),
+                flushes.sum(), flushFailures.sum());
+    }
+
+    /**
+     * Flushes the pending objects and stops the flusher.
+     *
+     * @throws FlushException if the delegate rejected any of the objects, they are lost
+     */
+    @Override
+    public void close() {
+        if (flusher == null || flusher.isShutdown()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            flusher.shutdownNow();
+        }
+    }
+
+    /**
+     * Newest versions of objects saved but not flushed yet, empty in write-through mode.
+     */
+    protected Map<ID, O> pending() {
+        Map<ID, O> newest = new HashMap<>();
+        pending.forEach((id, entry) -> newest.put(id, entry.object()));
+        return newest;
+    }
+
+    /**
+     * Pending or cached object, otherwise the stored one, which is then cached. Called under the stripe of the ID.
+     */
+    private O current(ID id) {
+        O object = newestPending(id);
+        if (object == null) {
+            object = cache.get(id);
+        }
+        if (object == null) {
+            object = delegate.get(id).orElse(null);
+            if (object != null) {
+                cache.put(id, object);
+            }
+        }
+        return object;
+    }
+
+    /**
+     * A pending save replaced by a newer one keeps the version its object had before the first one.
+     */
+    private List<O> store(Collection<O> objects) {
+        List<O> stored = flusher == null ? delegate.saveAll(objects) : List.copyOf(objects);
+        for (O object: stored) {
+            if (flusher != null) {
+                pending.compute(id(object), (id, previous) -> {
+                    if (previous == null) {
+                        return new Pending<>(object, object.getVersion() - 1);
+                    }
+                    coalescedSaves.increment();
+                    return new Pending<>(object, previous.baseVersion());
+                });
+            }
+            cache.put(id(object), object);
+        }
+        saves.add(stored.size());
+        return stored;
+    }
+
+    private void flushIfFull() {
+        if (flusher != null && pending.size() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushOnFlusher);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void requireFlushed() {
+        RuntimeException failure = flushFailure;
+        if (failure != null) {
+            throw new FlushException(failure, "Write-behind flush failed, pending objects: {0}", pending.size());
+        }
+    }
+
+    /**
+     * Runs on the flusher thread only, so flushes never overlap. A failure must not cancel the schedule,
+     * it is kept for the callers instead.
+     */
+    private void flushOnFlusher() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<SpaceXId, Long> baseVersions = new HashMap<>();
+        List<O> batch = new ArrayList<>();
+        for (Pending<O> entry: pending.values()) {
+            baseVersions.put(entry.object().getId(), entry.baseVersion());
+            batch.add(entry.object());
+        }
+        RuntimeException failure = null;
+        try {
+            delegate.saveAll(batch, object -> baseVersions.get(object.getId()));
+            batch.forEach(this::accepted);
+        } catch (RuntimeException e) {
+            failure = saveOneByOne(batch, baseVersions, e);
+        }
+        flushes.increment();
+        if (failure != null) {
+            flushFailures.increment();
+        }
+        flushFailure = failure;
+    }
+
+    /**
+     * The batch may have been saved in part, objects which the delegate already holds are not saved again,
+     * another object of the same version is a conflict.
+     *
+     * @return the last rejection, {@code null} if all objects were saved
+     */
+    private RuntimeException saveOneByOne(List<O> batch, Map<SpaceXId, Long> baseVersions,
+                                          RuntimeException batchFailure) {
+        RuntimeException failure = null;
+        for (O object: batch) {
+            try {
+                if (delegate.get(id(object)).filter(object::equals).isEmpty()) {
+                    delegate.saveAll(List.of(object), ignored -> baseVersions.get(object.getId()));
+                }
+                accepted(object);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (failure != null && failure != batchFailure) {
+            failure.addSuppressed(batchFailure);
+        }
+        return failure;
+    }
+
+    /**
+     * Drops the object from the pending ones, a newer version saved meanwhile stays pending on top of it.
+     */
+    private void accepted(O object) {
+        pending.computeIfPresent(id(object), (id, entry) -> entry.object().getVersion() <= object.getVersion()
+                ? null
+                : new Pending<>(entry.object(), object.getVersion()));
+    }
+
+    private O newestPending(ID id) {
+        Pending<O> entry = pending.get(id);
+        return entry == null ? null : entry.object();
+    }
+
+    private static <T> T await(Future<T> flushed) {
+        try {
+            return flushed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlushException(e, "Interrupted while waiting for the flush");
+        } catch (ExecutionException e) {
+            throw new FlushException(e.getCause(), "Flush failed");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ID id(O object) {
+        return (ID) object.getId();
+    }
+
+    /**
+     * Newest unflushed version of an object and the version stored before its first unflushed save.
+     */
+    private record Pending<O>(O object, long baseVersion) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.six.spacex.repository.cache;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.RocketRepository;
+import com.six.spacex.repository.StripedLock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rockets of a mission are read from the delegate, pending rockets which left or joined the mission
+ * are laid over them.
+ */
+public class CachingRocketRepository extends CachingRepository<RocketId, Rocket> implements RocketRepository {
+
+    private final RocketRepository delegate;
+
+    public CachingRocketRepository(RocketRepository delegate, int capacity, StripedLock locks) {
+        super(delegate, capacity, locks);
+        this.delegate = delegate;
+    }
+
+    public CachingRocketRepository(RocketRepository delegate, int capacity, StripedLock locks,
+                                   Duration flushInterval, int maxPending) {
+        super(delegate, capacity, locks, flushInterval, maxPending);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Rocket> getByMissionId(MissionId missionId) {
+        // pending before stored, a rocket flushed in between is then in both
+        Map<RocketId, Rocket> pending = pending();
+        List<Rocket> stored = delegate.getByMissionId(missionId);
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        List<Rocket> rockets = new ArrayList<>(stored.size());
+        for (Rocket rocket: stored) {
+            if (!pending.containsKey(rocket.getId())) {
+                rockets.add(rocket);
+            }
+        }
+        for (Rocket rocket: pending.values()) {
+            if (rocket.getMissionId().filter(missionId::equals).isPresent()) {
+                rockets.add(rocket);
+            }
+        }
+        return rockets;
+    }
+}
@@ -0,0 +1,10 @@
+package com.six.spacex.repository.cache;
+
+import java.text.MessageFormat;
+
+public class FlushException extends RuntimeException {
+
+    public FlushException(Throwable cause, String message, Object... params) {
+        super(MessageFormat.format(message, params), cause);
+    }
+}
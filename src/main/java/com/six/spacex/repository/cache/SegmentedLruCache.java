@@ -0,0 +1,216 @@
+package com.six.spacex.repository.cache;
+
+import com.six.spacex.domain.SpaceXObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded cache with segmented LRU eviction. New entries go to the probation segment, an entry hit again
+ * moves to the protected segment, which holds up to 80% of the capacity and demotes its least recently used
+ * entry back to probation when it overflows. The victim is the least recently used entry of probation, so a
+ * scan of objects read once cannot push out the frequently read ones.
+ * <p>
+ * Keys are striped by hash into independent stripes, each with its own lock, share of the capacity and LRU
+ * lists, so writers of different keys rarely wait for each other. Small caches have a single stripe.
+ * Lookups are lock-free. A hit reorders the lists only if the lock of its stripe is free at that moment, under
+ * contention some hits are not recorded, which only makes the order less exact.
+ */
+final class SegmentedLruCache<K, V extends SpaceXObject> {
+
+    private static final int MAX_STRIPES = 64;
+    private static final int MIN_STRIPE_CAPACITY = 16;
+    private static final int DEFAULT_STRIPES = Math.min(MAX_STRIPES, 4 * Runtime.getRuntime().availableProcessors());
+
+    private final Map<K, Node<K, V>> nodes = new ConcurrentHashMap<>();
+    private final Stripe<K, V>[] stripes;
+    private final int stripeMask;
+    private final LongAdder evictions = new LongAdder();
+
+    SegmentedLruCache(int capacity) {
+        this(capacity, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes number of independently locked stripes, rounded up to a power of two, at most
+     *                {@value #MAX_STRIPES} and lowered so that every stripe holds at least
+     *                {@value #MIN_STRIPE_CAPACITY} entries
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SegmentedLruCache(int capacity, int stripes) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, capacity: " + capacity);
+        }
+        int count = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, stripes - 1)) << 1);
+        count = Math.min(count, Math.max(1, Integer.highestOneBit(capacity / MIN_STRIPE_CAPACITY)));
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe<>(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    V get(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            return null;
+        }
+        Stripe<K, V> stripe = stripeOf(key);
+        if (stripe.lock.tryLock()) {
+            try {
+                if (node.prev != null) {
+                    stripe.hit(node);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Keeps the cached value if it is newer than the given one.
+     */
+    void put(K key, V value) {
+        Stripe<K, V> stripe = stripeOf(key);
+        stripe.lock.lock();
+        try {
+            Node<K, V> node = nodes.get(key);
+            if (node != null) {
+                if (node.value.getVersion() <= value.getVersion()) {
+                    node.value = value;
+                }
+                stripe.hit(node);
+                return;
+            }
+            node = new Node<>(key, value);
+            nodes.put(key, node);
+            node.linkBefore(stripe.probation);
+            stripe.size++;
+            if (stripe.size > stripe.capacity) {
+                nodes.remove(stripe.evict().key);
+                evictions.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    void remove(K key) {
+        Stripe<K, V> stripe = stripeOf(key);
+        stripe.lock.lock();
+        try {
+            Node<K, V> node = nodes.remove(key);
+            if (node != null) {
+                stripe.unlink(node);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private Stripe<K, V> stripeOf(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    /**
+     * Share of the capacity with its own probation and protected lists, guarded by its lock.
+     */
+    private static final class Stripe<K, V> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Node<K, V> probation = Node.sentinel();
+        private final Node<K, V> protection = Node.sentinel();
+        private final int capacity;
+        private final int protectedCapacity;
+        private int size;
+        private int protectedSize;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity / 5 * 4;
+        }
+
+        void hit(Node<K, V> node) {
+            node.unlink();
+            if (node.isProtected) {
+                node.linkBefore(protection);
+                return;
+            }
+            node.isProtected = true;
+            node.linkBefore(protection);
+            protectedSize++;
+            if (protectedSize > protectedCapacity) {
+                Node<K, V> demoted = protection.next;
+                demoted.unlink();
+                demoted.isProtected = false;
+                demoted.linkBefore(probation);
+                protectedSize--;
+            }
+        }
+
+        Node<K, V> evict() {
+            Node<K, V> victim = probation.next != probation ? probation.next : protection.next;
+            unlink(victim);
+            return victim;
+        }
+
+        void unlink(Node<K, V> node) {
+            if (node.isProtected) {
+                protectedSize--;
+            }
+            node.unlink();
+            size--;
+        }
+    }
+
+    /**
+     * Entry in one of two circular lists, a sentinel stands for the list, its next node is the least
+     * recently used one. Links are guarded by the lock of the stripe, the value is read without it.
+     */
+    private static final class Node<K, V> {
+
+        private final K key;
+        private volatile V value;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+        private boolean isProtected;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        static <K, V> Node<K, V> sentinel() {
+            Node<K, V> sentinel = new Node<>(null, null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        void linkBefore(Node<K, V> sentinel) {
+            prev = sentinel.prev;
+            next = sentinel;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
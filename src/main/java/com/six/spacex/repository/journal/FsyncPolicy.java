@@ -0,0 +1,16 @@
+package com.six.spacex.repository.journal;
+
+public enum FsyncPolicy {
+    /**
+     * Every record is forced to disk on its own, a save waits for it.
+     */
+    PER_WRITE,
+    /**
+     * Records queued while the previous group was being written are forced together, a save waits for its group.
+     */
+    BATCH,
+    /**
+     * Records are forced at most once per interval, a save only waits until its record reaches the file.
+     */
+    INTERVAL
+}
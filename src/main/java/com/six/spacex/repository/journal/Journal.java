@@ -0,0 +1,394 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.codec.Codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of encoded objects, stored as numbered segment files in a directory.
+ * Appends are queued and written by a single writer thread, which takes everything queued since its last
+ * write as one group: the group is encoded into one buffer, written with one call and forced according
+ * to the {@link FsyncPolicy}. Objects appended with {@link #appendAll(Collection)} form one record, an object
+ * which cannot be encoded fails only its own append. A torn record at the end of the last segment, left by a crash, is truncated on open.
+ * The writer starts a new segment when the current one grows over the segment size or on {@link #rotate()},
+ * segments covered by a snapshot are removed with {@link #deleteSegmentsBefore(long)}.
+ */
+public class Journal<O> implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+    private static final int QUEUE_CAPACITY = 64 * 1024;
+    private static final int MAX_GROUP_SIZE = 4096;
+    private static final int WRITE_THRESHOLD = 1 << 20;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path directory;
+    private final Codec<O> codec;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long segmentSize;
+    private final long replaySegment;
+    private final long replayEnd;
+    private final BlockingQueue<PendingWrite<O>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private final CRC32C crc = new CRC32C();
+
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+    private volatile JournalException broken;
+    private volatile long segment;
+    private FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_THRESHOLD * 2);
+    private long position;
+    private long lastForceNanos = System.nanoTime();
+    private boolean unforced;
+    private long groupStart;
+    private int durableWrites;
+
+    public Journal(Path directory, Codec<O> codec, FsyncPolicy fsyncPolicy) {
+        this(directory, codec, fsyncPolicy, Duration.ofMillis(10), DEFAULT_SEGMENT_SIZE);
+    }
+
+    public Journal(Path directory, Codec<O> codec, FsyncPolicy fsyncPolicy, Duration fsyncInterval, long segmentSize) {
+        this.directory = directory;
+        this.codec = codec;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            List<Long> segments = segments();
+            this.segment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+            this.channel = openSegment(segment);
+            this.replaySegment = segment;
+            this.replayEnd = Records.read(channel, 0, channel.size(), payload -> { });
+            channel.truncate(replayEnd);
+        } catch (IOException e) {
+            throw new JournalException(e, "Journal {0} cannot be opened", directory);
+        }
+        this.position = replayEnd;
+        this.writer = Thread.ofPlatform()
+                .name("journal-writer-" + directory.getFileName())
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    /**
+     * Passes every object stored in the segments from the given one when the journal was opened
+     * to the consumer, in append order.
+     */
+    public void replay(long fromSegment, Consumer<O> consumer) {
+        Consumer<ByteBuffer> decoder = payload -> consumer.accept(codec.decode(payload));
+        try {
+            for (long stored: segments()) {
+                if (stored < fromSegment || stored > replaySegment) {
+                    continue;
+                }
+                if (stored == replaySegment) {
+                    Records.read(channel, 0, replayEnd, decoder);
+                } else {
+                    try (FileChannel segmentChannel = FileChannel.open(segmentPath(stored), StandardOpenOption.READ)) {
+                        Records.read(segmentChannel, 0, segmentChannel.size(), decoder);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new JournalException(e, "Journal {0} cannot be replayed", directory);
+        }
+    }
+
+    /**
+     * Blocks only if the queue is full.
+     *
+     * @return future completed with the segment of the object when it is durable according to the {@link FsyncPolicy}
+     */
+    public CompletableFuture<Long> append(O object) {
+        return enqueue(new PendingWrite<>(List.of(object), new CompletableFuture<>()));
+    }
+
+    /**
+     * Appends the objects as one record, so after a crash or a failed write either all of them are replayed
+     * or none.
+     *
+     * @return future completed with the segment of the objects when they are durable according to the {@link FsyncPolicy}
+     */
+    public CompletableFuture<Long> appendAll(Collection<O> objects) {
+        return enqueue(new PendingWrite<>(List.copyOf(objects), new CompletableFuture<>()));
+    }
+
+    /**
+     * Objects appended before are forced to the current segment, objects appended after go to a new one.
+     *
+     * @return future completed with the new segment
+     */
+    public CompletableFuture<Long> rotate() {
+        return enqueue(new PendingWrite<>(null, new CompletableFuture<>()));
+    }
+
+    public void deleteSegmentsBefore(long firstKept) {
+        try {
+            for (long stored: segments()) {
+                if (stored < firstKept && stored < segment) {
+                    Files.deleteIfExists(segmentPath(stored));
+                }
+            }
+        } catch (IOException e) {
+            throw new JournalException(e, "Segments of journal {0} cannot be deleted", directory);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes and forces everything appended before.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new JournalException(e, "Journal {0} cannot be closed", directory);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JournalException(e, "Interrupted while closing journal {0}", directory);
+        }
+    }
+
+    /**
+     * Appenders share the close lock, so once {@link #close()} set the flag no write can be queued behind
+     * the writer's last look at the queue.
+     */
+    private CompletableFuture<Long> enqueue(PendingWrite<O> write) {
+        closeLock.readLock().lock();
+        try {
+            if (broken != null) {
+                throw new JournalException(broken, "Journal {0} failed", directory);
+            }
+            if (closed) {
+                throw new JournalException(null, "Journal {0} is closed", directory);
+            }
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JournalException(e, "Interrupted while appending to journal {0}", directory);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return write.done();
+    }
+
+    private void writeLoop() {
+        List<PendingWrite<O>> group = new ArrayList<>(MAX_GROUP_SIZE);
+        long pollNanos = fsyncPolicy == FsyncPolicy.INTERVAL ? fsyncIntervalNanos : IDLE_POLL_NANOS;
+        while ((!closed || !queue.isEmpty()) && broken == null) {
+            try {
+                PendingWrite<O> first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    group.add(first);
+                    queue.drainTo(group, MAX_GROUP_SIZE - 1);
+                    write(group);
+                }
+                if (fsyncPolicy == FsyncPolicy.INTERVAL && unforced && System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) {
+                    force();
+                }
+                group.forEach(write -> write.done().complete(write.segment()));
+            } catch (InterruptedException e) {
+                // writer stops only after the queue is drained
+            } catch (IOException | RuntimeException e) {
+                JournalException failure = new JournalException(e, "Journal {0} write failed", directory);
+                rewind(failure);
+                for (int i = 0; i < group.size(); i++) {
+                    PendingWrite<O> write = group.get(i);
+                    if (i < durableWrites) {
+                        write.done().complete(write.segment());
+                    } else {
+                        write.done().completeExceptionally(failure);
+                    }
+                }
+            }
+            group.clear();
+        }
+        JournalException stopped = new JournalException(broken, "Journal {0} is closed", directory);
+        for (PendingWrite<O> write = queue.poll(); write != null; write = queue.poll()) {
+            write.done().completeExceptionally(stopped);
+        }
+        if (broken != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                broken.addSuppressed(e);
+            }
+        }
+    }
+
+    /**
+     * Cuts the records of a failed group off the segment, a reported failure must not come back on replay.
+     * Records forced before the failure, by a rotation or per write, stay and are reported as written.
+     * If the segment cannot be cut, the journal accepts no more writes.
+     */
+    private void rewind(JournalException failure) {
+        buffer.clear();
+        try {
+            channel.truncate(groupStart);
+            position = groupStart;
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+            closeLock.writeLock().lock();
+            try {
+                broken = failure;
+                closed = true;
+            } finally {
+                closeLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Tracks which writes of the group are durable and where the group starts in the current segment,
+     * in case the rest of it fails.
+     */
+    private void write(List<PendingWrite<O>> group) throws IOException {
+        groupStart = position;
+        durableWrites = 0;
+        for (int i = 0; i < group.size(); i++) {
+            PendingWrite<O> write = group.get(i);
+            if (write.objects() == null) {
+                position = Records.write(channel, buffer, position);
+                startSegment();
+                group.set(i, write.at(segment));
+                groupStart = 0;
+                durableWrites = i + 1;
+                continue;
+            }
+            if (!encode(write)) {
+                continue;
+            }
+            group.set(i, write.at(segment));
+            if (fsyncPolicy == FsyncPolicy.PER_WRITE) {
+                position = Records.write(channel, buffer, position);
+                force();
+                groupStart = position;
+                durableWrites = i + 1;
+            } else if (buffer.position() >= WRITE_THRESHOLD) {
+                position = Records.write(channel, buffer, position);
+            }
+        }
+        if (buffer.position() > 0) {
+            position = Records.write(channel, buffer, position);
+        }
+        unforced = true;
+        if (fsyncPolicy == FsyncPolicy.BATCH) {
+            force();
+        }
+        if (position >= segmentSize) {
+            startSegment();
+        }
+    }
+
+    /**
+     * A write which cannot be encoded fails alone and leaves nothing in the buffer, the rest of the group
+     * is written.
+     *
+     * @return {@code false} if the write failed
+     */
+    private boolean encode(PendingWrite<O> write) {
+        int mark = buffer.position();
+        try {
+            buffer = write.objects().size() == 1
+                    ? Records.put(write.objects().get(0), codec, buffer, crc)
+                    : Records.putBatch(write.objects(), codec, buffer, crc);
+            return true;
+        } catch (RuntimeException e) {
+            // a buffer which was being grown has been flipped, its content up to the mark is intact
+            buffer.clear().position(mark);
+            write.done().completeExceptionally(new JournalException(e, "Object cannot be encoded to journal {0}", directory));
+            return false;
+        }
+    }
+
+    /**
+     * The next segment is opened before the current one is closed, so if it cannot be opened the current one
+     * can still be rewound.
+     */
+    private void startSegment() throws IOException {
+        force();
+        FileChannel next = openSegment(segment + 1);
+        channel.close();
+        channel = next;
+        segment++;
+        position = 0;
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        lastForceNanos = System.nanoTime();
+        unforced = false;
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(
+                segmentPath(number), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(SEGMENT_PREFIX + "%020d".formatted(number) + SEGMENT_SUFFIX);
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Objects are {@code null} for a rotation.
+     */
+    private record PendingWrite<O>(List<O> objects, CompletableFuture<Long> done, long segment) {
+
+        PendingWrite(List<O> objects, CompletableFuture<Long> done) {
+            this(objects, done, -1);
+        }
+
+        PendingWrite<O> at(long segment) {
+            return new PendingWrite<>(objects, done, segment);
+        }
+    }
+}
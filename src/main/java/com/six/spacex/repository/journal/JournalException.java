@@ -0,0 +1,10 @@
+package com.six.spacex.repository.journal;
+
+import java.text.MessageFormat;
+
+public class JournalException extends RuntimeException {
+
+    public JournalException(Throwable cause, String message, Object... params) {
+        super(MessageFormat.format(message, params), cause);
+    }
+}
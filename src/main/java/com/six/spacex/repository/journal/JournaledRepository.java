@@ -0,0 +1,165 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.SpaceXId;
+import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.StripedLock;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journaling over an in-memory repository. A save is appended to the {@link Journal} and applied
+ * to the delegate once it is durable. On creation the delegate is rebuilt from the latest snapshot
+ * and the journal segments after it. The delegate must be empty and created with the same {@link StripedLock}.
+ */
+public class JournaledRepository<ID extends SpaceXId, O extends SpaceXObject> implements CrudRepository<ID, O>, Closeable {
+
+    private final CrudRepository<ID, O> delegate;
+    private final Journal<O> journal;
+    private final SnapshotStore<O> snapshots;
+    private final StripedLock locks;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public JournaledRepository(CrudRepository<ID, O> delegate, Journal<O> journal, SnapshotStore<O> snapshots,
+                               StripedLock locks) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.snapshots = snapshots;
+        this.locks = locks;
+        long fromSegment = snapshots.load(delegate::save);
+        journal.replay(fromSegment, this::applyIfNewer);
+    }
+
+    @Override
+    public List<O> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public int count() {
+        return delegate.count();
+    }
+
+    @Override
+    public Optional<O> get(ID id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public Stream<O> query(Comparator<O> comparator, PageRequest<O> page) {
+        return delegate.query(comparator, page);
+    }
+
+    @Override
+    public O save(O object) {
+        return locks.withLock(object.getId(), () -> {
+            requireVersion(object, object.getVersion() - 1);
+            await(journal.append(object));
+            return delegate.save(object);
+        });
+    }
+
+    @Override
+    public List<O> saveAll(Collection<O> objects) {
+        return saveAll(objects, object -> object.getVersion() - 1);
+    }
+
+    /**
+     * All objects are appended as one journal record, so they are replayed together or not at all.
+     */
+    @Override
+    public List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion) {
+        List<SpaceXId> ids = objects.stream().map(SpaceXObject::getId).toList();
+        return locks.withLocks(ids, () -> {
+            for (O object: objects) {
+                requireVersion(object, expectedVersion.applyAsLong(object));
+            }
+            if (!objects.isEmpty()) {
+                await(journal.appendAll(objects));
+            }
+            return delegate.saveAll(objects, expectedVersion);
+        });
+    }
+
+    @Override
+    public Optional<O> update(ID id, Function<O, O> operation) {
+        return locks.withLock(id, () -> get(id).map(operation).map(this::save));
+    }
+
+    /**
+     * Writes a snapshot while writers keep going and removes the journal segments covered by the previous one,
+     * which is kept in case the new one cannot be read.
+     * Objects saved while the snapshot is written may get into it too, the replay skips their older records.
+     */
+    public synchronized void snapshot() {
+        long segment = await(journal.rotate());
+        // saves appended before the rotation are applied to the delegate after their stripe is released
+        locks.barrier();
+        journal.deleteSegmentsBefore(snapshots.write(segment, delegate.getAll()));
+    }
+
+    public synchronized void scheduleSnapshots(Duration interval) {
+        if (snapshotScheduler == null) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("snapshot-" + journal.getDirectory().getFileName()).daemon().factory()
+            );
+            snapshotScheduler.scheduleWithFixedDelay(
+                    this::snapshot, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS
+            );
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+            }
+        }
+        journal.close();
+    }
+
+    /**
+     * A record may skip versions which were never stored, e.g. ones coalesced by a write-behind cache.
+     */
+    @SuppressWarnings("unchecked")
+    private void applyIfNewer(O object) {
+        Optional<O> stored = delegate.get((ID) object.getId());
+        if (stored.isEmpty()) {
+            delegate.save(object);
+        } else if (stored.get().getVersion() < object.getVersion()) {
+            delegate.saveAll(List.of(object), ignored -> stored.get().getVersion());
+        }
+    }
+
+    /**
+     * Stale object must not reach the journal, the replay would fail on it.
+     */
+    @SuppressWarnings("unchecked")
+    private void requireVersion(O object, long expectedVersion) {
+        StaleObjectException.requireVersion(delegate.get((ID) object.getId()).orElse(null), object, expectedVersion);
+    }
+
+    private static <T> T await(CompletableFuture<T> appended) {
+        try {
+            return appended.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.RocketRepository;
+import com.six.spacex.repository.StripedLock;
+
+import java.util.List;
+
+public class JournaledRocketRepository extends JournaledRepository<RocketId, Rocket> implements RocketRepository {
+
+    private final RocketRepository delegate;
+
+    public JournaledRocketRepository(RocketRepository delegate, Journal<Rocket> journal,
+                                     SnapshotStore<Rocket> snapshots, StripedLock locks) {
+        super(delegate, journal, snapshots, locks);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<Rocket> getByMissionId(MissionId missionId) {
+        return delegate.getByMissionId(missionId);
+    }
+}
@@ -0,0 +1,162 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.codec.Codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Record layout: payload length (int), CRC32C of the payload (int), payload. The top bit of the length marks
+ * a batch, whose payload is a sequence of objects, each prefixed by its length (int). A batch is read back
+ * whole or not at all, as one checksum covers it.
+ */
+final class Records {
+
+    static final int HEADER_SIZE = 8;
+
+    private static final int BATCH = 0x8000_0000;
+    private static final int LENGTH_MASK = 0x7FFF_FFFF;
+
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private Records() { }
+
+    static <O> ByteBuffer put(O object, Codec<O> codec, ByteBuffer buffer, CRC32C crc) {
+        int size = codec.encodedSize(object);
+        ByteBuffer target = ensureRemaining(buffer, HEADER_SIZE + size);
+        int start = target.position();
+        target.putInt(size).putInt(0);
+        codec.encode(object, target);
+        crc.reset();
+        crc.update(target.slice(start + HEADER_SIZE, size));
+        target.putInt(start + 4, (int) crc.getValue());
+        return target;
+    }
+
+    static <O> ByteBuffer putBatch(Collection<O> objects, Codec<O> codec, ByteBuffer buffer, CRC32C crc) {
+        int size = 0;
+        for (O object: objects) {
+            size += Integer.BYTES + codec.encodedSize(object);
+        }
+        ByteBuffer target = ensureRemaining(buffer, HEADER_SIZE + size);
+        int start = target.position();
+        target.putInt(BATCH | size).putInt(0);
+        for (O object: objects) {
+            int lengthPosition = target.position();
+            target.putInt(0);
+            codec.encode(object, target);
+            target.putInt(lengthPosition, target.position() - lengthPosition - Integer.BYTES);
+        }
+        crc.reset();
+        crc.update(target.slice(start + HEADER_SIZE, size));
+        target.putInt(start + 4, (int) crc.getValue());
+        return target;
+    }
+
+    static long write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    /**
+     * Passes payloads of the records stored before the end to the consumer, one per object of a batch,
+     * stops at the first incomplete or corrupted record.
+     *
+     * @return position after the last valid record
+     */
+    static long read(FileChannel channel, long start, long end, Consumer<ByteBuffer> payloads) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(READ_BUFFER_SIZE).flip();
+        CRC32C crc = new CRC32C();
+        long readPosition = start;
+        long recordPosition = start;
+        while (true) {
+            if (chunk.remaining() < HEADER_SIZE) {
+                long read = fill(channel, chunk, readPosition, end);
+                if (read <= 0) {
+                    return recordPosition;
+                }
+                readPosition += read;
+                continue;
+            }
+            int header = chunk.getInt(chunk.position());
+            int length = header & LENGTH_MASK;
+            int checksum = chunk.getInt(chunk.position() + 4);
+            if (recordPosition + HEADER_SIZE + length > end) {
+                return recordPosition;
+            }
+            if (chunk.remaining() < HEADER_SIZE + length) {
+                if (chunk.capacity() < HEADER_SIZE + length) {
+                    chunk = ByteBuffer.allocateDirect(HEADER_SIZE + length).put(chunk).flip();
+                }
+                long read = fill(channel, chunk, readPosition, end);
+                if (read <= 0) {
+                    return recordPosition;
+                }
+                readPosition += read;
+                continue;
+            }
+            ByteBuffer payload = chunk.slice(chunk.position() + HEADER_SIZE, length);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return recordPosition;
+            }
+            if ((header & BATCH) != 0) {
+                if (!readBatch(payload.rewind(), payloads)) {
+                    return recordPosition;
+                }
+            } else {
+                payloads.accept(payload.rewind());
+            }
+            chunk.position(chunk.position() + HEADER_SIZE + length);
+            recordPosition += HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * @return {@code false} if the lengths inside the batch do not add up, then none of its objects is passed
+     */
+    private static boolean readBatch(ByteBuffer batch, Consumer<ByteBuffer> payloads) {
+        for (int position = 0; position < batch.limit(); ) {
+            int length = position + Integer.BYTES <= batch.limit() ? batch.getInt(position) : -1;
+            if (length < 0 || position + Integer.BYTES + length > batch.limit()) {
+                return false;
+            }
+            position += Integer.BYTES + length;
+        }
+        for (int position = 0; position < batch.limit(); ) {
+            int length = batch.getInt(position);
+            payloads.accept(batch.slice(position + Integer.BYTES, length));
+            position += Integer.BYTES + length;
+        }
+        return true;
+    }
+
+    private static long fill(FileChannel channel, ByteBuffer chunk, long position, long end) throws IOException {
+        chunk.compact();
+        int max = (int) Math.min(chunk.remaining(), end - position);
+        int read = 0;
+        if (max > 0) {
+            chunk.limit(chunk.position() + max);
+            read = channel.read(chunk, position);
+        }
+        chunk.flip();
+        return read;
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer buffer, int size) {
+        if (buffer.remaining() >= size) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + size));
+        return larger.put(buffer.flip());
+    }
+}
@@ -0,0 +1,162 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.codec.Codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot files of a journaled repository. A snapshot is named after the first journal segment which is
+ * not covered by it and holds the object count followed by the objects in the journal record layout.
+ * It is written to a temporary file, read back and atomically renamed, so a crash never leaves a partial
+ * snapshot. The previous snapshot is kept next to the latest one, and so are the journal segments it needs,
+ * so a latest snapshot which cannot be read is skipped on load.
+ */
+public class SnapshotStore<O> {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int WRITE_THRESHOLD = 1 << 20;
+
+    private final Path directory;
+    private final Codec<O> codec;
+
+    public SnapshotStore(Path directory, Codec<O> codec) {
+        this.directory = directory;
+        this.codec = codec;
+    }
+
+    /**
+     * Passes the objects of the latest snapshot which can be read to the consumer. A snapshot is checked
+     * completely before the first of its objects is passed.
+     *
+     * @return first journal segment to replay after the snapshot, 0 if there is no snapshot
+     * @throws JournalException if there are snapshots but none of them can be read
+     */
+    public long load(Consumer<O> consumer) {
+        List<Long> snapshots;
+        try {
+            snapshots = snapshots();
+        } catch (IOException e) {
+            throw new JournalException(e, "Snapshot in {0} cannot be loaded", directory);
+        }
+        JournalException failure = null;
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            long segment = snapshots.get(i);
+            Path file = snapshotPath(segment);
+            try {
+                read(file, object -> { });
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = new JournalException(null, "No snapshot in {0} can be loaded", directory);
+                }
+                failure.addSuppressed(e);
+                continue;
+            }
+            // the consumer has seen nothing yet, a snapshot failing from here on cannot be skipped
+            try {
+                read(file, consumer);
+            } catch (IOException e) {
+                throw new JournalException(e, "Snapshot {0} cannot be loaded", file);
+            }
+            return segment;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return 0;
+    }
+
+    /**
+     * Writes the objects as the snapshot covering journal segments before the given one, keeps the previous
+     * snapshot and removes older ones. The new snapshot replaces nothing unless it can be read back.
+     *
+     * @return first journal segment needed by the kept snapshots, segments before it can be deleted
+     */
+    public long write(long segment, Collection<O> objects) {
+        Path file = snapshotPath(segment);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                CRC32C crc = new CRC32C();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_THRESHOLD * 2);
+                buffer.putLong(objects.size());
+                long position = 0;
+                for (O object: objects) {
+                    buffer = Records.put(object, codec, buffer, crc);
+                    if (buffer.position() >= WRITE_THRESHOLD) {
+                        position = Records.write(channel, buffer, position);
+                    }
+                }
+                Records.write(channel, buffer, position);
+                channel.force(true);
+            }
+            try {
+                read(temporary, object -> { });
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            List<Long> snapshots = snapshots();
+            long previous = snapshots.stream().filter(older -> older < segment).reduce((a, b) -> b).orElse(segment);
+            for (long older: snapshots) {
+                if (older < previous) {
+                    Files.deleteIfExists(snapshotPath(older));
+                }
+            }
+            return previous;
+        } catch (IOException | RuntimeException e) {
+            throw new JournalException(e, "Snapshot {0} cannot be written", file);
+        }
+    }
+
+    /**
+     * Passes every object of the snapshot to the consumer, the snapshot is corrupted if it holds fewer
+     * objects than its count.
+     */
+    private void read(Path file, Consumer<O> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES);
+            channel.read(header, 0);
+            if (header.hasRemaining()) {
+                throw new JournalException(null, "Snapshot {0} has no header", file);
+            }
+            long expected = header.flip().getLong();
+            long[] loaded = new long[1];
+            Records.read(channel, Long.BYTES, channel.size(), payload -> {
+                consumer.accept(codec.decode(payload));
+                loaded[0]++;
+            });
+            if (loaded[0] != expected) {
+                throw new JournalException(null, "Snapshot {0} is corrupted, expected {1} objects, read {2}",
+                        file, expected, loaded[0]);
+            }
+        }
+    }
+
+    private Path snapshotPath(long segment) {
+        return directory.resolve(SNAPSHOT_PREFIX + "%020d".formatted(segment) + SNAPSHOT_SUFFIX);
+    }
+
+    private List<Long> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
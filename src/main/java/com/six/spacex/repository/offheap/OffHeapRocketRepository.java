@@ -0,0 +1,435 @@
+package com.six.spacex.repository.offheap;
+
+import com.six.spacex.InternalSpaceXException;
+import com.six.spacex.domain.NamePool;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.RocketRepository;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.StripedLock;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rocket repository which keeps rockets outside of the heap as fixed-width records in an open-addressing
+ * table of a direct buffer, {@link Rocket} objects are only created on read.
+ * A record holds both UUIDs as longs, the version, the status, the index of the name in a table of interned
+ * names and the next rocket of the same mission. Rockets of a mission form a linked list starting at
+ * the mission entry of a second off-heap table, so {@link #getByMissionId(MissionId)} only visits the rockets
+ * of the mission.
+ * Reads are optimistic and retried under a read lock if a write happened meanwhile, writes are exclusive.
+ * One table is limited to one direct buffer, i.e. 16M rockets.
+ */
+public class OffHeapRocketRepository implements RocketRepository {
+
+    private static final int RECORD_SIZE = 56;
+    private static final int ID_MSB = 0;
+    private static final int ID_LSB = 8;
+    private static final int MISSION_MSB = 16;
+    private static final int MISSION_LSB = 24;
+    private static final int VERSION = 32;
+    private static final int NAME = 40;
+    private static final int NEXT = 44;
+    private static final int STATUS = 48;
+    private static final int FLAGS = 49;
+
+    private static final int MISSION_ENTRY_SIZE = 24;
+    private static final int MISSION_HEAD = 16;
+    private static final int MISSION_FLAGS = 20;
+
+    private static final byte USED = 1;
+    private static final byte ASSIGNED = 2;
+    private static final int NONE = -1;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final RocketStatus[] STATUSES = RocketStatus.values();
+
+    private final StampedLock lock = new StampedLock();
+    private final StripedLock locks;
+    private final NamePool names = new NamePool(Integer.MAX_VALUE);
+
+    private ByteBuffer rockets;
+    private int rocketCapacity;
+    private int rocketCount;
+    private ByteBuffer missions;
+    private int missionCapacity;
+    private int missionCount;
+
+    public OffHeapRocketRepository() {
+        this(DEFAULT_CAPACITY, new StripedLock());
+    }
+
+    public OffHeapRocketRepository(int expectedRockets, StripedLock locks) {
+        this.locks = locks;
+        this.rocketCapacity = tableCapacity(expectedRockets);
+        this.rockets = ByteBuffer.allocateDirect(rocketCapacity * RECORD_SIZE);
+        this.missionCapacity = tableCapacity(DEFAULT_CAPACITY);
+        this.missions = ByteBuffer.allocateDirect(missionCapacity * MISSION_ENTRY_SIZE);
+    }
+
+    @Override
+    public List<Rocket> getAll() {
+        long stamp = lock.readLock();
+        try {
+            List<Rocket> all = new ArrayList<>(rocketCount);
+            for (int slot = 0; slot < rocketCapacity; slot++) {
+                if ((rockets.get(slot * RECORD_SIZE + FLAGS) & USED) != 0) {
+                    all.add(materialize(slot));
+                }
+            }
+            return all;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int count() {
+        long stamp = lock.readLock();
+        try {
+            return rocketCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Optional<Rocket> get(RocketId id) {
+        UUID value = id.value();
+        return read(() -> {
+            int slot = findRocket(value.getMostSignificantBits(), value.getLeastSignificantBits());
+            return slot == NONE ? Optional.empty() : Optional.of(materialize(slot));
+        });
+    }
+
+    @Override
+    public List<Rocket> getByMissionId(MissionId missionId) {
+        UUID value = missionId.value();
+        return read(() -> {
+            int entry = findMission(value.getMostSignificantBits(), value.getLeastSignificantBits());
+            if (entry == NONE) {
+                return List.of();
+            }
+            List<Rocket> result = new ArrayList<>();
+            int visited = 0;
+            for (int slot = missions.getInt(entry * MISSION_ENTRY_SIZE + MISSION_HEAD);
+                 slot != NONE && visited++ < rocketCapacity;
+                 slot = rockets.getInt(slot * RECORD_SIZE + NEXT)) {
+                result.add(materialize(slot));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        return locks.withLock(rocket.getId(), () -> {
+            long stamp = lock.writeLock();
+            try {
+                requireVersion(rocket, rocket.getVersion() - 1);
+                write(rocket);
+                return rocket;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        });
+    }
+
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> batch) {
+        return saveAll(batch, rocket -> rocket.getVersion() - 1);
+    }
+
+    /**
+     * All or nothing: every rocket is checked under the stripes of the batch and the write lock before any of them
+     * is written, the table grows for the new rockets up front, so it cannot fail in the middle of the batch.
+     */
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> batch, ToLongFunction<Rocket> expectedVersion) {
+        List<RocketId> ids = batch.stream().map(Rocket::getId).toList();
+        return locks.withLocks(ids, () -> {
+            long stamp = lock.writeLock();
+            try {
+                Map<RocketId, Rocket> staged = new HashMap<>();
+                int added = 0;
+                for (Rocket rocket: batch) {
+                    Rocket previous = staged.put(rocket.getId(), rocket);
+                    if (previous != null) {
+                        StaleObjectException.requireVersion(previous, rocket, expectedVersion.applyAsLong(rocket));
+                    } else if (!requireVersion(rocket, expectedVersion.applyAsLong(rocket))) {
+                        added++;
+                    }
+                }
+                if (2 * (rocketCount + added) > rocketCapacity) {
+                    resizeRockets(tableCapacity(rocketCount + added));
+                }
+                batch.forEach(this::write);
+                return List.copyOf(batch);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Rocket> update(RocketId id, Function<Rocket, Rocket> operation) {
+        return locks.withLock(id, () -> get(id).map(operation).map(this::save));
+    }
+
+    /**
+     * Called under the write lock.
+     *
+     * @return whether the rocket is stored
+     */
+    private boolean requireVersion(Rocket rocket, long expectedVersion) {
+        UUID id = rocket.getId().value();
+        int slot = findRocket(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot != NONE && rockets.getLong(slot * RECORD_SIZE + VERSION) != expectedVersion) {
+            StaleObjectException.requireVersion(materialize(slot), rocket, expectedVersion);
+        }
+        return slot != NONE;
+    }
+
+    /**
+     * Writes the rocket without checking its version, called under the write lock.
+     */
+    private void write(Rocket rocket) {
+        UUID id = rocket.getId().value();
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int slot = findRocket(msb, lsb);
+        if (slot == NONE) {
+            if (2 * (rocketCount + 1) > rocketCapacity) {
+                resizeRockets(rocketCapacity * 2);
+            }
+            slot = insertRocket(msb, lsb);
+            rocketCount++;
+        }
+        int offset = slot * RECORD_SIZE;
+        byte flags = rockets.get(offset + FLAGS);
+        Optional<MissionId> missionId = rocket.getMissionId();
+        boolean moved = (flags & ASSIGNED) == 0
+                ? missionId.isPresent()
+                : missionId.isEmpty() || !sameMission(offset, missionId.get());
+        if (moved && (flags & ASSIGNED) != 0) {
+            unlink(slot, rockets.getLong(offset + MISSION_MSB), rockets.getLong(offset + MISSION_LSB));
+        }
+        rockets.putLong(offset + VERSION, rocket.getVersion());
+        rockets.putInt(offset + NAME, names.idOf(rocket.getName()).orElseThrow());
+        rockets.put(offset + STATUS, (byte) rocket.getStatus().ordinal());
+        if (missionId.isPresent()) {
+            UUID mission = missionId.get().value();
+            rockets.putLong(offset + MISSION_MSB, mission.getMostSignificantBits());
+            rockets.putLong(offset + MISSION_LSB, mission.getLeastSignificantBits());
+            rockets.put(offset + FLAGS, (byte) (USED | ASSIGNED));
+            if (moved) {
+                link(slot, mission.getMostSignificantBits(), mission.getLeastSignificantBits());
+            }
+        } else {
+            rockets.put(offset + FLAGS, USED);
+            rockets.putInt(offset + NEXT, NONE);
+        }
+    }
+
+    private Rocket materialize(int slot) {
+        int offset = slot * RECORD_SIZE;
+        byte flags = rockets.get(offset + FLAGS);
+        Optional<MissionId> missionId = (flags & ASSIGNED) == 0
+                ? Optional.empty()
+                : Optional.of(new MissionId(new UUID(rockets.getLong(offset + MISSION_MSB), rockets.getLong(offset + MISSION_LSB))));
+        return Rocket.restore(
+                new RocketId(new UUID(rockets.getLong(offset + ID_MSB), rockets.getLong(offset + ID_LSB))),
+                names.nameOf(rockets.getInt(offset + NAME)),
+                STATUSES[rockets.get(offset + STATUS)],
+                missionId,
+                rockets.getLong(offset + VERSION)
+        );
+    }
+
+    private boolean sameMission(int offset, MissionId missionId) {
+        UUID mission = missionId.value();
+        return rockets.getLong(offset + MISSION_MSB) == mission.getMostSignificantBits()
+                && rockets.getLong(offset + MISSION_LSB) == mission.getLeastSignificantBits();
+    }
+
+    private void link(int slot, long missionMsb, long missionLsb) {
+        int entry = findMission(missionMsb, missionLsb);
+        if (entry == NONE) {
+            if (2 * (missionCount + 1) > missionCapacity) {
+                resizeMissions(missionCapacity * 2);
+            }
+            entry = insertMission(missionMsb, missionLsb);
+            missionCount++;
+        }
+        int head = entry * MISSION_ENTRY_SIZE + MISSION_HEAD;
+        rockets.putInt(slot * RECORD_SIZE + NEXT, missions.getInt(head));
+        missions.putInt(head, slot);
+    }
+
+    private void unlink(int slot, long missionMsb, long missionLsb) {
+        int head = findMission(missionMsb, missionLsb) * MISSION_ENTRY_SIZE + MISSION_HEAD;
+        int next = rockets.getInt(slot * RECORD_SIZE + NEXT);
+        int current = missions.getInt(head);
+        if (current == slot) {
+            missions.putInt(head, next);
+            return;
+        }
+        while (current != NONE) {
+            int currentNext = rockets.getInt(current * RECORD_SIZE + NEXT);
+            if (currentNext == slot) {
+                rockets.putInt(current * RECORD_SIZE + NEXT, next);
+                return;
+            }
+            current = currentNext;
+        }
+    }
+
+    private int findRocket(long msb, long lsb) {
+        int mask = rocketCapacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        for (int probes = 0; probes < rocketCapacity; probes++, slot = (slot + 1) & mask) {
+            int offset = slot * RECORD_SIZE;
+            if ((rockets.get(offset + FLAGS) & USED) == 0) {
+                return NONE;
+            }
+            if (rockets.getLong(offset + ID_MSB) == msb && rockets.getLong(offset + ID_LSB) == lsb) {
+                return slot;
+            }
+        }
+        return NONE;
+    }
+
+    private int insertRocket(long msb, long lsb) {
+        int mask = rocketCapacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        while ((rockets.get(slot * RECORD_SIZE + FLAGS) & USED) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int offset = slot * RECORD_SIZE;
+        rockets.putLong(offset + ID_MSB, msb);
+        rockets.putLong(offset + ID_LSB, lsb);
+        rockets.putInt(offset + NEXT, NONE);
+        return slot;
+    }
+
+    private int findMission(long msb, long lsb) {
+        int mask = missionCapacity - 1;
+        int entry = hash(msb, lsb) & mask;
+        for (int probes = 0; probes < missionCapacity; probes++, entry = (entry + 1) & mask) {
+            int offset = entry * MISSION_ENTRY_SIZE;
+            if (missions.getInt(offset + MISSION_FLAGS) == 0) {
+                return NONE;
+            }
+            if (missions.getLong(offset) == msb && missions.getLong(offset + 8) == lsb) {
+                return entry;
+            }
+        }
+        return NONE;
+    }
+
+    private int insertMission(long msb, long lsb) {
+        int mask = missionCapacity - 1;
+        int entry = hash(msb, lsb) & mask;
+        while (missions.getInt(entry * MISSION_ENTRY_SIZE + MISSION_FLAGS) != 0) {
+            entry = (entry + 1) & mask;
+        }
+        int offset = entry * MISSION_ENTRY_SIZE;
+        missions.putLong(offset, msb);
+        missions.putLong(offset + 8, lsb);
+        missions.putInt(offset + MISSION_HEAD, NONE);
+        missions.putInt(offset + MISSION_FLAGS, USED);
+        return entry;
+    }
+
+    /**
+     * Slots change, so the mission lists are rebuilt from scratch.
+     */
+    private void resizeRockets(int capacity) {
+        if ((long) capacity * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new InternalSpaceXException("Off-heap rocket table cannot grow over {0} rockets", rocketCount);
+        }
+        ByteBuffer previous = rockets;
+        int previousCapacity = rocketCapacity;
+        rockets = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+        rocketCapacity = capacity;
+        for (int entry = 0; entry < missionCapacity; entry++) {
+            missions.putInt(entry * MISSION_ENTRY_SIZE + MISSION_HEAD, NONE);
+        }
+        for (int slot = 0; slot < previousCapacity; slot++) {
+            int offset = slot * RECORD_SIZE;
+            byte flags = previous.get(offset + FLAGS);
+            if ((flags & USED) == 0) {
+                continue;
+            }
+            int moved = insertRocket(previous.getLong(offset + ID_MSB), previous.getLong(offset + ID_LSB));
+            rockets.put(moved * RECORD_SIZE, previous, offset, RECORD_SIZE);
+            rockets.putInt(moved * RECORD_SIZE + NEXT, NONE);
+            if ((flags & ASSIGNED) != 0) {
+                link(moved, previous.getLong(offset + MISSION_MSB), previous.getLong(offset + MISSION_LSB));
+            }
+        }
+    }
+
+    private void resizeMissions(int capacity) {
+        ByteBuffer previous = missions;
+        int previousCapacity = missionCapacity;
+        missions = ByteBuffer.allocateDirect(capacity * MISSION_ENTRY_SIZE);
+        missionCapacity = capacity;
+        for (int entry = 0; entry < previousCapacity; entry++) {
+            int offset = entry * MISSION_ENTRY_SIZE;
+            if (previous.getInt(offset + MISSION_FLAGS) != 0) {
+                int moved = insertMission(previous.getLong(offset), previous.getLong(offset + 8));
+                missions.putInt(moved * MISSION_ENTRY_SIZE + MISSION_HEAD, previous.getInt(offset + MISSION_HEAD));
+            }
+        }
+    }
+
+    /**
+     * Optimistic read may see a half-written table, its result or failure only counts if no write happened.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long hash = msb ^ Long.rotateLeft(lsb, 32);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    private static int tableCapacity(int expected) {
+        return Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+    }
+}
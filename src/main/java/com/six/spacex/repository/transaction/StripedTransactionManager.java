@@ -0,0 +1,56 @@
+package com.six.spacex.repository.transaction;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.domain.id.SpaceXId;
+import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.StripedLock;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * All-or-nothing commit over the mission and rocket repositories.
+ * Both repositories must be created with the same {@link StripedLock}, then a commit holds the stripes of
+ * every staged object, so no other writer can save them between the version check and the last save.
+ * Stripes are always taken in ascending order, so concurrent commits cannot deadlock, and commits
+ * of unrelated missions only meet on a stripe by hash collision.
+ */
+public class StripedTransactionManager implements TransactionManager {
+
+    private final CrudRepository<MissionId, Mission> missionRepository;
+    private final CrudRepository<RocketId, Rocket> rocketRepository;
+    private final StripedLock locks;
+
+    public StripedTransactionManager(CrudRepository<MissionId, Mission> missionRepository,
+                                     CrudRepository<RocketId, Rocket> rocketRepository,
+                                     StripedLock locks) {
+        this.missionRepository = missionRepository;
+        this.rocketRepository = rocketRepository;
+        this.locks = locks;
+    }
+
+    @Override
+    public void commit(UnitOfWork work) {
+        List<SpaceXId> ids = Stream.concat(work.getRockets().stream(), work.getMissions().stream())
+                .map(SpaceXObject::getId)
+                .toList();
+        locks.withLocks(ids, () -> {
+            for (Rocket rocket: work.getRockets()) {
+                StaleObjectException.requireVersion(rocketRepository.get(rocket.getId()).orElse(null), rocket,
+                        work.getExpectedVersion(rocket));
+            }
+            for (Mission mission: work.getMissions()) {
+                StaleObjectException.requireVersion(missionRepository.get(mission.getId()).orElse(null), mission,
+                        work.getExpectedVersion(mission));
+            }
+            rocketRepository.saveAll(work.getRockets(), work::getExpectedVersion);
+            missionRepository.saveAll(work.getMissions(), work::getExpectedVersion);
+            return null;
+        });
+    }
+}
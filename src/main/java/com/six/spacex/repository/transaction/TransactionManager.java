@@ -0,0 +1,12 @@
+package com.six.spacex.repository.transaction;
+
+public interface TransactionManager {
+
+    /**
+     * Saves everything staged in the unit of work.
+     *
+     * @throws com.six.spacex.repository.StaleObjectException if any stored object does not have the version
+     * expected by the unit of work
+     */
+    void commit(UnitOfWork work);
+}
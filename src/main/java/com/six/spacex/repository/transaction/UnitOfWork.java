@@ -0,0 +1,57 @@
+package com.six.spacex.repository.transaction;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.SpaceXObject;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.domain.id.SpaceXId;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Missions and rockets staged to be saved together by {@link TransactionManager#commit(UnitOfWork)}.
+ * An object staged again replaces the staged one, which was never stored, so the newest one is expected
+ * to replace the version the first one was derived from.
+ */
+public class UnitOfWork {
+
+    private final Map<MissionId, Mission> missions = new LinkedHashMap<>();
+    private final Map<RocketId, Rocket> rockets = new LinkedHashMap<>();
+    private final Map<SpaceXId, Long> expectedVersions = new HashMap<>();
+
+    public Mission saveMission(Mission mission) {
+        missions.put(mission.getId(), mission);
+        expectedVersions.putIfAbsent(mission.getId(), mission.getVersion() - 1);
+        return mission;
+    }
+
+    public Rocket saveRocket(Rocket rocket) {
+        rockets.put(rocket.getId(), rocket);
+        expectedVersions.putIfAbsent(rocket.getId(), rocket.getVersion() - 1);
+        return rocket;
+    }
+
+    /**
+     * Version the stored object must have to be replaced by the staged one.
+     */
+    public long getExpectedVersion(SpaceXObject object) {
+        return expectedVersions.get(object.getId());
+    }
+
+    public Optional<Rocket> getRocket(RocketId id) {
+        return Optional.ofNullable(rockets.get(id));
+    }
+
+    public Collection<Mission> getMissions() {
+        return missions.values();
+    }
+
+    public Collection<Rocket> getRockets() {
+        return rockets.values();
+    }
+}
@@ -0,0 +1,17 @@
+package com.six.spacex.repository.view;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.id.MissionId;
+
+/**
+ * Fields of a mission shown in summaries, without its rockets.
+ */
+public record MissionSummary(MissionId id, String name, MissionStatus status, int rocketCount, long version) {
+
+    public static MissionSummary of(Mission mission) {
+        return new MissionSummary(
+                mission.getId(), mission.getName(), mission.getStatus(), mission.getRockets().size(), mission.getVersion()
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package com.six.spacex.repository.view;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.repository.ObservableRepository;
+import com.six.spacex.repository.SortedIndex;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Missions in {@link Mission#BY_ROCKET_COUNT_DESC_THEN_NAME} order, then by ID, with counters of missions
+ * per status. The view is a {@link SortedIndex} updated on every mission save, reads iterate it without locks
+ * or sorting and are weakly consistent: a mission saved during a read is seen at most once, in its old or new
+ * position.
+ */
+public class MissionSummaryView extends SortedIndex<Mission> {
+
+    private final AtomicLongArray countsByStatus = new AtomicLongArray(MissionStatus.values().length);
+    private final Collection<MissionSummary> summaries = new AbstractCollection<>() {
+        @Override
+        public Iterator<MissionSummary> iterator() {
+            return MissionSummaryView.this.stream().map(MissionSummary::of).iterator();
+        }
+
+        @Override
+        public int size() {
+            return MissionSummaryView.this.size();
+        }
+    };
+
+    public MissionSummaryView() {
+        super(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME);
+    }
+
+    /**
+     * Creates a view of all missions stored in the repository and keeps it up to date.
+     */
+    public static MissionSummaryView attach(ObservableRepository<MissionId, Mission> missions) {
+        MissionSummaryView view = new MissionSummaryView();
+        missions.addListener(view);
+        for (Mission mission: missions.getAll()) {
+            view.saved(null, mission);
+        }
+        return view;
+    }
+
+    @Override
+    protected void indexed(Mission replaced, Mission saved) {
+        if (replaced != null) {
+            countsByStatus.decrementAndGet(replaced.getStatus().ordinal());
+        }
+        countsByStatus.incrementAndGet(saved.getStatus().ordinal());
+    }
+
+    /**
+     * Read-only live view in order, iterating it never blocks writers.
+     */
+    public Collection<MissionSummary> getSummaries() {
+        return summaries;
+    }
+
+    public Stream<MissionSummary> top(int limit) {
+        return stream().limit(limit).map(MissionSummary::of);
+    }
+
+    public long count(MissionStatus status) {
+        return countsByStatus.get(status.ordinal());
+    }
+
+    public Map<MissionStatus, Long> getCountsByStatus() {
+        Map<MissionStatus, Long> counts = new EnumMap<>(MissionStatus.class);
+        for (MissionStatus status: MissionStatus.values()) {
+            counts.put(status, count(status));
+        }
+        return counts;
+    }
+}
@@ -2,14 +2,26 @@ package com.six.spacex.service;
 
 import com.six.spacex.domain.SpaceXObject;
 import com.six.spacex.domain.id.SpaceXId;
+import com.six.spacex.repository.PageRequest;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 public interface CrudService<ID extends SpaceXId, O extends SpaceXObject> {
     List<O> getAll(Comparator<O> comparator);
+    Stream<O> query(Comparator<O> comparator, PageRequest<O> page);
     List<O> getAll();
     Optional<O> get(ID id);
     O save(O object);
+    List<O> saveAll(Collection<O> objects);
+
+    /**
+     * Saves the objects if every stored one has the expected version, see
+     * {@link com.six.spacex.repository.CrudRepository#saveAll(Collection, ToLongFunction)}.
+     */
+    List<O> saveAll(Collection<O> objects, ToLongFunction<O> expectedVersion);
 }
@@ -1,17 +1,32 @@
 package com.six.spacex.service;
 
+import com.six.spacex.LazyMessageException;
 import com.six.spacex.domain.id.SpaceXId;
 
-import java.text.MessageFormat;
-import java.util.function.Supplier;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
-public class SpaceXServiceException extends RuntimeException {
+public class SpaceXServiceException extends LazyMessageException {
 
     public SpaceXServiceException(String message, Object... params) {
-        super(MessageFormat.format(message, params));
+        super(message, params);
     }
 
     public static SpaceXServiceException notFound(String name, SpaceXId id) {
         return new SpaceXServiceException("There is no {0} with ID {1}", name, id);
     }
+
+    /**
+     * Batch commands reject repeated IDs, a second transition of the same object in one batch would fail
+     * after the first one was staged.
+     */
+    public static <ID extends SpaceXId> void requireDistinct(String name, Collection<ID> ids) {
+        Set<ID> seen = new HashSet<>();
+        for (ID id: ids) {
+            if (!seen.add(id)) {
+                throw new SpaceXServiceException("{0} with ID {1} is repeated in the batch", name, id);
+            }
+        }
+    }
 }
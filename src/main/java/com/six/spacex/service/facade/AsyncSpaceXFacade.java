@@ -0,0 +1,30 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link SpaceXFacade}, failures complete the futures exceptionally.
+ */
+public interface AsyncSpaceXFacade {
+    CompletableFuture<Mission> getMission(MissionId id);
+    CompletableFuture<Mission> endMission(MissionId id);
+    CompletableFuture<List<Mission>> endMissions(Collection<MissionId> ids);
+    CompletableFuture<Rocket> startRocket(RocketId id);
+    CompletableFuture<List<Rocket>> startRockets(Collection<RocketId> ids);
+    CompletableFuture<Rocket> markRocketAsRepaired(RocketId id);
+    CompletableFuture<List<Rocket>> markRocketsAsRepaired(Collection<RocketId> ids);
+    CompletableFuture<Rocket> repairRocket(RocketId id);
+    CompletableFuture<List<Rocket>> repairRockets(Collection<RocketId> ids);
+    CompletableFuture<Rocket> addRocket(String name);
+    CompletableFuture<Mission> assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds);
+    CompletableFuture<Mission> addMission(String name, List<Rocket> rockets);
+    CompletableFuture<List<Mission>> getMissionsSortedBy(Comparator<Mission> comparator);
+}
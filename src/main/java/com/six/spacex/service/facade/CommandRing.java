@@ -0,0 +1,139 @@
+package com.six.spacex.service.facade;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer. Every slot has a sequence which tells whether
+ * it is free for the lap of a producer or published for the consumer, so producers only meet on the CAS of
+ * the tail and the consumer never writes a shared counter. A full ring makes producers wait.
+ */
+final class CommandRing<E> {
+
+    private static final int SPINS = 128;
+    private static final long PARK_NANOS = 1_000_000;
+
+    private final AtomicLongArray sequences;
+    private final Object[] elements;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final Thread consumer;
+    private long head;
+    private int idleRounds;
+    private volatile boolean parked;
+    private volatile boolean closed;
+
+    CommandRing(int capacity, Thread consumer) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.sequences = new AtomicLongArray(size);
+        this.elements = new Object[size];
+        this.mask = size - 1;
+        this.consumer = consumer;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Waits while the ring is full.
+     *
+     * @return {@code false} if the ring is closed, the element is dropped then
+     */
+    boolean put(E element) {
+        if (closed) {
+            return false;
+        }
+        long sequence = claim();
+        // the consumer reads the flag before the tail, so it either sees the claimed slot or we see the flag
+        boolean accepted = !closed;
+        int index = (int) sequence & mask;
+        elements[index] = accepted ? element : null;
+        sequences.set(index, sequence + 1);
+        if (parked) {
+            LockSupport.unpark(consumer);
+        }
+        return accepted;
+    }
+
+    /**
+     * Consumer only. Hands over up to {@code max} published elements in order.
+     *
+     * @return number of consumed slots, 0 if nothing is published
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<? super E> action, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            E element = (E) elements[index];
+            elements[index] = null;
+            sequences.set(index, head + mask + 1);
+            head++;
+            drained++;
+            if (element != null) {
+                action.accept(element);
+            }
+        }
+        if (drained > 0) {
+            idleRounds = 0;
+        }
+        return drained;
+    }
+
+    /**
+     * Consumer only. Spins for a while after the last drained element, then parks until a producer publishes
+     * or the ring is closed.
+     */
+    void await() {
+        if (idleRounds < SPINS) {
+            idleRounds++;
+            Thread.onSpinWait();
+            return;
+        }
+        parked = true;
+        if (!closed && isEmpty()) {
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        parked = false;
+    }
+
+    /**
+     * Consumer only. {@code true} once the ring is closed and every accepted element has been drained.
+     */
+    boolean isDrained() {
+        return closed && head == tail.get();
+    }
+
+    void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+    }
+
+    private boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    private long claim() {
+        for (int spins = 0; ; ) {
+            long sequence = tail.get();
+            long available = sequences.get((int) sequence & mask);
+            if (available == sequence) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+            } else if (available < sequence) {
+                // the slot still holds an element of the previous lap
+                if (++spins < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.service.rocket.RocketService;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs the commands of a blocking {@link SpaceXFacade} on virtual threads. Commands on one mission are queued
+ * and run one by one in the order they were called, commands on different missions run in parallel.
+ * A rocket command is queued on the rocket and on its mission. The facade keeps the mission of every rocket
+ * in memory: the one of the latest assignment called on this facade, otherwise the one stored when the rocket
+ * is used for the first time. Only a rocket used for the first time is read by the caller, commands on rockets
+ * already routed never wait for the repositories. An assignment is queued on the mission, its rockets and their
+ * previous missions. Ending missions is queued on the missions and their rockets, once they have ended the
+ * routes of their rockets are forgotten, so the routes kept are those of rockets on missions not ended yet,
+ * of rockets without a mission and of rockets used after their mission ended. Ending several missions or
+ * updating several rockets is one command queued on all of them.
+ * <p>
+ * Rockets must not be assigned to missions other than through this facade while it is open, otherwise their
+ * commands are queued on missions they have left.
+ */
+public class DefaultAsyncSpaceXFacade implements AsyncSpaceXFacade, Closeable {
+
+    private final SpaceXFacade facade;
+    private final RocketService<RocketId, Rocket, MissionId> rocketService;
+    private final ExecutorService executor;
+    private final KeyedSerialExecutor missionQueues;
+    private final Map<RocketId, Optional<MissionId>> routes = new ConcurrentHashMap<>();
+    private final Map<MissionId, Set<RocketId>> routedRockets = new ConcurrentHashMap<>();
+
+    public DefaultAsyncSpaceXFacade(SpaceXFacade facade, RocketService<RocketId, Rocket, MissionId> rocketService) {
+        this(facade, rocketService, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @param executor is shut down by {@link #close()}
+     */
+    public DefaultAsyncSpaceXFacade(SpaceXFacade facade, RocketService<RocketId, Rocket, MissionId> rocketService,
+                                    ExecutorService executor) {
+        this.facade = facade;
+        this.rocketService = rocketService;
+        this.executor = executor;
+        this.missionQueues = new KeyedSerialExecutor(executor);
+    }
+
+    @Override
+    public CompletableFuture<Mission> getMission(MissionId id) {
+        return missionQueues.submit(id, () -> facade.getMission(id));
+    }
+
+    @Override
+    public CompletableFuture<Mission> endMission(MissionId id) {
+        return ending(List.of(id), () -> facade.endMission(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Mission>> endMissions(Collection<MissionId> ids) {
+        List<MissionId> missionIds = List.copyOf(ids);
+        return ending(missionIds, () -> facade.endMissions(missionIds));
+    }
+
+    @Override
+    public CompletableFuture<Rocket> startRocket(RocketId id) {
+        return routed(List.of(id), () -> facade.startRocket(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Rocket>> startRockets(Collection<RocketId> ids) {
+        List<RocketId> rocketIds = List.copyOf(ids);
+        return routed(rocketIds, () -> facade.startRockets(rocketIds));
+    }
+
+    @Override
+    public CompletableFuture<Rocket> markRocketAsRepaired(RocketId id) {
+        return routed(List.of(id), () -> facade.markRocketAsRepaired(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Rocket>> markRocketsAsRepaired(Collection<RocketId> ids) {
+        List<RocketId> rocketIds = List.copyOf(ids);
+        return routed(rocketIds, () -> facade.markRocketsAsRepaired(rocketIds));
+    }
+
+    @Override
+    public CompletableFuture<Rocket> repairRocket(RocketId id) {
+        return routed(List.of(id), () -> facade.repairRocket(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Rocket>> repairRockets(Collection<RocketId> ids) {
+        List<RocketId> rocketIds = List.copyOf(ids);
+        return routed(rocketIds, () -> facade.repairRockets(rocketIds));
+    }
+
+    @Override
+    public CompletableFuture<Rocket> addRocket(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            Rocket rocket = facade.addRocket(name);
+            routes.putIfAbsent(rocket.getId(), Optional.empty());
+            return rocket;
+        }, executor);
+    }
+
+    /**
+     * Rockets are routed to the mission when the assignment is called, a failed assignment routes them back
+     * to their previous missions.
+     */
+    @Override
+    public CompletableFuture<Mission> assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        Map<RocketId, Optional<MissionId>> previous = new HashMap<>();
+        Set<Object> queues = new LinkedHashSet<>();
+        queues.add(missionId);
+        for (RocketId rocketId: rocketIds) {
+            queues.addAll(queuesOf(rocketId));
+            previous.put(rocketId, route(rocketId, Optional.of(missionId)));
+        }
+        return missionQueues.submit(queues, () -> facade.assignRocketsToMission(missionId, rocketIds))
+                .whenComplete((mission, failure) -> {
+            if (failure != null) {
+                        previous.forEach((rocketId, previousMissionId) ->
+                                reroute(rocketId, missionId, previousMissionId));
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Mission> addMission(String name, List<Rocket> rockets) {
+        return CompletableFuture.supplyAsync(() -> facade.addMission(name, rockets), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Mission>> getMissionsSortedBy(Comparator<Mission> comparator) {
+        return CompletableFuture.supplyAsync(() -> facade.getMissionsSortedBy(comparator), executor);
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * Queues the command on the rockets and their missions.
+     */
+    private <T> CompletableFuture<T> routed(List<RocketId> ids, Supplier<T> command) {
+        Set<Object> queues = new LinkedHashSet<>();
+        ids.forEach(id -> queues.addAll(queuesOf(id)));
+        return missionQueues.submit(queues, command);
+    }
+
+    /**
+     * Queues the command on the missions and their rockets. Once it has succeeded, the routes the rockets had
+     * when it was called are forgotten, a rocket routed again in the meantime has a new route and keeps it.
+     */
+    private <T> CompletableFuture<T> ending(List<MissionId> ids, Supplier<T> command) {
+        Set<Object> queues = new LinkedHashSet<>(ids);
+        Map<RocketId, Optional<MissionId>> ended = new HashMap<>();
+        for (MissionId id: ids) {
+            for (RocketId rocketId: routedRockets.getOrDefault(id, Set.of())) {
+                queues.add(rocketId);
+                Optional<MissionId> route = routes.get(rocketId);
+                if (route != null && route.filter(id::equals).isPresent()) {
+                    ended.put(rocketId, route);
+                }
+            }
+        }
+        return missionQueues.submit(queues, () -> {
+            T result = command.get();
+            ended.forEach(this::forget);
+            return result;
+        });
+    }
+
+    /**
+     * Looks up the rocket if it is not routed yet.
+     */
+    private List<Object> queuesOf(RocketId id) {
+        Optional<MissionId> missionId = routes.get(id);
+        if (missionId == null) {
+            missionId = load(id);
+        }
+        return missionId.isPresent() ? List.of(id, missionId.get()) : List.of(id);
+    }
+
+    /**
+     * Runs on the caller, an unknown rocket stays unrouted and its command fails in the facade.
+     */
+    private Optional<MissionId> load(RocketId id) {
+        return rocketService.get(id)
+                .map(rocket -> routes.computeIfAbsent(id, rocketId -> {
+                    Optional<MissionId> missionId = rocket.getMissionId();
+                    missionId.ifPresent(mission -> index(mission, rocketId));
+                    return missionId;
+                }))
+                .orElse(Optional.empty());
+    }
+
+    /**
+     * @return previous mission of the rocket, empty if it had none or was not routed yet
+     */
+    private Optional<MissionId> route(RocketId id, Optional<MissionId> missionId) {
+        Optional<MissionId> previous = routes.put(id, missionId);
+        if (previous != null) {
+            previous.ifPresent(mission -> unindex(mission, id));
+        }
+        missionId.ifPresent(mission -> index(mission, id));
+        return previous == null ? Optional.empty() : previous;
+    }
+
+    /**
+     * Routes the rocket back to the previous mission unless it was routed elsewhere in the meantime.
+     */
+    private void reroute(RocketId id, MissionId missionId, Optional<MissionId> previous) {
+        routes.computeIfPresent(id, (rocketId, current) -> {
+            if (current.filter(missionId::equals).isEmpty()) {
+                return current;
+            }
+            unindex(missionId, rocketId);
+            previous.ifPresent(mission -> index(mission, rocketId));
+            return previous;
+        });
+    }
+
+    /**
+     * Routes are compared by identity, every route is a new instance, so a rocket routed to the same mission
+     * again is not forgotten.
+     */
+    private void forget(RocketId id, Optional<MissionId> route) {
+        routes.computeIfPresent(id, (rocketId, current) -> {
+            if (current != route) {
+                return current;
+            }
+            route.ifPresent(mission -> unindex(mission, rocketId));
+            return null;
+        });
+    }
+
+    private void index(MissionId missionId, RocketId rocketId) {
+        routedRockets.compute(missionId, (id, rockets) -> {
+            Set<RocketId> indexed = rockets == null ? ConcurrentHashMap.newKeySet() : rockets;
+            indexed.add(rocketId);
+            return indexed;
+        });
+    }
+
+    private void unindex(MissionId missionId, RocketId rocketId) {
+        routedRockets.computeIfPresent(missionId, (id, rockets) -> {
+            rockets.remove(rocketId);
+            return rockets.isEmpty() ? null : rockets;
+        });
+    }
+}
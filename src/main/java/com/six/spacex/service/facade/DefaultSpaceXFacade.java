@@ -1,28 +1,85 @@
 package com.six.spacex.service.facade;
 
 import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.NameInterner;
 import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.IdGenerator;
 import com.six.spacex.domain.id.MissionId;
 import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.domain.id.TimeOrderedIdGenerator;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.transaction.TransactionManager;
+import com.six.spacex.repository.transaction.UnitOfWork;
 import com.six.spacex.service.SpaceXServiceException;
 import com.six.spacex.service.mission.MissionService;
 import com.six.spacex.service.rocket.RocketService;
 
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 public class DefaultSpaceXFacade implements SpaceXFacade {
 
+    private static final int MAX_ATTEMPTS = 5;
+
     private final MissionService<MissionId, Mission, Rocket> missionService;
     private final RocketService<RocketId, Rocket, MissionId> rocketService;
+    private final TransactionManager transactionManager;
+    private final IdGenerator idGenerator;
+    private final UnaryOperator<String> names;
+    private final int maxAttempts;
 
+    /**
+     * Rockets and missions changed by one operation are saved one by one, use
+     * {@link #DefaultSpaceXFacade(MissionService, RocketService, TransactionManager)} to save them atomically.
+     * An operation which meets a stale object is not retried, as the objects saved before it stay saved.
+     */
     public DefaultSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
                                RocketService<RocketId, Rocket, MissionId> rocketService) {
+        this(missionService, rocketService, work -> {
+            rocketService.saveAll(work.getRockets());
+            missionService.saveAll(work.getMissions());
+        }, new TimeOrderedIdGenerator(), UnaryOperator.identity(), 1);
+    }
+
+    public DefaultSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                               RocketService<RocketId, Rocket, MissionId> rocketService,
+                               TransactionManager transactionManager) {
+        this(missionService, rocketService, transactionManager, new TimeOrderedIdGenerator());
+    }
+
+    public DefaultSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                               RocketService<RocketId, Rocket, MissionId> rocketService,
+                               TransactionManager transactionManager, IdGenerator idGenerator) {
+        this(missionService, rocketService, transactionManager, idGenerator, UnaryOperator.identity(), MAX_ATTEMPTS);
+    }
+
+    /**
+     * Names of added rockets and missions are interned, so objects named alike share one string.
+     */
+    public DefaultSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                               RocketService<RocketId, Rocket, MissionId> rocketService,
+                               TransactionManager transactionManager, IdGenerator idGenerator, NameInterner names) {
+        this(missionService, rocketService, transactionManager, idGenerator, names::intern, MAX_ATTEMPTS);
+    }
+
+    private DefaultSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                                RocketService<RocketId, Rocket, MissionId> rocketService,
+                                TransactionManager transactionManager, IdGenerator idGenerator,
+                                UnaryOperator<String> names, int maxAttempts) {
         this.missionService = missionService;
         this.rocketService = rocketService;
+        this.transactionManager = transactionManager;
+        this.idGenerator = idGenerator;
+        this.names = names;
+        this.maxAttempts = maxAttempts;
     }
 
     @Override
@@ -32,55 +89,96 @@ public class DefaultSpaceXFacade implements SpaceXFacade {
 
     @Override
     public Mission endMission(MissionId id) {
-        rocketService.getRocketsByMissionId(id)
-                .forEach(rocket -> rocketService.putOnGround(rocket.getId()));
-        return missionService.end(id);
+        return inTransaction(work -> {
+            Mission mission = getMissionOrThrow(id);
+            rocketService.getRocketsByMissionId(id)
+                    .forEach(rocket -> work.saveRocket(rocket.onGround()));
+            return work.saveMission(mission.end());
+        });
+    }
+
+    /**
+     * Every mission ends together with the landing of its rockets in one transaction, so either all missions
+     * end or none does.
+     */
+    @Override
+    public List<Mission> endMissions(Collection<MissionId> ids) {
+        SpaceXServiceException.requireDistinct("Mission", ids);
+        return inTransaction(work -> ids.stream()
+                .map(id -> {
+                    Mission mission = getMissionOrThrow(id);
+                    rocketService.getRocketsByMissionId(id)
+                            .forEach(rocket -> work.saveRocket(rocket.onGround()));
+                    return work.saveMission(mission.end());
+                })
+                .toList());
     }
 
     @Override
     public Rocket startRocket(RocketId id) {
-        Rocket inSpace = rocketService.start(id);
-        maybeUpdateMission(inSpace.getMissionId(), missionService::start);
+        return inTransaction(work -> {
+            Rocket inSpace = work.saveRocket(getRocketOrThrow(id).start());
+            maybeUpdateMission(work, inSpace, Mission::start);
 
-        return inSpace;
+            return inSpace;
+        });
+    }
+
+    @Override
+    public List<Rocket> startRockets(Collection<RocketId> ids) {
+        return updateRocketsByMission(ids, Rocket::start, Mission::start);
     }
 
     @Override
     public Rocket markRocketAsRepaired(RocketId id) {
-        Rocket repairing = rocketService.repair(id);
-        maybeUpdateMission(repairing.getMissionId(), missionService::schedule);
+        return inTransaction(work -> {
+            Rocket repaired = work.saveRocket(getRocketOrThrow(id).onGround());
+            maybeUpdateMission(work, repaired, Mission::schedule);
+
+            return repaired;
+        });
+    }
 
-        return repairing;
+    @Override
+    public List<Rocket> markRocketsAsRepaired(Collection<RocketId> ids) {
+        return updateRocketsByMission(ids, Rocket::onGround, Mission::schedule);
     }
 
     @Override
     public Rocket repairRocket(RocketId id) {
-        Rocket repairing = rocketService.repair(id);
-        maybeUpdateMission(repairing.getMissionId(), missionService::markAsPending);
+        return inTransaction(work -> {
+            Rocket repairing = work.saveRocket(getRocketOrThrow(id).repair());
+            maybeUpdateMission(work, repairing, Mission::markAsPending);
 
-        return repairing;
+            return repairing;
+        });
+    }
+
+    @Override
+    public List<Rocket> repairRockets(Collection<RocketId> ids) {
+        return updateRocketsByMission(ids, Rocket::repair, Mission::markAsPending);
     }
 
     @Override
     public Rocket addRocket(String name) {
-        return rocketService.save((new Rocket(new RocketId(UUID.randomUUID()), name)));
+        return rocketService.save(new Rocket(idGenerator.nextRocketId(), names.apply(name)));
     }
 
     @Override
     public Mission assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
-        List<Rocket> rockets = rocketIds.stream()
-                .map(rocketId -> rocketService.get(rocketId)
-                        .map(rocket -> rocketService.assignToMission(rocketId, missionId))
-                        .orElseThrow(() -> SpaceXServiceException.notFound("rocket", rocketId)))
-                .toList();
+        return inTransaction(work -> {
+            List<Rocket> rockets = rocketIds.stream()
+                    .map(rocketId -> work.saveRocket(getRocketOrThrow(rocketId).assignToMission(missionId)))
+                    .toList();
 
-        return missionService.assignRockets(missionId, rockets);
+            return work.saveMission(getMissionOrThrow(missionId).assignRockets(rockets));
+        });
     }
 
     @Override
     public Mission addMission(String name, List<Rocket> rockets) {
         return missionService.save(
-                new Mission(new MissionId(UUID.randomUUID()), name, rockets)
+                new Mission(idGenerator.nextMissionId(), names.apply(name), rockets)
         );
     }
 
@@ -89,12 +187,70 @@ public class DefaultSpaceXFacade implements SpaceXFacade {
         return missionService.getAll(comparator);
     }
 
-    private void maybeUpdateMission(Optional<MissionId> maybeMissionId,
-                                    BiFunction<MissionId, List<Rocket>, Mission> operation) {
-        if (maybeMissionId.isPresent()) {
-            MissionId missionId = maybeMissionId.get();
-            List<Rocket> rockets = rocketService.getRocketsByMissionId(missionId);
-            operation.apply(missionId, rockets);
+    @Override
+    public Stream<Mission> getMissionsSortedBy(Comparator<Mission> comparator, PageRequest<Mission> page) {
+        return missionService.query(comparator, page);
+    }
+
+    /**
+     * Operation reads without locks and stages its changes, commit fails if anything staged
+     * was saved concurrently in the meantime, then the whole operation is retried on fresh objects.
+     */
+    private <T> T inTransaction(Function<UnitOfWork, T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            UnitOfWork work = new UnitOfWork();
+            T result = operation.apply(work);
+            try {
+                transactionManager.commit(work);
+                return result;
+            } catch (StaleObjectException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
         }
     }
+
+    /**
+     * All rockets are updated in one transaction together with a single transition of every mission they belong to,
+     * so either all rockets are updated or none is. Missions are taken from the rockets read in the transaction,
+     * so a retry follows rockets reassigned in the meantime.
+     */
+    private List<Rocket> updateRocketsByMission(Collection<RocketId> ids, Function<Rocket, Rocket> transition,
+                                                BiFunction<Mission, List<Rocket>, Mission> operation) {
+        SpaceXServiceException.requireDistinct("Rocket", ids);
+        return inTransaction(work -> {
+            List<Rocket> updated = ids.stream()
+                    .map(id -> work.saveRocket(transition.apply(getRocketOrThrow(id))))
+                    .toList();
+            Set<MissionId> missionIds = new LinkedHashSet<>();
+            updated.forEach(rocket -> rocket.getMissionId().ifPresent(missionIds::add));
+            missionIds.forEach(missionId -> updateMission(work, missionId, operation));
+
+            return updated;
+        });
+    }
+
+    private void maybeUpdateMission(UnitOfWork work, Rocket rocket,
+                                    BiFunction<Mission, List<Rocket>, Mission> operation) {
+        rocket.getMissionId().ifPresent(missionId -> updateMission(work, missionId, operation));
+    }
+
+    private void updateMission(UnitOfWork work, MissionId missionId,
+                               BiFunction<Mission, List<Rocket>, Mission> operation) {
+        // mission is read first, so a rocket saved after this read comes with a newer mission version
+        Mission mission = getMissionOrThrow(missionId);
+        List<Rocket> rockets = rocketService.getRocketsByMissionId(missionId).stream()
+                .map(stored -> work.getRocket(stored.getId()).orElse(stored))
+                .toList();
+        work.saveMission(operation.apply(mission, rockets));
+    }
+
+    private Mission getMissionOrThrow(MissionId id) {
+        return missionService.get(id).orElseThrow(() -> SpaceXServiceException.notFound("mission", id));
+    }
+
+    private Rocket getRocketOrThrow(RocketId id) {
+        return rocketService.get(id).orElseThrow(() -> SpaceXServiceException.notFound("rocket", id));
+    }
 }
@@ -0,0 +1,62 @@
+package com.six.spacex.service.facade;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Tasks with the same key run one after another in submission order, tasks with different keys run in parallel.
+ * Every key has a chain of futures, which is dropped once its last task has finished. A task with several keys
+ * waits for the tasks submitted before on any of them; tasks are chained one submission at a time, so two
+ * of them cannot wait for each other.
+ */
+final class KeyedSerialExecutor {
+
+    private final Executor executor;
+    private final Map<Object, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    KeyedSerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    <T> CompletableFuture<T> submit(Object key, Supplier<T> task) {
+        return submit(List.of(key), task);
+    }
+
+    synchronized <T> CompletableFuture<T> submit(Collection<?> keys, Supplier<T> task) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        List<CompletableFuture<?>> previous = new ArrayList<>();
+        for (Object key: keys) {
+            tails.compute(key, (k, tail) -> {
+                if (tail != null) {
+                    previous.add(tail);
+                }
+                return done;
+            });
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture.allOf(previous.toArray(CompletableFuture[]::new))
+                .handleAsync((ignored, previousFailure) -> {
+                    try {
+                        result.complete(task.get());
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                    return null;
+                }, executor)
+                .whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        // the executor rejected the task, e.g. it was shut down
+                        result.completeExceptionally(failure);
+                    }
+                    done.complete(null);
+                    keys.forEach(key -> tails.remove(key, done));
+                });
+        return result;
+    }
+}
@@ -0,0 +1,334 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.NameInterner;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.IdGenerator;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.domain.id.TimeOrderedIdGenerator;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.repository.transaction.TransactionManager;
+import com.six.spacex.service.SpaceXServiceException;
+import com.six.spacex.service.mission.MissionService;
+import com.six.spacex.service.rocket.RocketService;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Commands are put into a ring and applied by a single writer thread, so there are no optimistic retries
+ * and no stale object conflicts between commands. The writer takes all commands published so far as one batch,
+ * applies them one by one on top of the changes of the batch and commits the batch with one
+ * {@link TransactionManager#commit}, so journaling and listeners run per batch, not per command. Repeated changes
+ * of an object within the batch are folded into its newest version, so a mission changed by every command is
+ * written once per batch. Callers wait until the changes of their command are committed, a failed commit fails
+ * only the commands of its batch. Reads go straight to the services.
+ * <p>
+ * The services must not be written by anyone else while the facade is open, they only need to tolerate
+ * concurrent readers and this one writer.
+ */
+public class PipelinedSpaceXFacade implements SpaceXFacade, Closeable {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final MissionService<MissionId, Mission, Rocket> missionService;
+    private final TransactionManager transactionManager;
+    private final IdGenerator idGenerator;
+    private final UnaryOperator<String> names;
+    private final WriteBatch batch;
+    private final int maxBatch;
+    private final Thread writer;
+    private final CommandRing<Command> commands;
+    private final Runnable published;
+
+    public PipelinedSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                                 RocketService<RocketId, Rocket, MissionId> rocketService) {
+        this(missionService, rocketService, work -> {
+            rocketService.saveAll(work.getRockets(), work::getExpectedVersion);
+            missionService.saveAll(work.getMissions(), work::getExpectedVersion);
+        }, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of commands waiting to be applied before callers have to wait,
+     *                 it also bounds the size of a batch
+     */
+    public PipelinedSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                                 RocketService<RocketId, Rocket, MissionId> rocketService,
+                                 TransactionManager transactionManager, int capacity) {
+        this(missionService, rocketService, transactionManager, capacity, new TimeOrderedIdGenerator());
+    }
+
+    public PipelinedSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                                 RocketService<RocketId, Rocket, MissionId> rocketService,
+                                 TransactionManager transactionManager, int capacity, IdGenerator idGenerator) {
+        this(missionService, rocketService, transactionManager, capacity, idGenerator, UnaryOperator.identity(),
+                () -> {});
+    }
+
+    /**
+     * Names of added rockets and missions are interned, so objects named alike share one string.
+     */
+    public PipelinedSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                                 RocketService<RocketId, Rocket, MissionId> rocketService,
+                                 TransactionManager transactionManager, int capacity, IdGenerator idGenerator,
+                                 NameInterner names) {
+        this(missionService, rocketService, transactionManager, capacity, idGenerator, names::intern, () -> {});
+    }
+
+    /**
+     * @param published called on the calling thread once its command is in the ring, so commands of several
+     *                  threads can be published in a given order
+     */
+    PipelinedSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                          RocketService<RocketId, Rocket, MissionId> rocketService,
+                          TransactionManager transactionManager, int capacity, IdGenerator idGenerator,
+                          Runnable published) {
+        this(missionService, rocketService, transactionManager, capacity, idGenerator, UnaryOperator.identity(),
+                published);
+    }
+
+    private PipelinedSpaceXFacade(MissionService<MissionId, Mission, Rocket> missionService,
+                                  RocketService<RocketId, Rocket, MissionId> rocketService,
+                                  TransactionManager transactionManager, int capacity, IdGenerator idGenerator,
+                                  UnaryOperator<String> names, Runnable published) {
+        this.missionService = missionService;
+        this.transactionManager = transactionManager;
+        this.idGenerator = idGenerator;
+        this.names = names;
+        this.batch = new WriteBatch(missionService, rocketService);
+        this.maxBatch = capacity;
+        this.writer = Thread.ofPlatform().name("spacex-writer").daemon().unstarted(this::run);
+        this.commands = new CommandRing<>(capacity, writer);
+        this.published = published;
+        writer.start();
+    }
+
+    @Override
+    public Mission getMission(MissionId id) {
+        return missionService.get(id).orElseThrow();
+    }
+
+    @Override
+    public Mission endMission(MissionId id) {
+        return submit(batch -> endMission(batch, id));
+    }
+
+    @Override
+    public List<Mission> endMissions(Collection<MissionId> ids) {
+        SpaceXServiceException.requireDistinct("Mission", ids);
+        return submit(batch -> ids.stream()
+                .map(id -> endMission(batch, id))
+                .toList());
+    }
+
+    @Override
+    public Rocket startRocket(RocketId id) {
+        return submit(batch -> updateRocket(batch, id, Rocket::start, Mission::start));
+    }
+
+    @Override
+    public List<Rocket> startRockets(Collection<RocketId> ids) {
+        return submit(batch -> updateRocketsByMission(batch, ids, Rocket::start, Mission::start));
+    }
+
+    @Override
+    public Rocket markRocketAsRepaired(RocketId id) {
+        return submit(batch -> updateRocket(batch, id, Rocket::onGround, Mission::schedule));
+    }
+
+    @Override
+    public List<Rocket> markRocketsAsRepaired(Collection<RocketId> ids) {
+        return submit(batch -> updateRocketsByMission(batch, ids, Rocket::onGround, Mission::schedule));
+    }
+
+    @Override
+    public Rocket repairRocket(RocketId id) {
+        return submit(batch -> updateRocket(batch, id, Rocket::repair, Mission::markAsPending));
+    }
+
+    @Override
+    public List<Rocket> repairRockets(Collection<RocketId> ids) {
+        return submit(batch -> updateRocketsByMission(batch, ids, Rocket::repair, Mission::markAsPending));
+    }
+
+    @Override
+    public Rocket addRocket(String name) {
+        Rocket rocket = new Rocket(idGenerator.nextRocketId(), names.apply(name));
+        return submit(batch -> batch.saveRocket(rocket));
+    }
+
+    @Override
+    public Mission assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds) {
+        return submit(batch -> {
+            List<Rocket> rockets = rocketIds.stream()
+                    .map(rocketId -> batch.saveRocket(batch.getRocket(rocketId).assignToMission(missionId)))
+                    .toList();
+
+            return batch.saveMission(batch.getMission(missionId).assignRockets(rockets));
+        });
+    }
+
+    @Override
+    public Mission addMission(String name, List<Rocket> rockets) {
+        Mission mission = new Mission(idGenerator.nextMissionId(), names.apply(name), rockets);
+        return submit(batch -> batch.saveMission(mission));
+    }
+
+    @Override
+    public List<Mission> getMissionsSortedBy(Comparator<Mission> comparator) {
+        return missionService.getAll(comparator);
+    }
+
+    @Override
+    public Stream<Mission> getMissionsSortedBy(Comparator<Mission> comparator, PageRequest<Mission> page) {
+        return missionService.query(comparator, page);
+    }
+
+    /**
+     * Stops accepting commands and waits until the writer has committed all accepted ones.
+     */
+    @Override
+    public void close() {
+        commands.close();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T submit(Function<WriteBatch, T> operation) {
+        Command command = new Command((Function<WriteBatch, Object>) operation);
+        if (!commands.put(command)) {
+            throw new SpaceXServiceException("Facade is closed, command is rejected");
+        }
+        published.run();
+        try {
+            return (T) command.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        List<Command> applied = new ArrayList<>(maxBatch);
+        while (!commands.isDrained()) {
+            if (commands.drain(command -> apply(command, applied), maxBatch) == 0) {
+                commands.await();
+            } else {
+                commit(applied);
+            }
+        }
+    }
+
+    private void apply(Command command, List<Command> applied) {
+        try {
+            command.value = command.operation.apply(batch);
+            batch.keepCommand();
+            applied.add(command);
+        } catch (Throwable e) {
+            batch.discard();
+            command.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Results are handed over only after the commit, so a caller never sees a change which is not stored yet.
+     * The batch is committed as one unit of work, so when it fails all its commands fail and none of their
+     * changes is stored.
+     */
+    private void commit(List<Command> applied) {
+        Throwable failure = null;
+        try {
+            if (!batch.isEmpty()) {
+                batch.commit(transactionManager);
+            }
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            batch.clear();
+        }
+        for (Command command: applied) {
+            if (failure == null) {
+                command.result.complete(command.value);
+            } else {
+                command.result.completeExceptionally(failure);
+            }
+        }
+        applied.clear();
+    }
+
+    private static Mission endMission(WriteBatch batch, MissionId id) {
+        Mission mission = batch.getMission(id);
+        batch.getRocketsByMissionId(id)
+                .forEach(rocket -> batch.saveRocket(rocket.onGround()));
+        return batch.saveMission(mission.end());
+    }
+
+    private static Rocket updateRocket(WriteBatch batch, RocketId id, Function<Rocket, Rocket> transition,
+                                       BiFunction<Mission, List<Rocket>, Mission> operation) {
+        Rocket updated = batch.saveRocket(transition.apply(batch.getRocket(id)));
+        maybeUpdateMission(batch, updated, operation);
+
+        return updated;
+    }
+
+    /**
+     * All rockets are updated together with a single transition of every mission they belong to and kept
+     * with the command, so either all rockets are updated or none is.
+     */
+    private static List<Rocket> updateRocketsByMission(WriteBatch batch, Collection<RocketId> ids,
+                                                       Function<Rocket, Rocket> transition,
+                                                       BiFunction<Mission, List<Rocket>, Mission> operation) {
+        SpaceXServiceException.requireDistinct("Rocket", ids);
+        List<Rocket> updated = ids.stream()
+                .map(id -> batch.saveRocket(transition.apply(batch.getRocket(id))))
+                .toList();
+        Set<MissionId> missionIds = new LinkedHashSet<>();
+        updated.forEach(rocket -> rocket.getMissionId().ifPresent(missionIds::add));
+        missionIds.forEach(missionId -> updateMission(batch, missionId, operation));
+
+        return updated;
+    }
+
+    private static void maybeUpdateMission(WriteBatch batch, Rocket rocket,
+                                           BiFunction<Mission, List<Rocket>, Mission> operation) {
+        rocket.getMissionId().ifPresent(missionId -> updateMission(batch, missionId, operation));
+    }
+
+    private static void updateMission(WriteBatch batch, MissionId missionId,
+                                      BiFunction<Mission, List<Rocket>, Mission> operation) {
+        batch.saveMission(operation.apply(batch.getMission(missionId), batch.getRocketsByMissionId(missionId)));
+    }
+
+    private static final class Command {
+
+        private final Function<WriteBatch, Object> operation;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private Object value;
+
+        private Command(Function<WriteBatch, Object> operation) {
+            this.operation = operation;
+        }
+    }
+}
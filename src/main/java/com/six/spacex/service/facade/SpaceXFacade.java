@@ -4,18 +4,26 @@ import com.six.spacex.domain.Mission;
 import com.six.spacex.domain.Rocket;
 import com.six.spacex.domain.id.MissionId;
 import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.PageRequest;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface SpaceXFacade {
     Mission getMission(MissionId id);
     Mission endMission(MissionId id);
+    List<Mission> endMissions(Collection<MissionId> ids);
     Rocket startRocket(RocketId id);
+    List<Rocket> startRockets(Collection<RocketId> ids);
     Rocket markRocketAsRepaired(RocketId id);
+    List<Rocket> markRocketsAsRepaired(Collection<RocketId> ids);
     Rocket repairRocket(RocketId id);
+    List<Rocket> repairRockets(Collection<RocketId> ids);
     Rocket addRocket(String name);
     Mission assignRocketsToMission(MissionId missionId, List<RocketId> rocketIds);
     Mission addMission(String name, List<Rocket> rockets);
     List<Mission> getMissionsSortedBy(Comparator<Mission> comparator);
+    Stream<Mission> getMissionsSortedBy(Comparator<Mission> comparator, PageRequest<Mission> page);
 }
@@ -0,0 +1,147 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.transaction.TransactionManager;
+import com.six.spacex.repository.transaction.UnitOfWork;
+import com.six.spacex.service.SpaceXServiceException;
+import com.six.spacex.service.mission.MissionService;
+import com.six.spacex.service.rocket.RocketService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes of the commands applied by the single writer since the last commit. A command stages its changes,
+ * reads see them on top of the batch and the services, and {@link #keepCommand()} moves them into the batch, so
+ * a failed command is dropped with {@link #discard()} without touching the others. Not thread-safe.
+ * <p>
+ * The batch is committed as one unit of work, which holds only the newest version of every object changed
+ * by its commands and expects the stored object to have the version the first change was derived from, so
+ * a mission changed by every command of the batch is still written once.
+ */
+final class WriteBatch {
+
+    private final MissionService<MissionId, Mission, Rocket> missionService;
+    private final RocketService<RocketId, Rocket, MissionId> rocketService;
+
+    private final Map<MissionId, Mission> missions = new HashMap<>();
+    private final Map<RocketId, Rocket> rockets = new HashMap<>();
+    private final Map<MissionId, Set<RocketId>> assigned = new HashMap<>();
+    private UnitOfWork work = new UnitOfWork();
+
+    private final Map<MissionId, Mission> stagedMissions = new LinkedHashMap<>();
+    private final Map<RocketId, Rocket> stagedRockets = new LinkedHashMap<>();
+
+    WriteBatch(MissionService<MissionId, Mission, Rocket> missionService,
+               RocketService<RocketId, Rocket, MissionId> rocketService) {
+        this.missionService = missionService;
+        this.rocketService = rocketService;
+    }
+
+    Mission getMission(MissionId id) {
+        Mission mission = stagedMissions.get(id);
+        if (mission == null) {
+            mission = missions.get(id);
+        }
+        if (mission == null) {
+            mission = missionService.get(id).orElseThrow(() -> SpaceXServiceException.notFound("mission", id));
+        }
+        return mission;
+    }
+
+    Rocket getRocket(RocketId id) {
+        Rocket rocket = stagedRockets.get(id);
+        if (rocket == null) {
+            rocket = rockets.get(id);
+        }
+        if (rocket == null) {
+            rocket = rocketService.get(id).orElseThrow(() -> SpaceXServiceException.notFound("rocket", id));
+        }
+        return rocket;
+    }
+
+    /**
+     * Stored rockets of the mission and rockets assigned to it by this batch, in their latest versions.
+     */
+    List<Rocket> getRocketsByMissionId(MissionId missionId) {
+        Set<RocketId> ids = new LinkedHashSet<>();
+        rocketService.getRocketsByMissionId(missionId).forEach(rocket -> ids.add(rocket.getId()));
+        ids.addAll(assigned.getOrDefault(missionId, Set.of()));
+        stagedRockets.values().stream()
+                .filter(rocket -> rocket.getMissionId().filter(missionId::equals).isPresent())
+                .forEach(rocket -> ids.add(rocket.getId()));
+
+        List<Rocket> result = new ArrayList<>(ids.size());
+        for (RocketId id: ids) {
+            Rocket rocket = getRocket(id);
+            if (rocket.getMissionId().filter(missionId::equals).isPresent()) {
+                result.add(rocket);
+            }
+        }
+        return result;
+    }
+
+    Mission saveMission(Mission mission) {
+        stagedMissions.put(mission.getId(), mission);
+        return mission;
+    }
+
+    Rocket saveRocket(Rocket rocket) {
+        stagedRockets.put(rocket.getId(), rocket);
+        return rocket;
+    }
+
+    /**
+     * Keeps the staged changes on top of the ones kept before and ends the command.
+     */
+    void keepCommand() {
+        for (Rocket rocket: stagedRockets.values()) {
+            rockets.put(rocket.getId(), rocket);
+            work.saveRocket(rocket);
+            rocket.getMissionId()
+                    .ifPresent(missionId -> assigned.computeIfAbsent(missionId, id -> new HashSet<>()).add(rocket.getId()));
+        }
+        for (Mission mission: stagedMissions.values()) {
+            missions.put(mission.getId(), mission);
+            work.saveMission(mission);
+        }
+        stagedMissions.clear();
+        stagedRockets.clear();
+    }
+
+    /**
+     * Drops the staged changes of a failed command and ends it.
+     */
+    void discard() {
+        stagedMissions.clear();
+        stagedRockets.clear();
+    }
+
+    boolean isEmpty() {
+        return missions.isEmpty() && rockets.isEmpty();
+    }
+
+    void commit(TransactionManager transactionManager) {
+        transactionManager.commit(work);
+    }
+
+    /**
+     * Starts a new batch, whether or not it was committed.
+     */
+    void clear() {
+        missions.clear();
+        rockets.clear();
+        assigned.clear();
+        work = new UnitOfWork();
+        discard();
+    }
+}
@@ -4,20 +4,44 @@ import com.six.spacex.domain.Mission;
 import com.six.spacex.domain.Rocket;
 import com.six.spacex.domain.id.MissionId;
 import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.repository.ParallelQuery;
+import com.six.spacex.repository.StaleObjectException;
 import com.six.spacex.service.SpaceXServiceException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 public class DefaultMissionService implements MissionService<MissionId, Mission, Rocket> {
 
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+
     private final CrudRepository<MissionId, Mission> missionRepository;
+    private final int maxAttempts;
+    private final ParallelQuery parallelQuery;
 
     public DefaultMissionService(CrudRepository<MissionId, Mission> missionRepository) {
+        this(missionRepository, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public DefaultMissionService(CrudRepository<MissionId, Mission> missionRepository, int maxAttempts) {
+        this(missionRepository, maxAttempts, ParallelQuery.sequential());
+    }
+
+    /**
+     * @param parallelQuery mode of {@link #getAll(Comparator)} and {@link #query(Comparator, PageRequest)}
+     */
+    public DefaultMissionService(CrudRepository<MissionId, Mission> missionRepository, int maxAttempts, ParallelQuery parallelQuery) {
         this.missionRepository = missionRepository;
+        this.maxAttempts = maxAttempts;
+        this.parallelQuery = parallelQuery;
     }
 
     @Override
@@ -45,9 +69,19 @@ public class DefaultMissionService implements MissionService<MissionId, Mission,
         return updateMissionOrThrow(id, () -> Mission::end);
     }
 
+    @Override
+    public List<Mission> endAll(Collection<MissionId> ids) {
+        return updateMissionsOrThrow(ids, Mission::end);
+    }
+
     @Override
     public List<Mission> getAll(Comparator<Mission> comparator) {
-        return getAll().stream().sorted(comparator).toList();
+        return query(comparator, PageRequest.all()).toList();
+    }
+
+    @Override
+    public Stream<Mission> query(Comparator<Mission> comparator, PageRequest<Mission> page) {
+        return parallelQuery.query(missionRepository, comparator, page);
     }
 
     @Override
@@ -65,10 +99,56 @@ public class DefaultMissionService implements MissionService<MissionId, Mission,
         return missionRepository.save(mission);
     }
 
+    @Override
+    public List<Mission> saveAll(Collection<Mission> missions) {
+        return missionRepository.saveAll(missions);
+    }
+
+    @Override
+    public List<Mission> saveAll(Collection<Mission> missions, ToLongFunction<Mission> expectedVersion) {
+        return missionRepository.saveAll(missions, expectedVersion);
+    }
+
+    /**
+     * Transition is computed on the read mission without holding a lock, save succeeds only if nobody
+     * has saved the mission in between. Otherwise the transition is retried on the fresh mission.
+     */
     private Mission updateMissionOrThrow(MissionId id, Supplier<Function<Mission, Mission>> operation) {
-        return missionRepository.get(id)
-                .map(operation.get())
-                .map(missionRepository::save)
-                .orElseThrow(() -> SpaceXServiceException.notFound("mission", id));
+        Function<Mission, Mission> transition = operation.get();
+        for (int attempt = 1; ; attempt++) {
+            Mission mission = missionRepository.get(id)
+                    .orElseThrow(() -> SpaceXServiceException.notFound("mission", id));
+            try {
+                return missionRepository.save(transition.apply(mission));
+            } catch (StaleObjectException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * All transitions are computed before anything is written, so a rejected one leaves every mission as it was,
+     * then they are written with one all-or-nothing {@link CrudRepository#saveAll(Collection)}. On a conflict
+     * the whole batch is read and transitioned again.
+     */
+    private List<Mission> updateMissionsOrThrow(Collection<MissionId> ids, Function<Mission, Mission> transition) {
+        SpaceXServiceException.requireDistinct("Mission", ids);
+        for (int attempt = 1; ; attempt++) {
+            List<Mission> updated = new ArrayList<>(ids.size());
+            for (MissionId id: ids) {
+                Mission mission = missionRepository.get(id)
+                        .orElseThrow(() -> SpaceXServiceException.notFound("mission", id));
+                updated.add(transition.apply(mission));
+            }
+            try {
+                return missionRepository.saveAll(updated);
+            } catch (StaleObjectException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.six.spacex.domain.SpaceXObject;
 import com.six.spacex.domain.id.SpaceXId;
 import com.six.spacex.service.CrudService;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MissionService<ID extends SpaceXId, O extends SpaceXObject, R extends SpaceXObject>
@@ -13,4 +14,5 @@ public interface MissionService<ID extends SpaceXId, O extends SpaceXObject, R e
     O start(ID id, List<R> rockets);
     O schedule(ID id, List<R> rockets);
     O end(ID id);
+    List<O> endAll(Collection<ID> ids);
 }
@@ -3,30 +3,50 @@ package com.six.spacex.service.rocket;
 import com.six.spacex.domain.Rocket;
 import com.six.spacex.domain.id.MissionId;
 import com.six.spacex.domain.id.RocketId;
-import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.PageRequest;
+import com.six.spacex.repository.ParallelQuery;
+import com.six.spacex.repository.RocketRepository;
+import com.six.spacex.repository.StaleObjectException;
 import com.six.spacex.service.SpaceXServiceException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 public class DefaultRocketService implements RocketService<RocketId, Rocket, MissionId> {
 
-    private final CrudRepository<RocketId, Rocket> rocketRepository;
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
 
-    public DefaultRocketService(CrudRepository<RocketId, Rocket> rocketRepository) {
+    private final RocketRepository rocketRepository;
+    private final int maxAttempts;
+    private final ParallelQuery parallelQuery;
+
+    public DefaultRocketService(RocketRepository rocketRepository) {
+        this(rocketRepository, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public DefaultRocketService(RocketRepository rocketRepository, int maxAttempts) {
+        this(rocketRepository, maxAttempts, ParallelQuery.sequential());
+    }
+
+    /**
+     * @param parallelQuery mode of {@link #getAll(Comparator)} and {@link #query(Comparator, PageRequest)}
+     */
+    public DefaultRocketService(RocketRepository rocketRepository, int maxAttempts, ParallelQuery parallelQuery) {
         this.rocketRepository = rocketRepository;
+        this.maxAttempts = maxAttempts;
+        this.parallelQuery = parallelQuery;
     }
 
     @Override
     public List<Rocket> getRocketsByMissionId(MissionId missionId) {
-        return getAll().stream()
-                .filter(rocket ->
-                        rocket.getMissionId().isPresent() && missionId.equals(rocket.getMissionId().get())
-                )
-                .toList();
+        return rocketRepository.getByMissionId(missionId);
     }
 
     @Override
@@ -49,9 +69,29 @@ public class DefaultRocketService implements RocketService<RocketId, Rocket, Mis
         return updateRocketOrThrow(id, () -> Rocket::start);
     }
 
+    @Override
+    public List<Rocket> repairAll(Collection<RocketId> rocketIds) {
+        return updateRocketsOrThrow(rocketIds, Rocket::repair);
+    }
+
+    @Override
+    public List<Rocket> putOnGroundAll(Collection<RocketId> rocketIds) {
+        return updateRocketsOrThrow(rocketIds, Rocket::onGround);
+    }
+
+    @Override
+    public List<Rocket> startAll(Collection<RocketId> rocketIds) {
+        return updateRocketsOrThrow(rocketIds, Rocket::start);
+    }
+
     @Override
     public List<Rocket> getAll(Comparator<Rocket> comparator) {
-        return getAll().stream().sorted(comparator).toList();
+        return query(comparator, PageRequest.all()).toList();
+    }
+
+    @Override
+    public Stream<Rocket> query(Comparator<Rocket> comparator, PageRequest<Rocket> page) {
+        return parallelQuery.query(rocketRepository, comparator, page);
     }
 
     @Override
@@ -69,10 +109,56 @@ public class DefaultRocketService implements RocketService<RocketId, Rocket, Mis
         return rocketRepository.save(rocket);
     }
 
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> rockets) {
+        return rocketRepository.saveAll(rockets);
+    }
+
+    @Override
+    public List<Rocket> saveAll(Collection<Rocket> rockets, ToLongFunction<Rocket> expectedVersion) {
+        return rocketRepository.saveAll(rockets, expectedVersion);
+    }
+
+    /**
+     * Transition is computed on the read rocket without holding a lock, save succeeds only if nobody
+     * has saved the rocket in between. Otherwise the transition is retried on the fresh rocket.
+     */
     private Rocket updateRocketOrThrow(RocketId rocketId, Supplier<Function<Rocket, Rocket>> operation) {
-        return rocketRepository.get(rocketId)
-                .map(operation.get())
-                .map(rocketRepository::save)
-                .orElseThrow(() -> SpaceXServiceException.notFound("rocket", rocketId));
+        Function<Rocket, Rocket> transition = operation.get();
+        for (int attempt = 1; ; attempt++) {
+            Rocket rocket = rocketRepository.get(rocketId)
+                    .orElseThrow(() -> SpaceXServiceException.notFound("rocket", rocketId));
+            try {
+                return rocketRepository.save(transition.apply(rocket));
+            } catch (StaleObjectException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * All transitions are computed before anything is written, so a rejected one leaves every rocket as it was,
+     * then they are written with one all-or-nothing {@link RocketRepository#saveAll(Collection)}. On a conflict
+     * the whole batch is read and transitioned again.
+     */
+    private List<Rocket> updateRocketsOrThrow(Collection<RocketId> rocketIds, Function<Rocket, Rocket> transition) {
+        SpaceXServiceException.requireDistinct("Rocket", rocketIds);
+        for (int attempt = 1; ; attempt++) {
+            List<Rocket> updated = new ArrayList<>(rocketIds.size());
+            for (RocketId rocketId: rocketIds) {
+                Rocket rocket = rocketRepository.get(rocketId)
+                        .orElseThrow(() -> SpaceXServiceException.notFound("rocket", rocketId));
+                updated.add(transition.apply(rocket));
+            }
+            try {
+                return rocketRepository.saveAll(updated);
+            } catch (StaleObjectException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
     }
 }
@@ -4,6 +4,7 @@ import com.six.spacex.domain.SpaceXObject;
 import com.six.spacex.domain.id.SpaceXId;
 import com.six.spacex.service.CrudService;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RocketService<ID extends SpaceXId, O extends SpaceXObject, MID extends SpaceXId>
@@ -13,4 +14,7 @@ public interface RocketService<ID extends SpaceXId, O extends SpaceXObject, MID
     O repair(ID rocketId);
     O putOnGround(ID rocketId);
     O start(ID rocketId);
+    List<O> repairAll(Collection<ID> rocketIds);
+    List<O> putOnGroundAll(Collection<ID> rocketIds);
+    List<O> startAll(Collection<ID> rocketIds);
 }
@@ -0,0 +1,69 @@
+package com.six.spacex.codec;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class MissionCodecTest {
+
+    private final MissionCodec codec = new MissionCodec();
+
+    @Test
+    public void mission_with_rockets_survives_encode_and_decode() {
+        MissionId missionId = new MissionId(UUID.randomUUID());
+        Rocket inRepair = new Rocket(new RocketId(UUID.randomUUID()), "Falcon Heavy")
+                .assignToMission(missionId)
+                .repair();
+        Rocket onGround = new Rocket(new RocketId(UUID.randomUUID()), "Звезда 🚀")
+                .assignToMission(missionId);
+        Mission mission = new Mission(missionId, "Mars", List.of(inRepair, onGround));
+
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(mission));
+        codec.encode(mission, buffer);
+        assertFalse(buffer.hasRemaining());
+
+        Mission decoded = codec.decode(buffer.flip());
+        assertEquals(mission.getId(), decoded.getId());
+        assertEquals(mission.getName(), decoded.getName());
+        assertSame(mission.getStatus(), decoded.getStatus());
+        assertEquals(mission.getVersion(), decoded.getVersion());
+        assertEquals(2, decoded.getRockets().size());
+        Rocket decodedRocket = decoded.getRockets().get(onGround.getId());
+        assertEquals(onGround.getName(), decodedRocket.getName());
+        assertSame(onGround.getStatus(), decodedRocket.getStatus());
+        assertEquals(onGround.getMissionId(), decodedRocket.getMissionId());
+        assertEquals(onGround.getVersion(), decodedRocket.getVersion());
+        assertSame(inRepair.getStatus(), decoded.getRockets().get(inRepair.getId()).getStatus());
+    }
+
+    @Test
+    public void unknown_format_version_throw_CodecException() {
+        Rocket rocket = new Rocket(new RocketId(UUID.randomUUID()), "Dragon");
+        RocketCodec rocketCodec = new RocketCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(rocketCodec.encodedSize(rocket));
+        rocketCodec.encode(rocket, buffer);
+        buffer.put(0, (byte) (RocketCodec.FORMAT_VERSION + 1));
+
+        assertThrows(CodecException.class, () -> rocketCodec.decode(buffer.flip()));
+    }
+
+    @Test
+    public void rocket_count_beyond_the_remaining_bytes_throw_CodecException() {
+        Mission mission = new Mission(new MissionId(UUID.randomUUID()), "Mars");
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(mission) + 4);
+        codec.encode(mission, buffer);
+        // replaces the count of zero rockets with a varint of about 2^28
+        buffer.position(buffer.position() - 1);
+        buffer.put(new byte[]{(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01});
+
+        assertThrows(CodecException.class, () -> codec.decode(buffer.flip()));
+    }
+}
@@ -79,6 +79,43 @@ public class MissionTest {
         assertThrows(InvalidObjectStateException.class, () -> scheduled.markAsPending(List.of()));
     }
 
+    @Test
+    public void transition_with_same_rockets_shares_rocket_map() {
+        MissionId missionId = new MissionId(UUID.randomUUID());
+        Rocket dragon = new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(missionId);
+        Rocket falcon = new Rocket(new RocketId(UUID.randomUUID()), "Falcon").assignToMission(missionId).start();
+        Mission inProgress = new Mission(missionId, "Mars", List.of(dragon, falcon)).start(List.of(dragon, falcon));
+
+        Mission stillInProgress = inProgress.start(List.of(dragon, falcon));
+        assertSame(inProgress.getRockets(), stillInProgress.getRockets());
+
+        Mission withStartedRocket = inProgress.start(List.of(dragon.start(), falcon));
+        assertNotSame(inProgress.getRockets(), withStartedRocket.getRockets());
+        assertSame(RocketStatus.ON_GROUND, inProgress.getRockets().get(dragon.getId()).getStatus());
+    }
+
+    @Test
+    public void change_status_with_repeated_rocket_and_throw_InvalidObjectStateException() {
+        MissionId missionId = new MissionId(UUID.randomUUID());
+        Rocket dragon = new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(missionId);
+        Rocket falcon = new Rocket(new RocketId(UUID.randomUUID()), "Falcon").assignToMission(missionId);
+        Mission assigned = new Mission(missionId, "Mars").assignRockets(List.of(dragon, falcon));
+
+        assertThrows(InvalidObjectStateException.class, () -> assigned.start(List.of(dragon.start(), dragon.start())));
+        assertThrows(InvalidObjectStateException.class, () -> assigned.markAsPending(List.of(dragon.repair(), dragon)));
+        assertTrue(assigned.tryStart(List.of(dragon.start(), dragon.start())).isRejected());
+        assertThrows(InvalidObjectStateException.class, () -> new Mission(missionId, "Luna", List.of(dragon, dragon)));
+    }
+
+    @Test
+    public void change_status_of_ended_mission_and_throw_InvalidObjectStateException() {
+        MissionId missionId = new MissionId(UUID.randomUUID());
+        Rocket dragon = new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(missionId).start();
+        Mission ended = new Mission(missionId, "Mars", List.of(dragon)).start(List.of(dragon)).end();
+
+        assertThrows(InvalidObjectStateException.class, () -> ended.start(List.of(dragon)));
+    }
+
     @Test
     public void create_mission_with_invalid_name_and_throw_InvalidObjectStateException() {
         assertThrows(InvalidObjectStateException.class, () -> {
@@ -0,0 +1,51 @@
+package com.six.spacex.domain;
+
+import org.junit.Test;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NameInternerTest {
+
+    @Test
+    public void equal_names_share_one_instance() {
+        NameInterner names = new NameInterner();
+        String dragon = names.intern(new String("Dragon"));
+
+        assertSame(dragon, names.intern(new String("Dragon")));
+        assertNotSame(dragon, names.intern(new String("Falcon")));
+        assertEquals(2, names.size());
+    }
+
+    @Test
+    public void invalid_names_are_not_kept() {
+        NameInterner names = new NameInterner();
+
+        assertNull(names.intern(null));
+        assertEquals(" ", names.intern(" "));
+        assertEquals(0, names.size());
+    }
+
+    @Test
+    public void cleared_names_are_dropped() {
+        List<Reference<String>> references = new ArrayList<>();
+        NameInterner names = new NameInterner((name, queue) -> {
+            Reference<String> reference = new WeakReference<>(name, queue);
+            references.add(reference);
+            return reference;
+        });
+        String dragon = names.intern(new String("Dragon"));
+        String falcon = names.intern(new String("Falcon"));
+
+        references.get(0).enqueue();
+
+        assertEquals(1, names.size());
+        assertSame(falcon, names.intern(new String("Falcon")));
+        assertNotSame(dragon, names.intern(new String("Dragon")));
+        assertEquals(2, names.size());
+    }
+}
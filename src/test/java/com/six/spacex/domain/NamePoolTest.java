@@ -0,0 +1,45 @@
+package com.six.spacex.domain;
+
+import org.junit.Test;
+
+import java.util.OptionalInt;
+
+import static org.junit.Assert.*;
+
+public class NamePoolTest {
+
+    @Test
+    public void equal_names_share_one_instance_and_id() {
+        NamePool pool = new NamePool(16);
+        String dragon = pool.intern(new String("Dragon"));
+        String falcon = pool.intern(new String("Falcon"));
+
+        assertSame(dragon, pool.intern(new String("Dragon")));
+        assertEquals(OptionalInt.of(0), pool.idOf(new String("Dragon")));
+        assertEquals(OptionalInt.of(1), pool.idOf("Falcon"));
+        assertSame(falcon, pool.nameOf(1));
+        assertEquals(2, pool.size());
+        assertThrows(IllegalArgumentException.class, () -> pool.nameOf(2));
+    }
+
+    @Test
+    public void full_pool_passes_new_names_through() {
+        NamePool pool = new NamePool(1);
+        pool.intern("Dragon");
+        String falcon = new String("Falcon");
+
+        assertSame(falcon, pool.intern(falcon));
+        assertEquals(OptionalInt.empty(), pool.idOf(falcon));
+        assertEquals(OptionalInt.of(0), pool.idOf("Dragon"));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void ids_grow_past_one_chunk() {
+        NamePool pool = new NamePool(Integer.MAX_VALUE);
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(OptionalInt.of(i), pool.idOf("Rocket " + i));
+        }
+        assertEquals("Rocket 4321", pool.nameOf(4_321));
+    }
+}
@@ -107,4 +107,18 @@ public class RocketTest {
         Rocket rocket = new Rocket(new RocketId(UUID.randomUUID()), "Dragon 2");
         assertSame(RocketStatus.ON_GROUND, rocket.getStatus());
     }
+
+    @Test
+    public void rocket_tries_to_start_without_mission_and_gets_rejection() {
+        Rocket onGround = new Rocket(new RocketId(UUID.randomUUID()), "Dragon 2");
+
+        TransitionResult<Rocket> rejected = onGround.tryStart();
+        assertTrue(rejected.isRejected());
+        assertTrue(rejected.getReason().startsWith("Rocket cannot go to space because there is no mission"));
+        assertTrue(rejected.toException().getStackTrace().length > 0);
+
+        TransitionResult<Rocket> started = onGround.assignToMission(new MissionId(UUID.randomUUID())).tryStart();
+        assertTrue(started.isSuccess());
+        assertSame(RocketStatus.IN_SPACE, started.orElseThrow().getStatus());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.six.spacex.domain.collection;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PersistentHashMapTest {
+
+    @Test
+    public void old_versions_stay_unchanged_after_plus_and_minus() {
+        PersistentHashMap<Integer, String> empty = PersistentHashMap.empty();
+        PersistentHashMap<Integer, String> one = empty.plus(1, "one");
+        PersistentHashMap<Integer, String> two = one.plus(2, "two");
+        PersistentHashMap<Integer, String> replaced = two.plus(1, "uno");
+        PersistentHashMap<Integer, String> removed = replaced.minus(2);
+
+        assertTrue(empty.isEmpty());
+        assertEquals(Map.of(1, "one"), one);
+        assertEquals(Map.of(1, "one", 2, "two"), two);
+        assertEquals(Map.of(1, "uno", 2, "two"), replaced);
+        assertEquals(Map.of(1, "uno"), removed);
+        assertSame(two, two.plus(2, two.get(2)));
+        assertSame(two, two.minus(3));
+        assertThrows(UnsupportedOperationException.class, () -> two.put(3, "three"));
+    }
+
+    @Test
+    public void behaves_like_hash_map_with_many_and_colliding_keys() {
+        Random random = new Random(42);
+        Map<Key, Integer> expected = new HashMap<>();
+        PersistentHashMap<Key, Integer> actual = PersistentHashMap.empty();
+        for (int i = 0; i < 20_000; i++) {
+            Key key = new Key(random.nextInt(5_000));
+            if (random.nextInt(4) == 0) {
+                expected.remove(key);
+                actual = actual.minus(key);
+            } else {
+                expected.put(key, i);
+                actual = actual.plus(key, i);
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual);
+        assertEquals(expected.entrySet(), actual.entrySet());
+        for (Key key: expected.keySet()) {
+            assertEquals(expected.get(key), actual.get(key));
+        }
+
+        for (Key key: expected.keySet()) {
+            actual = actual.minus(key);
+        }
+        assertTrue(actual.isEmpty());
+        assertFalse(actual.entrySet().iterator().hasNext());
+    }
+
+    private record Key(int value) {
+
+        /**
+         * Every third key has the same hash, so they end up in a collision node.
+         */
+        @Override
+        public int hashCode() {
+            return value % 3 == 0 ? 7 : value * 0x9E3779B9;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.six.spacex.domain.collection;
+
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class UuidHashMapTest {
+
+    @Test
+    public void behaves_like_hash_map_with_removals_and_growth() {
+        Random random = new Random(42);
+        List<RocketId> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            ids.add(new RocketId(new UUID(random.nextLong(), random.nextLong())));
+        }
+        Map<RocketId, Integer> expected = new HashMap<>();
+        UuidHashMap<RocketId, Integer> actual = new UuidHashMap<>(RocketId::new);
+        for (int i = 0; i < 50_000; i++) {
+            RocketId id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), actual.remove(id));
+            } else {
+                assertEquals(expected.put(id, i), actual.put(id, i));
+            }
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(actual.values()));
+        ids.forEach(id -> assertEquals(expected.get(id), actual.get(id)));
+    }
+
+    @Test
+    public void ids_of_other_types_are_not_found() {
+        UUID uuid = UUID.randomUUID();
+        UuidHashMap<RocketId, String> map = new UuidHashMap<>(RocketId::new);
+        map.put(new RocketId(uuid), "Dragon");
+
+        assertEquals("Dragon", map.get(new RocketId(uuid)));
+        assertNull(map.get(new MissionId(uuid)));
+        assertNull(map.remove(new MissionId(uuid)));
+        assertNull(map.get(uuid));
+        assertThrows(NullPointerException.class, () -> map.put(new RocketId(uuid), null));
+    }
+
+    @Test
+    public void readers_see_every_entry_while_the_table_grows() throws Exception {
+        UuidHashMap<RocketId, Integer> map = new UuidHashMap<>(RocketId::new);
+        List<RocketId> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(new RocketId(UUID.randomUUID()));
+        }
+        map.put(ids.get(0), 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 1; i < ids.size(); i++) {
+                    map.put(ids.get(i), i);
+                }
+            });
+            Future<Integer> reader = executor.submit(() -> {
+                int misses = 0;
+                while (!writer.isDone()) {
+                    if (map.get(ids.get(0)) == null) {
+                        misses++;
+                    }
+                }
+                return misses;
+            });
+            writer.get();
+            assertEquals(0, (int) reader.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(ids.size(), map.size());
+    }
+
+    @Test
+    public void concurrent_writers_of_different_keys_lose_no_entry() throws Exception {
+        UuidHashMap<RocketId, Integer> map = new UuidHashMap<>(RocketId::new, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<RocketId>>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    List<RocketId> written = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        RocketId id = new RocketId(UUID.randomUUID());
+                        map.put(id, i);
+                        written.add(id);
+                    }
+                    return written;
+                }));
+            }
+            for (Future<List<RocketId>> writer: writers) {
+                writer.get().forEach(id -> assertNotNull(map.get(id)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(80_000, map.size());
+        assertEquals(80_000, map.entrySet().stream().count());
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+}
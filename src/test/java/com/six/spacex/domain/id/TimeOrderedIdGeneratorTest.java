@@ -0,0 +1,38 @@
+package com.six.spacex.domain.id;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TimeOrderedIdGeneratorTest {
+
+    @Test
+    public void ids_are_version_7_with_the_creation_time() {
+        Instant now = Instant.parse("2026-10-18T10:15:30.123Z");
+        UUID id = new TimeOrderedIdGenerator(InstantSource.fixed(now)).next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(now.toEpochMilli(), id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    public void ids_sort_by_creation_millisecond_and_do_not_repeat() {
+        Instant now = Instant.now();
+        UUID earlier = new TimeOrderedIdGenerator(InstantSource.fixed(now)).next();
+        UUID later = new TimeOrderedIdGenerator(InstantSource.fixed(now.plusMillis(1))).next();
+        assertTrue(earlier.compareTo(later) < 0);
+
+        IdGenerator generator = new TimeOrderedIdGenerator(InstantSource.fixed(now));
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(ids.add(generator.next()));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.six.spacex.event;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.ObservableRepository;
+import com.six.spacex.repository.ObservableRocketRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.StripedLock;
+import com.six.spacex.repository.transaction.StripedTransactionManager;
+import com.six.spacex.service.facade.DefaultSpaceXFacade;
+import com.six.spacex.service.mission.DefaultMissionService;
+import com.six.spacex.service.rocket.DefaultRocketService;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class EventPublisherTest {
+
+    @Test
+    public void facade_changes_are_published_as_events() {
+        StripedLock locks = new StripedLock();
+        ObservableRepository<MissionId, Mission> missions = new ObservableRepository<>(
+                new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks), locks
+        );
+        ObservableRocketRepository rockets = new ObservableRocketRepository(
+                new RocketInMemoryRepository(new ConcurrentHashMap<>(), locks), locks
+        );
+        DefaultSpaceXFacade facade = new DefaultSpaceXFacade(
+                new DefaultMissionService(missions), new DefaultRocketService(rockets),
+                new StripedTransactionManager(missions, rockets, locks)
+        );
+        EventRing<SpaceXEvent>.Subscription subscription = new EventPublisher().attach(missions, rockets).subscribe();
+
+        Mission mars = facade.addMission("Mars", List.of());
+        Rocket dragon = facade.addRocket("Dragon");
+        facade.assignRocketsToMission(mars.getId(), List.of(dragon.getId()));
+        facade.startRocket(dragon.getId());
+
+        List<SpaceXEvent> events = new ArrayList<>();
+        List<Boolean> endOfBatch = new ArrayList<>();
+        subscription.poll((event, sequence, last) -> {
+            events.add(event);
+            endOfBatch.add(last);
+        }, 100);
+
+        assertEquals(List.of(
+                new MissionAdded(mars.getId(), "Mars", MissionStatus.SCHEDULED, 0, 0),
+                new RocketAdded(dragon.getId(), "Dragon", RocketStatus.ON_GROUND, 0),
+                new RocketAssigned(dragon.getId(), Optional.empty(), mars.getId(), 1),
+                new MissionRocketsAssigned(mars.getId(), 0, 1, 1),
+                new RocketStatusChanged(dragon.getId(), RocketStatus.ON_GROUND, RocketStatus.IN_SPACE, 2),
+                new MissionStatusChanged(mars.getId(), MissionStatus.SCHEDULED, MissionStatus.IN_PROGRESS, 2)
+        ), events);
+        assertEquals(List.of(false, false, false, false, false, true), endOfBatch);
+        assertEquals(0, subscription.poll((event, sequence, last) -> fail(), 100));
+    }
+
+    @Test
+    public void subscribers_skip_overwritten_events_and_read_the_rest_in_order() throws Exception {
+        EventRing<Long> ring = new EventRing<>(1 << 16);
+        List<EventRing<Long>.Subscription> subscriptions = List.of(ring.subscribe(), ring.subscribe());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int producer = 0; producer < 4; producer++) {
+                long id = producer;
+                producers.add(executor.submit(() -> {
+                    for (long i = 0; i < 25_000; i++) {
+                        ring.publish(id << 32 | i);
+                    }
+                }));
+            }
+            for (Future<?> producer: producers) {
+                producer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (EventRing<Long>.Subscription subscription: subscriptions) {
+            assertEquals(100_000, subscription.getLag());
+            long[] lastByProducer = {-1, -1, -1, -1};
+            int read = subscription.poll((event, sequence, last) -> {
+                int producer = (int) (event >>> 32);
+                assertTrue(lastByProducer[producer] < (event & 0xFFFFFFFFL));
+                lastByProducer[producer] = event & 0xFFFFFFFFL;
+            }, Integer.MAX_VALUE);
+            assertEquals(65_536, read);
+            assertEquals(100_000 - 65_536, subscription.getLost());
+        }
+
+        EventRing<Long> small = new EventRing<>(4);
+        EventRing<Long>.Subscription lagging = small.subscribe();
+        for (long i = 0; i < 10; i++) {
+            small.publish(i);
+        }
+        List<Long> read = new ArrayList<>();
+        lagging.poll((event, sequence, last) -> read.add(event), 100);
+        assertEquals(List.of(6L, 7L, 8L, 9L), read);
+        assertEquals(6, lagging.getLost());
+        assertEquals(0, lagging.getLag());
+    }
+}
@@ -0,0 +1,44 @@
+package com.six.spacex.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void percentiles_are_within_the_bucket_precision() {
+        Histogram histogram = new Histogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(50_000_500, histogram.getMean(), 1);
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 / 32);
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 / 32);
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void buckets_cover_the_range_without_gaps() {
+        for (int index = 1; index < Histogram.indexOf(Histogram.MAX_VALUE); index++) {
+            long highest = Histogram.highestOf(index);
+            assertEquals(index, Histogram.indexOf(highest));
+            assertEquals(index + 1, Histogram.indexOf(highest + 1));
+        }
+    }
+
+    @Test
+    public void empty_histogram_and_out_of_range_values() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(Histogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+    }
+}
@@ -0,0 +1,124 @@
+package com.six.spacex.metrics;
+
+import com.six.spacex.domain.InvalidObjectStateException;
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.repository.CrudRepository;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.RocketRepository;
+import com.six.spacex.service.facade.DefaultSpaceXFacade;
+import com.six.spacex.service.facade.SpaceXFacade;
+import com.six.spacex.service.mission.DefaultMissionService;
+import com.six.spacex.service.rocket.DefaultRocketService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InstrumentedSpaceXFacadeTest {
+
+    private static final String NO_MISSION = "Rocket cannot go to space because there is no mission. Rocket: {0}";
+
+    @Test
+    public void facade_services_and_repositories_are_timed() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        SpaceXFacade facade = facade(registry);
+
+        Rocket dragon = facade.addRocket("Dragon");
+        facade.addMission("Mars", List.of());
+        facade.repairRocket(dragon.getId());
+        facade.getMissionsSortedBy(Comparator.comparing(Mission::getName));
+
+        Map<String, Histogram> timers = registry.getTimers();
+        assertEquals(1, timers.get("facade.addRocket").getCount());
+        assertEquals(1, timers.get("facade.repairRocket").getCount());
+        assertEquals(1, timers.get("facade.getMissionsSortedBy").getCount());
+        assertEquals(1, timers.get("rocketService.save").getCount());
+        assertTrue(timers.get("rockets.get").getCount() > 0);
+        assertEquals(Map.of("missions.size", 1L, "rockets.size", 1L), registry.getGauges());
+    }
+
+    @Test
+    public void rejections_are_counted_by_cause() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        SpaceXFacade facade = facade(registry);
+        Rocket dragon = facade.addRocket("Dragon");
+        Rocket falcon = facade.addRocket("Falcon");
+
+        assertThrows(InvalidObjectStateException.class, () -> facade.startRocket(dragon.getId()));
+        assertThrows(InvalidObjectStateException.class, () -> facade.startRocket(falcon.getId()));
+
+        assertEquals(Map.of(NO_MISSION, 2L), registry.getRejections("facade.startRocket"));
+        assertEquals(2, registry.getTimers().get("facade.startRocket").getCount());
+        assertEquals(Map.of(), registry.getRejections("facade.addRocket"));
+    }
+
+    @Test
+    public void disabled_metrics_leave_components_undecorated() {
+        SpaceXFacade facade = new DefaultSpaceXFacade(
+                new DefaultMissionService(new MissionInMemoryRepository()),
+                new DefaultRocketService(new RocketInMemoryRepository())
+        );
+        RocketRepository rockets = new RocketInMemoryRepository();
+
+        assertSame(facade, InstrumentedSpaceXFacade.instrument(facade, MetricsRegistry.NOOP));
+        assertSame(rockets, InstrumentedRocketRepository.instrument(rockets, MetricsRegistry.NOOP, "rockets"));
+    }
+
+    @Test
+    public void operations_are_recorded_as_jfr_events() throws Exception {
+        Path file = Files.createTempFile("spacex", ".jfr");
+        try (JfrMetricsRegistry registry = new JfrMetricsRegistry(); Recording recording = new Recording()) {
+            recording.enable("com.six.spacex.Operation");
+            recording.enable("com.six.spacex.Rejection");
+            recording.start();
+            SpaceXFacade facade = InstrumentedSpaceXFacade.instrument(
+                    new DefaultSpaceXFacade(
+                            new DefaultMissionService(new MissionInMemoryRepository()),
+                            new DefaultRocketService(new RocketInMemoryRepository())
+                    ),
+                    registry
+            );
+            Rocket dragon = facade.addRocket("Dragon");
+            assertThrows(InvalidObjectStateException.class, () -> facade.startRocket(dragon.getId()));
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(List.of("facade.addRocket", "facade.startRocket"), events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.six.spacex.Operation"))
+                    .map(event -> event.getString("operation"))
+                    .sorted()
+                    .toList());
+            assertEquals(List.of(NO_MISSION), events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.six.spacex.Rejection"))
+                    .map(event -> event.getString("cause"))
+                    .toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static SpaceXFacade facade(MetricsRegistry registry) {
+        CrudRepository<MissionId, Mission> missions =
+                InstrumentedRepository.instrument(new MissionInMemoryRepository(), registry, "missions");
+        RocketRepository rockets = InstrumentedRocketRepository.instrument(new RocketInMemoryRepository(), registry, "rockets");
+        return InstrumentedSpaceXFacade.instrument(
+                new DefaultSpaceXFacade(
+                        InstrumentedMissionService.instrument(new DefaultMissionService(missions), registry),
+                        InstrumentedRocketService.instrument(new DefaultRocketService(rockets), registry)
+                ),
+                registry
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class ObservableRepositoryTest {
+
+    private static final Comparator<Mission> ORDER = Mission.BY_ROCKET_COUNT_DESC_THEN_NAME
+            .thenComparing(mission -> mission.getId().value());
+
+    @Test
+    public void pages_from_index_and_from_heap_follow_full_sort() {
+        StripedLock locks = new StripedLock();
+        MissionInMemoryRepository missions = new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks);
+        ObservableRepository<MissionId, Mission> repository = new ObservableRepository<>(missions, locks);
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            repository.save(mission("Mission " + random.nextInt(50), random.nextInt(6)));
+        }
+        SortedIndex<Mission> index = repository.addIndex(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME);
+        assertEquals(300, index.size());
+
+        Mission grown = repository.getAll().get(0);
+        Rocket extra = new Rocket(new RocketId(UUID.randomUUID()), "Extra").assignToMission(grown.getId());
+        repository.save(grown.assignRockets(List.of(extra)));
+
+        List<Mission> sorted = repository.getAll().stream().sorted(ORDER).toList();
+        assertEquals(sorted.subList(0, 50), repository.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.first(50)).toList());
+        assertEquals(sorted.subList(100, 150), repository.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.of(100, 50)).toList());
+        assertEquals(sorted.subList(0, 50), missions.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.first(50)).toList());
+        assertEquals(sorted.subList(100, 150), missions.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.of(100, 50)).toList());
+
+        for (CrudRepository<MissionId, Mission> pages: List.of(repository, missions)) {
+            List<Mission> read = new ArrayList<>();
+            List<Mission> page = pages.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.first(40)).toList();
+            while (!page.isEmpty()) {
+                read.addAll(page);
+                page = pages.query(Mission.BY_ROCKET_COUNT_DESC_THEN_NAME, PageRequest.after(page.get(page.size() - 1), 40))
+                        .toList();
+            }
+            assertEquals(sorted, read);
+        }
+    }
+
+    @Test
+    public void listener_gets_previous_and_saved_version() {
+        StripedLock locks = new StripedLock();
+        ObservableRepository<MissionId, Mission> repository = new ObservableRepository<>(
+                new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks), locks
+        );
+        List<Mission> previous = new ArrayList<>();
+        repository.addListener((before, after) -> previous.add(before));
+
+        Mission mars = repository.save(mission("Mars", 1));
+        Rocket extra = new Rocket(new RocketId(UUID.randomUUID()), "Extra").assignToMission(mars.getId());
+        repository.update(mars.getId(), mission -> mission.assignRockets(List.of(extra)));
+
+        assertEquals(2, previous.size());
+        assertNull(previous.get(0));
+        assertSame(mars, previous.get(1));
+    }
+
+    private static Mission mission(String name, int rockets) {
+        MissionId missionId = new MissionId(UUID.randomUUID());
+        List<Rocket> assigned = new ArrayList<>();
+        for (int i = 0; i < rockets; i++) {
+            assigned.add(new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + i).assignToMission(missionId));
+        }
+        return new Mission(missionId, name, assigned);
+    }
+}
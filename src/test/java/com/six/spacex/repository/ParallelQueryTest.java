@@ -0,0 +1,73 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.service.mission.DefaultMissionService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ParallelQueryTest {
+
+    private static final Comparator<Mission> BY_NAME = Comparator.comparing(Mission::getName);
+
+    private MissionInMemoryRepository repository;
+    private ForkJoinPool pool;
+
+    @Before
+    public void init() {
+        repository = new MissionInMemoryRepository();
+        for (int i = 0; i < 20_000; i++) {
+            // few distinct names, so most of the order comes from the ID tie-break
+            repository.save(new Mission(new MissionId(UUID.randomUUID()), "Mission " + i % 100, List.of()));
+        }
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void close() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void parallel_pages_equal_sequential_pages() {
+        ParallelQuery parallel = new ParallelQuery(pool, 0);
+        ParallelQuery sequential = ParallelQuery.sequential();
+        Mission cursor = repository.query(BY_NAME, PageRequest.of(12_345, 1)).findFirst().orElseThrow();
+
+        List<PageRequest<Mission>> pages = List.of(
+                PageRequest.all(), PageRequest.first(50), PageRequest.of(9_990, 20), PageRequest.after(cursor, 100)
+        );
+        for (PageRequest<Mission> page: pages) {
+            assertEquals(sequential.query(repository, BY_NAME, page).toList(),
+                    parallel.query(repository, BY_NAME, page).toList());
+        }
+    }
+
+    @Test
+    public void page_with_zero_limit_is_empty() {
+        ParallelQuery parallel = new ParallelQuery(pool, 0);
+        ParallelQuery sequential = ParallelQuery.sequential();
+
+        assertEquals(List.of(), sequential.query(repository, BY_NAME, PageRequest.first(0)).toList());
+        assertEquals(List.of(), parallel.query(repository, BY_NAME, PageRequest.first(0)).toList());
+        assertEquals(List.of(), repository.query(BY_NAME, PageRequest.first(0)).toList());
+    }
+
+    @Test
+    public void service_queries_in_the_given_mode() {
+        DefaultMissionService sequential = new DefaultMissionService(repository);
+        DefaultMissionService parallel = new DefaultMissionService(repository, 5, new ParallelQuery(pool, 1_000));
+
+        assertEquals(sequential.getAll(BY_NAME.reversed()), parallel.getAll(BY_NAME.reversed()));
+        assertEquals(sequential.query(BY_NAME, PageRequest.of(100, 10)).toList(),
+                parallel.query(BY_NAME, PageRequest.of(100, 10)).toList());
+    }
+}
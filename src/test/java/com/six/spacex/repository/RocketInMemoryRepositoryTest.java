@@ -0,0 +1,116 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class RocketInMemoryRepositoryTest {
+
+    @Test
+    public void get_rockets_by_mission_id_follows_reassignment() {
+        RocketInMemoryRepository repository = new RocketInMemoryRepository(new HashMap<>());
+        MissionId mars = new MissionId(UUID.randomUUID());
+        MissionId luna = new MissionId(UUID.randomUUID());
+
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(mars));
+        Rocket falcon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon").assignToMission(mars));
+        repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Starship"));
+        assertEquals(2, repository.getByMissionId(mars).size());
+
+        Rocket dragonOnLuna = repository.save(dragon.assignToMission(luna));
+        assertEquals(List.of(falcon), repository.getByMissionId(mars));
+        assertEquals(List.of(dragonOnLuna), repository.getByMissionId(luna));
+
+        Rocket falconInRepair = repository.save(falcon.repair());
+        assertEquals(List.of(falconInRepair), repository.getByMissionId(mars));
+    }
+
+    @Test
+    public void save_all_stores_nothing_when_one_rocket_is_stale() {
+        RocketInMemoryRepository repository = new RocketInMemoryRepository(new HashMap<>());
+        MissionId mars = new MissionId(UUID.randomUUID());
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        Rocket falcon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon"));
+        repository.save(falcon.repair());
+
+        assertThrows(StaleObjectException.class,
+                () -> repository.saveAll(List.of(dragon.assignToMission(mars), falcon.assignToMission(mars))));
+        assertEquals(dragon, repository.get(dragon.getId()).orElseThrow());
+        assertEquals(List.of(), repository.getByMissionId(mars));
+    }
+
+    @Test
+    public void index_rockets_which_are_already_in_the_map() {
+        MissionId mars = new MissionId(UUID.randomUUID());
+        Rocket dragon = new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(mars);
+        Map<RocketId, Rocket> rockets = new HashMap<>(Map.of(dragon.getId(), dragon));
+
+        RocketInMemoryRepository repository = new RocketInMemoryRepository(rockets);
+
+        assertEquals(List.of(dragon), repository.getByMissionId(mars));
+        assertTrue(repository.getByMissionId(new MissionId(UUID.randomUUID())).isEmpty());
+    }
+
+    @Test
+    public void concurrent_updates_of_one_rocket_are_serialized() throws Exception {
+        RocketInMemoryRepository repository = new RocketInMemoryRepository();
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        int[] applied = new int[1];
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        repository.update(dragon.getId(), rocket -> {
+                            applied[0]++;
+                            return rocket.getStatus() == RocketStatus.ON_GROUND ? rocket.repair() : rocket.onGround();
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future: futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(8000, applied[0]);
+        assertSame(RocketStatus.ON_GROUND, repository.get(dragon.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void update_missing_rocket_returns_empty() {
+        RocketInMemoryRepository repository = new RocketInMemoryRepository();
+
+        assertTrue(repository.update(new RocketId(UUID.randomUUID()), Rocket::repair).isEmpty());
+    }
+
+    @Test
+    public void save_stale_rocket_and_throw_StaleObjectException() {
+        RocketInMemoryRepository repository = new RocketInMemoryRepository();
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+
+        Rocket inRepair = repository.save(dragon.repair());
+        assertEquals(1, inRepair.getVersion());
+
+        assertThrows(StaleObjectException.class, () -> repository.save(dragon.repair()));
+        assertThrows(StaleObjectException.class, () -> repository.save(inRepair.onGround().repair()));
+        assertSame(inRepair, repository.get(dragon.getId()).orElseThrow());
+    }
+}
@@ -0,0 +1,121 @@
+package com.six.spacex.repository;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.transaction.StripedTransactionManager;
+import com.six.spacex.service.facade.DefaultSpaceXFacade;
+import com.six.spacex.service.mission.DefaultMissionService;
+import com.six.spacex.service.rocket.DefaultRocketService;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class ShardedRepositoryTest {
+
+    private static final int SHARDS = 8;
+
+    @Test
+    public void reassigned_rocket_moves_to_the_shard_of_its_new_mission() {
+        ShardedRocketRepository repository = new ShardedRocketRepository(SHARDS);
+        MissionId mars = new MissionId(UUID.randomUUID());
+        MissionId luna = new MissionId(UUID.randomUUID());
+
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        Rocket dragonOnMars = repository.save(dragon.assignToMission(mars));
+        Rocket falcon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon").assignToMission(mars));
+        assertEquals(new HashSet<>(List.of(dragonOnMars, falcon)), new HashSet<>(repository.getByMissionId(mars)));
+
+        Rocket dragonOnLuna = repository.save(dragonOnMars.assignToMission(luna));
+        assertEquals(List.of(falcon), repository.getByMissionId(mars));
+        assertEquals(List.of(dragonOnLuna), repository.getByMissionId(luna));
+        assertEquals(dragonOnLuna, repository.get(dragon.getId()).orElseThrow());
+        assertEquals(2, repository.getAll().size());
+
+        assertThrows(StaleObjectException.class, () -> repository.save(dragonOnMars.repair()));
+        assertEquals(dragonOnLuna, repository.get(dragon.getId()).orElseThrow());
+    }
+
+    @Test
+    public void batch_with_a_stale_object_saves_none_of_it() {
+        ShardedRocketRepository rockets = new ShardedRocketRepository(SHARDS);
+        MissionId mars = new MissionId(UUID.randomUUID());
+        Rocket dragon = rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        Rocket falcon = rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon"));
+        Rocket titan = rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Titan"));
+        Rocket repairedFalcon = rockets.save(falcon.repair());
+
+        assertThrows(StaleObjectException.class, () -> rockets.saveAll(List.of(
+                dragon.assignToMission(mars), falcon.assignToMission(mars), titan.assignToMission(mars)
+        )));
+        assertEquals(dragon, rockets.get(dragon.getId()).orElseThrow());
+        assertEquals(repairedFalcon, rockets.get(falcon.getId()).orElseThrow());
+        assertEquals(titan, rockets.get(titan.getId()).orElseThrow());
+        assertEquals(List.of(), rockets.getByMissionId(mars));
+
+        ShardedMissionRepository missions = new ShardedMissionRepository(SHARDS);
+        Mission luna = missions.save(new Mission(new MissionId(UUID.randomUUID()), "Luna"));
+        Mission venus = missions.save(new Mission(new MissionId(UUID.randomUUID()), "Venus"));
+        Mission saturn = missions.save(new Mission(new MissionId(UUID.randomUUID()), "Saturn"));
+        Mission assignedVenus = missions.save(venus.assignRockets(List.of()));
+
+        assertThrows(StaleObjectException.class, () -> missions.saveAll(List.of(
+                luna.assignRockets(List.of()), venus.assignRockets(List.of()), saturn.assignRockets(List.of())
+        )));
+        assertEquals(luna, missions.get(luna.getId()).orElseThrow());
+        assertEquals(assignedVenus, missions.get(venus.getId()).orElseThrow());
+        assertEquals(saturn, missions.get(saturn.getId()).orElseThrow());
+    }
+
+    @Test
+    public void sorted_pages_are_merged_from_all_shards() {
+        ShardedMissionRepository sharded = new ShardedMissionRepository(SHARDS);
+        MissionInMemoryRepository single = new MissionInMemoryRepository();
+        for (int i = 0; i < 100; i++) {
+            Mission mission = new Mission(new MissionId(UUID.randomUUID()), "Mission " + i % 30, List.of());
+            sharded.save(mission);
+            single.save(mission);
+        }
+        Comparator<Mission> byName = Comparator.comparing(Mission::getName);
+
+        assertEquals(single.query(byName, PageRequest.all()).toList(), sharded.query(byName, PageRequest.all()).toList());
+        assertEquals(single.query(byName, PageRequest.of(35, 20)).toList(), sharded.query(byName, PageRequest.of(35, 20)).toList());
+
+        Mission cursor = single.query(byName, PageRequest.of(49, 1)).findFirst().orElseThrow();
+        assertEquals(single.query(byName, PageRequest.after(cursor, 10)).toList(),
+                sharded.query(byName, PageRequest.after(cursor, 10)).toList());
+        assertEquals(100, sharded.getAll().size());
+    }
+
+    @Test
+    public void facade_runs_transactions_over_sharded_repositories() {
+        StripedLock locks = new StripedLock();
+        ShardedMissionRepository missionRepository = new ShardedMissionRepository(SHARDS, locks);
+        ShardedRocketRepository rocketRepository = new ShardedRocketRepository(SHARDS, locks);
+        DefaultSpaceXFacade facade = new DefaultSpaceXFacade(
+                new DefaultMissionService(missionRepository),
+                new DefaultRocketService(rocketRepository),
+                new StripedTransactionManager(missionRepository, rocketRepository, locks)
+        );
+
+        Mission mars = facade.addMission("Mars", List.of());
+        Rocket dragon = facade.addRocket("Dragon");
+        Rocket falcon = facade.addRocket("Falcon");
+        facade.assignRocketsToMission(mars.getId(), List.of(dragon.getId(), falcon.getId()));
+        facade.startRockets(List.of(dragon.getId(), falcon.getId()));
+
+        Mission inProgress = facade.getMission(mars.getId());
+        assertSame(MissionStatus.IN_PROGRESS, inProgress.getStatus());
+        assertEquals(new HashSet<>(rocketRepository.getByMissionId(mars.getId())),
+                new HashSet<>(inProgress.getRockets().values()));
+        assertTrue(inProgress.getRockets().values().stream().allMatch(rocket -> rocket.getStatus() == RocketStatus.IN_SPACE));
+    }
+}
@@ -0,0 +1,249 @@
+package com.six.spacex.repository.cache;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.collection.UuidHashMap;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.RocketRepository;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.StripedLock;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class CachingRepositoryTest {
+
+    @Test
+    public void frequently_read_missions_survive_a_scan() {
+        StripedLock locks = new StripedLock();
+        AtomicInteger loads = new AtomicInteger();
+        MissionInMemoryRepository delegate = new MissionInMemoryRepository(new UuidHashMap<>(MissionId::new), locks) {
+            @Override
+            public Optional<Mission> get(MissionId id) {
+                loads.incrementAndGet();
+                return super.get(id);
+            }
+        };
+        CachingRepository<MissionId, Mission> cache = new CachingRepository<>(delegate, 5, locks);
+
+        Mission mars = cache.save(new Mission(new MissionId(UUID.randomUUID()), "Mars"));
+        assertEquals(mars, cache.get(mars.getId()).orElseThrow());
+        for (int i = 0; i < 20; i++) {
+            cache.save(new Mission(new MissionId(UUID.randomUUID()), "Scan " + i));
+        }
+        int loaded = loads.get();
+
+        assertEquals(mars, cache.get(mars.getId()).orElseThrow());
+        assertEquals(loaded, loads.get());
+        assertEquals(Optional.empty(), cache.get(new MissionId(UUID.randomUUID())));
+        assertEquals(loaded + 1, loads.get());
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(16, stats.evictions());
+        assertEquals(21, delegate.getAll().size());
+    }
+
+    @Test
+    public void concurrent_writers_of_a_striped_cache_keep_its_capacity() throws Exception {
+        int threads = 8;
+        int perThread = 1000;
+        SegmentedLruCache<MissionId, Mission> cache = new SegmentedLruCache<>(256, 8);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    Mission mission = new Mission(new MissionId(UUID.randomUUID()), "Mission " + i);
+                    cache.put(mission.getId(), mission);
+                    cache.get(mission.getId());
+                }
+            }));
+        }
+        for (Thread writer: writers) {
+            writer.join();
+        }
+
+        assertEquals(256, cache.size());
+        assertEquals(threads * perThread - 256, cache.evictions());
+    }
+
+    @Test
+    public void stale_save_is_rejected_by_the_cache() {
+        StripedLock locks = new StripedLock();
+        CachingRepository<MissionId, Mission> cache = new CachingRepository<>(
+                new MissionInMemoryRepository(new UuidHashMap<>(MissionId::new), locks), 1, locks
+        );
+        Mission mars = new Mission(new MissionId(UUID.randomUUID()), "Mars");
+        cache.save(mars);
+        cache.save(new Mission(new MissionId(UUID.randomUUID()), "Luna"));
+
+        assertThrows(StaleObjectException.class, () -> cache.save(mars));
+    }
+
+    @Test
+    public void repeated_saves_are_coalesced_until_the_flush() {
+        StripedLock locks = new StripedLock();
+        RocketStore store = new RocketStore();
+        MissionId mars = new MissionId(UUID.randomUUID());
+        CachingRocketRepository cache = new CachingRocketRepository(store, 16, locks, Duration.ofHours(1), 100);
+
+        Rocket dragon = cache.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        dragon = cache.save(dragon.repair());
+        dragon = cache.save(dragon.onGround());
+        dragon = cache.save(dragon.assignToMission(mars));
+
+        assertEquals(List.of(dragon), cache.getByMissionId(mars));
+        assertEquals(List.of(dragon), cache.getAll());
+        assertEquals(1, cache.count());
+        assertEquals(0, store.saves.get());
+
+        cache.close();
+        assertEquals(1, store.saves.get());
+        assertEquals(1, cache.count());
+        assertEquals(dragon, store.get(dragon.getId()).orElseThrow());
+        assertEquals(List.of(dragon), cache.getByMissionId(mars));
+        CacheStats stats = cache.stats();
+        assertEquals(4, stats.saves());
+        assertEquals(3, stats.coalescedSaves());
+        assertEquals(1, stats.flushes());
+    }
+
+    @Test
+    public void pending_saves_are_flushed_when_full() throws Exception {
+        RocketStore store = new RocketStore();
+        CachingRocketRepository cache = new CachingRocketRepository(store, 16, new StripedLock(), Duration.ofHours(1), 3);
+
+        for (int i = 0; i < 3; i++) {
+            cache.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon " + i));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (store.getAll().size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(3, store.saves.get());
+        assertEquals(3, store.getAll().size());
+        cache.close();
+    }
+
+    @Test
+    public void failed_flush_keeps_only_rejected_objects_and_fails_saves() {
+        RocketStore store = new RocketStore();
+        CachingRocketRepository cache = new CachingRocketRepository(store, 16, new StripedLock(), Duration.ofHours(1), 100);
+        Rocket dragon = cache.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        Rocket falcon = cache.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon"));
+        store.failing = falcon.getId();
+
+        assertThrows(FlushException.class, cache::flush);
+        assertEquals(dragon, store.get(dragon.getId()).orElseThrow());
+        assertEquals(Map.of(falcon.getId(), falcon), cache.pending());
+        assertEquals(1, cache.stats().flushFailures());
+        assertThrows(FlushException.class, () -> cache.save(dragon.repair()));
+
+        store.failing = null;
+        cache.flush();
+        assertEquals(falcon, store.get(falcon.getId()).orElseThrow());
+        assertEquals(Map.of(), cache.pending());
+        cache.save(dragon.repair());
+        cache.close();
+        assertEquals(3, store.saves.get());
+    }
+
+    @Test
+    public void newest_pending_version_is_flushed_to_a_strict_repository() {
+        StripedLock locks = new StripedLock();
+        RocketInMemoryRepository store = new RocketInMemoryRepository(new UuidHashMap<>(RocketId::new), locks);
+        CachingRocketRepository cache = new CachingRocketRepository(store, 16, locks, Duration.ofHours(1), 100);
+        Rocket dragon = cache.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        cache.flush();
+
+        Rocket repaired = cache.save(dragon.repair());
+        Rocket onGround = cache.save(repaired.onGround());
+        Rocket falcon = cache.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon"));
+        cache.flush();
+
+        assertEquals(onGround, store.get(dragon.getId()).orElseThrow());
+        assertEquals(falcon, store.get(falcon.getId()).orElseThrow());
+        assertEquals(Map.of(), cache.pending());
+        assertEquals(1, cache.stats().coalescedSaves());
+        assertEquals(0, cache.stats().flushFailures());
+        cache.close();
+    }
+
+    @Test
+    public void discarding_pending_objects_recovers_from_a_rejected_flush() {
+        StripedLock locks = new StripedLock();
+        RocketInMemoryRepository store = new RocketInMemoryRepository(new UuidHashMap<>(RocketId::new), locks);
+        CachingRocketRepository cache = new CachingRocketRepository(store, 16, locks, Duration.ofHours(1), 100);
+        Rocket dragon = cache.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        cache.flush();
+        Rocket repaired = cache.save(dragon.repair());
+        // a save past the cache makes the pending version stale
+        Rocket assigned = store.save(dragon.assignToMission(new MissionId(UUID.randomUUID())));
+
+        assertThrows(FlushException.class, cache::flush);
+        assertThrows(FlushException.class, () -> cache.save(repaired.onGround()));
+
+        assertEquals(List.of(repaired), cache.discardPending());
+        assertEquals(assigned, cache.get(dragon.getId()).orElseThrow());
+        Rocket inRepair = cache.save(assigned.repair());
+        cache.flush();
+        assertEquals(inRepair, store.get(dragon.getId()).orElseThrow());
+        cache.close();
+    }
+
+    /**
+     * Store which accepts any newer version, like a table updated by ID.
+     */
+    private static final class RocketStore implements RocketRepository {
+
+        private final Map<RocketId, Rocket> rockets = new ConcurrentHashMap<>();
+        private final AtomicInteger saves = new AtomicInteger();
+        private volatile RocketId failing;
+
+        @Override
+        public List<Rocket> getAll() {
+            return new ArrayList<>(rockets.values());
+        }
+
+        @Override
+        public Optional<Rocket> get(RocketId id) {
+            return Optional.ofNullable(rockets.get(id));
+        }
+
+        @Override
+        public Rocket save(Rocket rocket) {
+            if (rocket.getId().equals(failing)) {
+                throw new IllegalStateException("Store is down");
+            }
+            saves.incrementAndGet();
+            rockets.put(rocket.getId(), rocket);
+            return rocket;
+        }
+
+        @Override
+        public Optional<Rocket> update(RocketId id, Function<Rocket, Rocket> operation) {
+            return get(id).map(operation).map(this::save);
+        }
+
+        @Override
+        public List<Rocket> getByMissionId(MissionId missionId) {
+            return rockets.values().stream().filter(rocket -> rocket.getMissionId().equals(Optional.of(missionId))).toList();
+        }
+    }
+}
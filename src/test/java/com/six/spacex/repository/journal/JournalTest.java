@@ -0,0 +1,141 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.codec.Codec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class JournalTest {
+
+    private static final long BLOCKING = 0;
+    private static final long FAILING = -1;
+    private static final String NEXT_SEGMENT = "segment-00000000000000000001.log";
+
+    private final CountDownLatch encoding = new CountDownLatch(1);
+    private final CountDownLatch grouped = new CountDownLatch(1);
+    private Path directory;
+
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file: files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void records_of_a_failed_group_are_not_replayed() throws IOException {
+        try (Journal<Long> journal = journal(FsyncPolicy.BATCH)) {
+            // the group is written, then the rotation after it fails as the next segment cannot be opened
+            Path blocker = Files.createDirectory(directory.resolve(NEXT_SEGMENT));
+            assertThrows(CompletionException.class, () -> journal.append(1L).join());
+            Files.delete(blocker);
+            journal.append(2L).join();
+        }
+        assertEquals(List.of(2L), replay());
+    }
+
+    @Test
+    public void records_forced_before_the_failure_of_their_group_are_kept() throws IOException {
+        try (Journal<Long> journal = journal(FsyncPolicy.PER_WRITE)) {
+            Path blocker = Files.createDirectory(directory.resolve(NEXT_SEGMENT));
+            journal.append(5L).join();
+            Files.delete(blocker);
+            journal.append(6L).join();
+        }
+        assertEquals(List.of(5L, 6L), replay());
+    }
+
+    @Test
+    public void object_which_cannot_be_encoded_fails_alone() throws InterruptedException {
+        try (Journal<Long> journal = journal(FsyncPolicy.BATCH)) {
+            CompletableFuture<Long> blocking = journal.append(BLOCKING);
+            encoding.await();
+            CompletableFuture<Long> before = journal.append(3L);
+            CompletableFuture<Long> failing = journal.append(FAILING);
+            CompletableFuture<Long> after = journal.append(4L);
+            grouped.countDown();
+
+            blocking.join();
+            before.join();
+            assertThrows(CompletionException.class, failing::join);
+            after.join();
+        }
+        assertEquals(List.of(BLOCKING, 3L, 4L), replay());
+    }
+
+    @Test
+    public void batch_is_replayed_whole_or_not_at_all() {
+        try (Journal<Long> journal = journal(FsyncPolicy.BATCH)) {
+            assertThrows(CompletionException.class, () -> journal.appendAll(List.of(7L, FAILING)).join());
+            journal.appendAll(List.of(8L, 9L)).join();
+            journal.append(10L).join();
+        }
+        assertEquals(List.of(8L, 9L, 10L), replay());
+    }
+
+    private Journal<Long> journal(FsyncPolicy fsyncPolicy) {
+        return new Journal<>(directory, new LongCodec(), fsyncPolicy, Duration.ofMillis(10), 1);
+    }
+
+    private List<Long> replay() {
+        List<Long> replayed = new ArrayList<>();
+        try (Journal<Long> journal = new Journal<>(directory, new LongCodec(), FsyncPolicy.BATCH)) {
+            journal.replay(0, replayed::add);
+        }
+        return replayed;
+    }
+
+    /**
+     * The first object is written alone and waits until the next ones are queued, so they are written as one group.
+     */
+    private final class LongCodec implements Codec<Long> {
+
+        @Override
+        public int encodedSize(Long value) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long value, ByteBuffer buffer) {
+            if (value == BLOCKING) {
+                encoding.countDown();
+                try {
+                    grouped.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (value == FAILING) {
+                throw new IllegalStateException("Cannot encode " + value);
+            }
+            buffer.putLong(value);
+        }
+
+        @Override
+        public Long decode(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    }
+}
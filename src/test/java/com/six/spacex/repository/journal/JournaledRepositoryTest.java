@@ -0,0 +1,197 @@
+package com.six.spacex.repository.journal;
+
+import com.six.spacex.codec.MissionCodec;
+import com.six.spacex.codec.RocketCodec;
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.StripedLock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class JournaledRepositoryTest {
+
+    private Path directory;
+
+    @Before
+    public void init() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file: files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void rebuild_rockets_and_missions_from_journal() {
+        Path rocketsDirectory = directory.resolve("rockets");
+        Path missionsDirectory = directory.resolve("missions");
+        for (FsyncPolicy fsyncPolicy: FsyncPolicy.values()) {
+            MissionId missionId = new MissionId(UUID.randomUUID());
+            Rocket dragon;
+            Mission mars;
+            try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, fsyncPolicy);
+                 JournaledRepository<MissionId, Mission> missions = missionRepository(missionsDirectory, fsyncPolicy)) {
+                Rocket created = rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+                dragon = rockets.save(created.assignToMission(missionId));
+                Mission scheduled = missions.save(new Mission(missionId, "Mars"));
+                mars = missions.saveAll(List.of(scheduled.assignRockets(List.of(dragon)))).get(0);
+            }
+
+            try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, fsyncPolicy);
+                 JournaledRepository<MissionId, Mission> missions = missionRepository(missionsDirectory, fsyncPolicy)) {
+                assertEquals(dragon, rockets.get(dragon.getId()).orElseThrow());
+                assertEquals(List.of(dragon), rockets.getByMissionId(missionId));
+                assertEquals(mars, missions.get(missionId).orElseThrow());
+            }
+        }
+    }
+
+    @Test
+    public void ignore_torn_record_at_the_end_of_journal() throws IOException {
+        Path rocketsDirectory = directory.resolve("rockets");
+        Rocket dragon;
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            dragon = rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+            rockets.save(dragon.repair());
+        }
+        try (FileChannel channel = FileChannel.open(onlyFile(rocketsDirectory), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            assertEquals(dragon, rockets.get(dragon.getId()).orElseThrow());
+            Rocket repaired = rockets.save(dragon.repair());
+            assertEquals(repaired, rockets.get(dragon.getId()).orElseThrow());
+        }
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            assertEquals(1, rockets.get(dragon.getId()).orElseThrow().getVersion());
+        }
+    }
+
+    @Test
+    public void replay_a_record_which_skips_versions() {
+        Path rocketsDirectory = directory.resolve("rockets");
+        Rocket onGround;
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            Rocket created = rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+            Rocket skipping = created.repair().onGround();
+            assertThrows(StaleObjectException.class, () -> rockets.saveAll(List.of(skipping)));
+            onGround = rockets.saveAll(List.of(skipping), rocket -> created.getVersion()).get(0);
+        }
+
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            assertEquals(onGround, rockets.get(onGround.getId()).orElseThrow());
+        }
+    }
+
+    @Test
+    public void restore_from_snapshot_and_journal_tail_and_compact_covered_segments() throws IOException {
+        Path rocketsDirectory = directory.resolve("rockets");
+        List<Rocket> saved = new ArrayList<>();
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            for (int i = 0; i < 100; i++) {
+                Rocket created = rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + i));
+                saved.add(rockets.save(created.repair()));
+            }
+            rockets.snapshot();
+            for (int i = 0; i < 10; i++) {
+                saved.set(i, rockets.save(saved.get(i).onGround()));
+            }
+        }
+
+        try (Stream<Path> files = Files.list(rocketsDirectory)) {
+            assertEquals(
+                    List.of("segment-00000000000000000001.log", "snapshot-00000000000000000001.snap"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList()
+            );
+        }
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            assertEquals(new HashSet<>(saved), new HashSet<>(rockets.getAll()));
+        }
+    }
+
+    @Test
+    public void corrupted_latest_snapshot_falls_back_to_the_previous_one() throws IOException {
+        Path rocketsDirectory = directory.resolve("rockets");
+        List<Rocket> saved = new ArrayList<>();
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            for (int i = 0; i < 10; i++) {
+                saved.add(rockets.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + i)));
+            }
+            rockets.snapshot();
+            for (int i = 0; i < 10; i++) {
+                saved.set(i, rockets.save(saved.get(i).repair()));
+            }
+            rockets.snapshot();
+            rockets.snapshot();
+            saved.set(0, rockets.save(saved.get(0).onGround()));
+        }
+        try (Stream<Path> files = Files.list(rocketsDirectory)) {
+            assertEquals(
+                    List.of("segment-00000000000000000002.log", "segment-00000000000000000003.log",
+                            "snapshot-00000000000000000002.snap", "snapshot-00000000000000000003.snap"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList()
+            );
+        }
+        try (FileChannel channel = FileChannel.open(rocketsDirectory.resolve("snapshot-00000000000000000003.snap"),
+                StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (JournaledRocketRepository rockets = rocketRepository(rocketsDirectory, FsyncPolicy.BATCH)) {
+            assertEquals(new HashSet<>(saved), new HashSet<>(rockets.getAll()));
+        }
+    }
+
+    private static Path onlyFile(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static JournaledRocketRepository rocketRepository(Path directory, FsyncPolicy fsyncPolicy) {
+        StripedLock locks = new StripedLock();
+        return new JournaledRocketRepository(
+                new RocketInMemoryRepository(new ConcurrentHashMap<>(), locks),
+                new Journal<>(directory, new RocketCodec(), fsyncPolicy),
+                new SnapshotStore<>(directory, new RocketCodec()),
+                locks
+        );
+    }
+
+    private static JournaledRepository<MissionId, Mission> missionRepository(Path directory, FsyncPolicy fsyncPolicy) {
+        StripedLock locks = new StripedLock();
+        return new JournaledRepository<>(
+                new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks),
+                new Journal<>(directory, new MissionCodec(), fsyncPolicy),
+                new SnapshotStore<>(directory, new MissionCodec()),
+                locks
+        );
+    }
+}
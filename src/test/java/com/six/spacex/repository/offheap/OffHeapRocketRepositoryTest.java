@@ -0,0 +1,92 @@
+package com.six.spacex.repository.offheap;
+
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.StaleObjectException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class OffHeapRocketRepositoryTest {
+
+    @Test
+    public void save_and_read_rockets_while_the_table_grows() {
+        OffHeapRocketRepository repository = new OffHeapRocketRepository();
+        MissionId mars = new MissionId(UUID.randomUUID());
+        List<Rocket> saved = new ArrayList<>();
+        List<Rocket> onMars = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Rocket rocket = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon " + (i % 10)));
+            if (i % 7 == 0) {
+                rocket = repository.save(rocket.assignToMission(mars));
+                onMars.add(rocket);
+            }
+            saved.add(rocket);
+        }
+
+        for (Rocket rocket: saved) {
+            assertEquals(rocket, repository.get(rocket.getId()).orElseThrow());
+        }
+        assertEquals(new HashSet<>(saved), new HashSet<>(repository.getAll()));
+        assertEquals(new HashSet<>(onMars), new HashSet<>(repository.getByMissionId(mars)));
+        assertTrue(repository.get(new RocketId(UUID.randomUUID())).isEmpty());
+    }
+
+    @Test
+    public void get_rockets_by_mission_id_follows_reassignment() {
+        OffHeapRocketRepository repository = new OffHeapRocketRepository();
+        MissionId mars = new MissionId(UUID.randomUUID());
+        MissionId luna = new MissionId(UUID.randomUUID());
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(mars));
+        Rocket falcon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon").assignToMission(mars));
+        Rocket starship = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Starship").assignToMission(mars));
+
+        Rocket falconOnLuna = repository.save(falcon.assignToMission(luna));
+        Rocket dragonInSpace = repository.update(dragon.getId(), Rocket::start).orElseThrow();
+
+        assertEquals(new HashSet<>(List.of(dragonInSpace, starship)), new HashSet<>(repository.getByMissionId(mars)));
+        assertEquals(List.of(falconOnLuna), repository.getByMissionId(luna));
+        assertTrue(repository.getByMissionId(new MissionId(UUID.randomUUID())).isEmpty());
+    }
+
+    @Test
+    public void batch_with_a_stale_rocket_saves_none_of_it() {
+        OffHeapRocketRepository repository = new OffHeapRocketRepository();
+        MissionId mars = new MissionId(UUID.randomUUID());
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        Rocket falcon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Falcon"));
+        Rocket repairedFalcon = repository.save(falcon.repair());
+        Rocket titan = new Rocket(new RocketId(UUID.randomUUID()), "Titan");
+
+        assertThrows(StaleObjectException.class, () -> repository.saveAll(List.of(
+                dragon.assignToMission(mars), titan, falcon.assignToMission(mars)
+        )));
+        assertEquals(dragon, repository.get(dragon.getId()).orElseThrow());
+        assertEquals(repairedFalcon, repository.get(falcon.getId()).orElseThrow());
+        assertTrue(repository.get(titan.getId()).isEmpty());
+        assertEquals(List.of(), repository.getByMissionId(mars));
+
+        List<Rocket> batch = new ArrayList<>(List.of(dragon.assignToMission(mars), repairedFalcon.onGround()));
+        for (int i = 0; i < 2000; i++) {
+            batch.add(new Rocket(new RocketId(UUID.randomUUID()), "Titan " + i).assignToMission(mars));
+        }
+        assertEquals(batch, repository.saveAll(batch));
+        assertEquals(new HashSet<>(batch), new HashSet<>(repository.getAll()));
+        assertEquals(2001, repository.getByMissionId(mars).size());
+    }
+
+    @Test
+    public void save_stale_rocket_and_throw_StaleObjectException() {
+        OffHeapRocketRepository repository = new OffHeapRocketRepository();
+        Rocket dragon = repository.save(new Rocket(new RocketId(UUID.randomUUID()), "Dragon"));
+        repository.save(dragon.repair());
+
+        assertThrows(StaleObjectException.class, () -> repository.save(dragon.repair()));
+    }
+}
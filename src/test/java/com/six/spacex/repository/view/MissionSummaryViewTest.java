@@ -0,0 +1,57 @@
+package com.six.spacex.repository.view;
+
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.ObservableRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.StripedLock;
+import com.six.spacex.repository.transaction.StripedTransactionManager;
+import com.six.spacex.service.facade.DefaultSpaceXFacade;
+import com.six.spacex.service.mission.DefaultMissionService;
+import com.six.spacex.service.rocket.DefaultRocketService;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class MissionSummaryViewTest {
+
+    @Test
+    public void view_follows_missions_saved_through_facade() {
+        StripedLock locks = new StripedLock();
+        ObservableRepository<MissionId, Mission> missions = new ObservableRepository<>(
+                new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks), locks
+        );
+        RocketInMemoryRepository rockets = new RocketInMemoryRepository(new ConcurrentHashMap<>(), locks);
+        DefaultSpaceXFacade facade = new DefaultSpaceXFacade(
+                new DefaultMissionService(missions), new DefaultRocketService(rockets),
+                new StripedTransactionManager(missions, rockets, locks)
+        );
+        Mission mars = facade.addMission("Mars", List.of());
+        MissionSummaryView view = MissionSummaryView.attach(missions);
+        Mission luna = facade.addMission("Luna", List.of());
+        Mission transit = facade.addMission("Transit", List.of());
+
+        Rocket dragon = facade.addRocket("Dragon");
+        Rocket falcon = facade.addRocket("Falcon");
+        facade.assignRocketsToMission(transit.getId(), List.of(dragon.getId(), falcon.getId()));
+        facade.startRocket(dragon.getId());
+        Rocket starship = facade.addRocket("Starship");
+        facade.assignRocketsToMission(mars.getId(), List.of(starship.getId()));
+
+        assertEquals(
+                List.of("Transit", "Mars", "Luna"),
+                view.getSummaries().stream().map(MissionSummary::name).toList()
+        );
+        assertEquals(List.of(2, 1, 0), view.top(3).map(MissionSummary::rocketCount).toList());
+        assertEquals(1, view.count(MissionStatus.IN_PROGRESS));
+        assertEquals(2, view.count(MissionStatus.SCHEDULED));
+        assertEquals(3, view.size());
+        assertEquals(facade.getMission(luna.getId()).getVersion(), view.top(3).toList().get(2).version());
+    }
+}
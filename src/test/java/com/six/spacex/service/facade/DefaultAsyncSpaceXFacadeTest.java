@@ -0,0 +1,232 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.InvalidObjectStateException;
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.service.mission.DefaultMissionService;
+import com.six.spacex.service.rocket.DefaultRocketService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DefaultAsyncSpaceXFacadeTest {
+
+    private DefaultMissionService missionService;
+    private DefaultRocketService rocketService;
+    private DefaultSpaceXFacade spaceXFacade;
+    private DefaultAsyncSpaceXFacade asyncFacade;
+
+    @Before
+    public void init() {
+        this.missionService = new DefaultMissionService(new MissionInMemoryRepository(new HashMap<>()));
+        this.rocketService = new DefaultRocketService(new RocketInMemoryRepository(new HashMap<>()));
+        this.spaceXFacade = new DefaultSpaceXFacade(missionService, rocketService);
+        this.asyncFacade = new DefaultAsyncSpaceXFacade(spaceXFacade, rocketService);
+    }
+
+    @After
+    public void close() {
+        asyncFacade.close();
+    }
+
+    @Test
+    public void commands_on_one_mission_run_in_call_order() {
+        List<CompletableFuture<Mission>> ended = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Mission mission = spaceXFacade.addMission("Mission " + i, List.of());
+            Rocket rocket = spaceXFacade.addRocket("Rocket " + i);
+            spaceXFacade.assignRocketsToMission(mission.getId(), List.of(rocket.getId()));
+
+            asyncFacade.startRocket(rocket.getId());
+            ended.add(asyncFacade.endMission(mission.getId()));
+        }
+
+        ended.forEach(mission -> assertEquals(MissionStatus.ENDED, mission.join().getStatus()));
+    }
+
+    @Test
+    public void rocket_command_waits_for_its_assignment_called_before() {
+        List<CompletableFuture<Rocket>> started = new ArrayList<>();
+        List<CompletableFuture<Mission>> ended = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Mission mission = spaceXFacade.addMission("Mission " + i, List.of());
+            Rocket rocket = spaceXFacade.addRocket("Rocket " + i);
+
+            asyncFacade.assignRocketsToMission(mission.getId(), List.of(rocket.getId()));
+            started.add(asyncFacade.startRocket(rocket.getId()));
+            ended.add(asyncFacade.endMission(mission.getId()));
+        }
+
+        started.forEach(rocket -> assertEquals(RocketStatus.IN_SPACE, rocket.join().getStatus()));
+        ended.forEach(mission -> assertEquals(MissionStatus.ENDED, mission.join().getStatus()));
+    }
+
+    @Test
+    public void failed_command_does_not_block_the_mission() {
+        Mission mission = spaceXFacade.addMission("Luna", List.of());
+        Rocket rocket = spaceXFacade.addRocket("Dragon");
+        spaceXFacade.assignRocketsToMission(mission.getId(), List.of(rocket.getId()));
+
+        CompletableFuture<Mission> notStarted = asyncFacade.endMission(mission.getId());
+        CompletableFuture<Rocket> started = asyncFacade.startRocket(rocket.getId());
+
+        CompletionException exception = assertThrows(CompletionException.class, notStarted::join);
+        assertTrue(exception.getCause() instanceof InvalidObjectStateException);
+        assertEquals(RocketStatus.IN_SPACE, started.join().getStatus());
+    }
+
+    @Test
+    public void batch_over_several_missions_returns_rockets_in_given_order() {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Rocket dragon1 = spaceXFacade.addRocket("Dragon 1");
+        Rocket dragon2 = spaceXFacade.addRocket("Dragon 2");
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        Rocket unassigned = spaceXFacade.addRocket("Unassigned");
+        spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon1.getId(), falcon.getId()));
+        spaceXFacade.assignRocketsToMission(mars.getId(), List.of(dragon2.getId()));
+
+        List<RocketId> ids = List.of(falcon.getId(), unassigned.getId(), dragon2.getId(), dragon1.getId());
+        List<Rocket> repairing = asyncFacade.repairRockets(ids).join();
+
+        assertEquals(ids, repairing.stream().map(Rocket::getId).toList());
+        repairing.forEach(rocket -> assertEquals(RocketStatus.IN_REPAIR, rocket.getStatus()));
+        assertEquals(MissionStatus.PENDING, asyncFacade.getMission(luna.getId()).join().getStatus());
+        assertEquals(MissionStatus.PENDING, asyncFacade.getMission(mars.getId()).join().getStatus());
+    }
+
+    @Test
+    public void end_missions_ends_none_when_one_is_rejected() {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon.getId()));
+        Rocket started = spaceXFacade.startRocket(dragon.getId());
+
+        CompletableFuture<List<Mission>> ended = asyncFacade.endMissions(List.of(luna.getId(), mars.getId()));
+
+        CompletionException exception = assertThrows(CompletionException.class, ended::join);
+        assertTrue(exception.getCause() instanceof InvalidObjectStateException);
+        assertEquals(MissionStatus.IN_PROGRESS, spaceXFacade.getMission(luna.getId()).getStatus());
+        assertEquals(started, rocketService.get(dragon.getId()).orElseThrow());
+    }
+
+    @Test
+    public void rocket_command_is_not_queued_on_the_mission_of_a_failed_assignment() throws Exception {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon.getId()));
+        spaceXFacade.startRocket(dragon.getId());
+        CountDownLatch released = new CountDownLatch(1);
+        asyncFacade.close();
+        asyncFacade = new DefaultAsyncSpaceXFacade(new DefaultSpaceXFacade(missionService, rocketService) {
+            @Override
+            public Mission getMission(MissionId id) {
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getMission(id);
+            }
+        }, rocketService);
+
+        CompletableFuture<Mission> rejected = asyncFacade.assignRocketsToMission(luna.getId(), List.of(falcon.getId()));
+        assertThrows(CompletionException.class, rejected::join);
+        CompletableFuture<Mission> blocked = asyncFacade.getMission(luna.getId());
+        CompletableFuture<Rocket> repairing = asyncFacade.repairRocket(falcon.getId());
+
+        assertEquals(RocketStatus.IN_REPAIR, repairing.get(5, TimeUnit.SECONDS).getStatus());
+        released.countDown();
+        assertEquals(MissionStatus.IN_PROGRESS, blocked.join().getStatus());
+    }
+
+    @Test
+    public void rocket_used_for_the_first_time_does_not_wait_for_other_missions() throws Exception {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        spaceXFacade.assignRocketsToMission(mars.getId(), List.of(falcon.getId()));
+        CountDownLatch released = new CountDownLatch(1);
+        asyncFacade.close();
+        asyncFacade = new DefaultAsyncSpaceXFacade(new DefaultSpaceXFacade(missionService, rocketService) {
+            @Override
+            public Mission getMission(MissionId id) {
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getMission(id);
+            }
+        }, rocketService);
+
+        CompletableFuture<Mission> blocked = asyncFacade.getMission(luna.getId());
+        CompletableFuture<Rocket> repairing = asyncFacade.repairRocket(falcon.getId());
+
+        assertEquals(RocketStatus.IN_REPAIR, repairing.get(5, TimeUnit.SECONDS).getStatus());
+        released.countDown();
+        assertEquals(MissionStatus.SCHEDULED, blocked.join().getStatus());
+    }
+
+    @Test
+    public void callers_read_only_rockets_not_routed_yet() {
+        Thread caller = Thread.currentThread();
+        List<Thread> readers = new CopyOnWriteArrayList<>();
+        DefaultRocketService observed = new DefaultRocketService(new RocketInMemoryRepository(new HashMap<>())) {
+            @Override
+            public Optional<Rocket> get(RocketId id) {
+                readers.add(Thread.currentThread());
+                return super.get(id);
+            }
+
+            @Override
+            public List<Rocket> getRocketsByMissionId(MissionId missionId) {
+                readers.add(Thread.currentThread());
+                return super.getRocketsByMissionId(missionId);
+            }
+        };
+        DefaultSpaceXFacade facade = new DefaultSpaceXFacade(missionService, observed);
+        Mission luna = facade.addMission("Luna", List.of());
+        Rocket dragon = facade.addRocket("Dragon");
+        facade.assignRocketsToMission(luna.getId(), List.of(dragon.getId()));
+        asyncFacade.close();
+        asyncFacade = new DefaultAsyncSpaceXFacade(facade, observed);
+        readers.clear();
+
+        Rocket falcon = asyncFacade.addRocket("Falcon").join();
+        CompletableFuture<Mission> assigned = asyncFacade.assignRocketsToMission(luna.getId(), List.of(falcon.getId()));
+        CompletableFuture<List<Rocket>> started = asyncFacade.startRockets(List.of(dragon.getId(), falcon.getId()));
+        CompletableFuture<List<Mission>> ended = asyncFacade.endMissions(List.of(luna.getId()));
+
+        assertEquals(2, assigned.join().getRockets().size());
+        started.join().forEach(rocket -> assertEquals(RocketStatus.IN_SPACE, rocket.getStatus()));
+        assertEquals(MissionStatus.ENDED, ended.join().get(0).getStatus());
+        assertEquals(1, readers.stream().filter(caller::equals).count());
+
+        // the routes of rockets on an ended mission are forgotten
+        Mission mars = facade.addMission("Mars", List.of());
+        assertEquals(1, asyncFacade.assignRocketsToMission(mars.getId(), List.of(falcon.getId())).join()
+                .getRockets().size());
+        assertEquals(2, readers.stream().filter(caller::equals).count());
+    }
+}
@@ -1,29 +1,50 @@
 package com.six.spacex.service.facade;
 
+import com.six.spacex.domain.InvalidObjectStateException;
 import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.NameInterner;
 import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.domain.id.TimeOrderedIdGenerator;
 import com.six.spacex.repository.MissionInMemoryRepository;
 import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.StaleObjectException;
+import com.six.spacex.repository.StripedLock;
+import com.six.spacex.repository.transaction.StripedTransactionManager;
+import com.six.spacex.service.SpaceXServiceException;
 import com.six.spacex.service.mission.DefaultMissionService;
 import com.six.spacex.service.rocket.DefaultRocketService;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
 public class DefaultSpaceXFacadeTest {
 
+    private DefaultRocketService rocketService;
     private DefaultSpaceXFacade spaceXFacade;
 
     @Before
     public void init() {
+        this.rocketService = new DefaultRocketService(new RocketInMemoryRepository(new HashMap<>()));
         this.spaceXFacade = new DefaultSpaceXFacade(
                 new DefaultMissionService(new MissionInMemoryRepository(new HashMap<>())),
-                new DefaultRocketService(new RocketInMemoryRepository(new HashMap<>()))
+                rocketService
         );
     }
 
@@ -67,6 +88,164 @@ public class DefaultSpaceXFacadeTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void concurrent_rocket_launches_keep_mission_consistent_with_its_rockets() throws Exception {
+        StripedLock locks = new StripedLock();
+        MissionInMemoryRepository missionRepository = new MissionInMemoryRepository(new ConcurrentHashMap<>(), locks);
+        RocketInMemoryRepository rocketRepository = new RocketInMemoryRepository(new ConcurrentHashMap<>(), locks);
+        DefaultRocketService rocketService = new DefaultRocketService(rocketRepository);
+        DefaultSpaceXFacade transactionalFacade = new DefaultSpaceXFacade(
+                new DefaultMissionService(missionRepository),
+                rocketService,
+                new StripedTransactionManager(missionRepository, rocketRepository, locks)
+        );
+
+        int rocketsPerMission = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(rocketsPerMission);
+        try {
+            for (int round = 0; round < 20; round++) {
+                Mission mars = transactionalFacade.addMission("Mars " + round, List.of());
+                List<RocketId> rocketIds = new ArrayList<>();
+                for (int i = 0; i < rocketsPerMission; i++) {
+                    rocketIds.add(transactionalFacade.addRocket("Dragon " + i).getId());
+                }
+                transactionalFacade.assignRocketsToMission(mars.getId(), rocketIds);
+
+                CyclicBarrier barrier = new CyclicBarrier(rocketsPerMission);
+                List<Future<?>> futures = new ArrayList<>();
+                for (RocketId rocketId: rocketIds) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        return transactionalFacade.startRocket(rocketId);
+                    }));
+                }
+                for (Future<?> future: futures) {
+                    future.get();
+                }
+
+                Mission mission = transactionalFacade.getMission(mars.getId());
+                assertSame(MissionStatus.IN_PROGRESS, mission.getStatus());
+                assertTrue(mission.getRockets().values().stream().allMatch(rocket -> rocket.getStatus() == RocketStatus.IN_SPACE));
+                assertEquals(
+                        new HashSet<>(rocketService.getRocketsByMissionId(mars.getId())),
+                        new HashSet<>(mission.getRockets().values())
+                );
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void start_rockets_of_several_missions_with_one_mission_transition_each() {
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket dragon1 = spaceXFacade.addRocket("Dragon 1");
+        Rocket dragon2 = spaceXFacade.addRocket("Dragon 2");
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        Mission assignedMars = spaceXFacade.assignRocketsToMission(mars.getId(), List.of(dragon1.getId(), dragon2.getId()));
+        Mission assignedLuna = spaceXFacade.assignRocketsToMission(luna.getId(), List.of(falcon.getId()));
+
+        List<Rocket> started = spaceXFacade.startRockets(List.of(dragon1.getId(), falcon.getId(), dragon2.getId()));
+
+        assertEquals(List.of(dragon1.getId(), falcon.getId(), dragon2.getId()),
+                started.stream().map(Rocket::getId).toList());
+        assertTrue(started.stream().allMatch(rocket -> rocket.getStatus() == RocketStatus.IN_SPACE));
+
+        Mission marsInProgress = spaceXFacade.getMission(mars.getId());
+        assertSame(MissionStatus.IN_PROGRESS, marsInProgress.getStatus());
+        assertEquals(assignedMars.getVersion() + 1, marsInProgress.getVersion());
+        assertTrue(marsInProgress.getRockets().values().stream().allMatch(rocket -> rocket.getStatus() == RocketStatus.IN_SPACE));
+        assertEquals(assignedLuna.getVersion() + 1, spaceXFacade.getMission(luna.getId()).getVersion());
+
+        List<Mission> ended = spaceXFacade.endMissions(List.of(mars.getId(), luna.getId()));
+        assertTrue(ended.stream().allMatch(mission -> mission.getStatus() == MissionStatus.ENDED));
+    }
+
+    @Test
+    public void start_rockets_starts_none_when_one_mission_is_rejected() {
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        Mission assignedMars = spaceXFacade.assignRocketsToMission(mars.getId(), List.of(dragon.getId()));
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        spaceXFacade.assignRocketsToMission(luna.getId(), List.of(falcon.getId()));
+        spaceXFacade.startRocket(falcon.getId());
+        spaceXFacade.endMission(luna.getId());
+        Rocket landed = rocketService.get(falcon.getId()).orElseThrow();
+
+        assertThrows(InvalidObjectStateException.class,
+                () -> spaceXFacade.startRockets(List.of(dragon.getId(), falcon.getId())));
+        assertEquals(assignedMars, spaceXFacade.getMission(mars.getId()));
+        assertEquals(assignedMars.getRockets().get(dragon.getId()), rocketService.get(dragon.getId()).orElseThrow());
+        assertEquals(landed, rocketService.get(falcon.getId()).orElseThrow());
+    }
+
+    @Test
+    public void end_missions_rejects_repeated_ids_before_ending_any() {
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+
+        assertThrows(SpaceXServiceException.class,
+                () -> spaceXFacade.endMissions(List.of(mars.getId(), luna.getId(), mars.getId())));
+        assertEquals(mars, spaceXFacade.getMission(mars.getId()));
+        assertEquals(luna, spaceXFacade.getMission(luna.getId()));
+    }
+
+    @Test
+    public void end_missions_ends_none_when_one_is_rejected() {
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        spaceXFacade.assignRocketsToMission(mars.getId(), List.of(dragon.getId(), falcon.getId()));
+        Rocket started = spaceXFacade.startRocket(dragon.getId());
+        Mission inProgress = spaceXFacade.getMission(mars.getId());
+        Rocket assigned = rocketService.get(falcon.getId()).orElseThrow();
+        Mission luna = endedMission("Luna");
+
+        assertThrows(InvalidObjectStateException.class,
+                () -> spaceXFacade.endMissions(List.of(mars.getId(), luna.getId())));
+        assertSame(MissionStatus.IN_PROGRESS, inProgress.getStatus());
+        assertEquals(inProgress, spaceXFacade.getMission(mars.getId()));
+        assertEquals(started, rocketService.get(dragon.getId()).orElseThrow());
+        assertEquals(assigned, rocketService.get(falcon.getId()).orElseThrow());
+    }
+
+    @Test
+    public void names_are_interned_only_with_an_interner() {
+        assertNotSame(spaceXFacade.addRocket(new String("Dragon")).getName(),
+                spaceXFacade.addMission(new String("Dragon"), List.of()).getName());
+
+        DefaultSpaceXFacade interning = new DefaultSpaceXFacade(
+                new DefaultMissionService(new MissionInMemoryRepository(new HashMap<>())),
+                new DefaultRocketService(new RocketInMemoryRepository(new HashMap<>())),
+                work -> { }, new TimeOrderedIdGenerator(), new NameInterner()
+        );
+        assertSame(interning.addRocket(new String("Dragon")).getName(),
+                interning.addMission(new String("Dragon"), List.of()).getName());
+    }
+
+    @Test
+    public void operation_saved_object_by_object_is_not_retried_on_a_stale_object() {
+        AtomicInteger saves = new AtomicInteger();
+        DefaultSpaceXFacade facade = new DefaultSpaceXFacade(
+                new DefaultMissionService(new MissionInMemoryRepository(new HashMap<>()) {
+                    @Override
+                    public List<Mission> saveAll(Collection<Mission> batch) {
+                        saves.incrementAndGet();
+                        throw new StaleObjectException("Mission was saved concurrently");
+                    }
+                }),
+                rocketService
+        );
+        Mission mars = facade.addMission("Mars", List.of());
+        Rocket dragon = facade.addRocket("Dragon");
+
+        assertThrows(StaleObjectException.class,
+                () -> facade.assignRocketsToMission(mars.getId(), List.of(dragon.getId())));
+        assertEquals(1, saves.get());
+    }
+
     private Mission endedMission(String name) {
         Mission scheduled = spaceXFacade.addMission(name, List.of());
         Rocket rocket = spaceXFacade.addRocket("Dragon tmp");
@@ -0,0 +1,347 @@
+package com.six.spacex.service.facade;
+
+import com.six.spacex.domain.InvalidObjectStateException;
+import com.six.spacex.domain.Mission;
+import com.six.spacex.domain.MissionStatus;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.RocketStatus;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.domain.id.TimeOrderedIdGenerator;
+import com.six.spacex.repository.MissionInMemoryRepository;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import com.six.spacex.repository.transaction.TransactionManager;
+import com.six.spacex.repository.transaction.UnitOfWork;
+import com.six.spacex.service.SpaceXServiceException;
+import com.six.spacex.service.mission.DefaultMissionService;
+import com.six.spacex.service.rocket.DefaultRocketService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class PipelinedSpaceXFacadeTest {
+
+    private DefaultMissionService missionService;
+    private DefaultRocketService rocketService;
+    private PipelinedSpaceXFacade spaceXFacade;
+    private final Semaphore published = new Semaphore(0);
+
+    @Before
+    public void init() {
+        missionService = new DefaultMissionService(new MissionInMemoryRepository());
+        rocketService = new DefaultRocketService(new RocketInMemoryRepository());
+        spaceXFacade = new PipelinedSpaceXFacade(missionService, rocketService);
+    }
+
+    @After
+    public void close() {
+        spaceXFacade.close();
+    }
+
+    @Test
+    public void concurrent_commands_on_one_mission_are_applied_without_conflicts() throws Exception {
+        int threads = 8;
+        int rounds = 100;
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        List<RocketId> rocketIds = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            rocketIds.add(spaceXFacade.addRocket("Dragon " + i).getId());
+        }
+        Mission assigned = spaceXFacade.assignRocketsToMission(mars.getId(), rocketIds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            List<Future<?>> futures = new ArrayList<>();
+            for (RocketId rocketId: rocketIds) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    for (int round = 0; round < rounds; round++) {
+                        spaceXFacade.assignRocketsToMission(mars.getId(), List.of(rocketId));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future: futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Mission mission = spaceXFacade.getMission(mars.getId());
+        assertEquals(assigned.getVersion() + (long) threads * rounds, mission.getVersion());
+        assertEquals(threads, mission.getRockets().size());
+        for (RocketId rocketId: rocketIds) {
+            assertEquals(mission.getRockets().get(rocketId), rocketService.get(rocketId).orElseThrow());
+        }
+    }
+
+    @Test
+    public void rejected_command_does_not_affect_the_others() {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon.getId()));
+
+        assertThrows(InvalidObjectStateException.class, () -> spaceXFacade.endMission(luna.getId()));
+
+        assertEquals(RocketStatus.IN_SPACE, spaceXFacade.startRocket(dragon.getId()).getStatus());
+        assertSame(MissionStatus.IN_PROGRESS, spaceXFacade.getMission(luna.getId()).getStatus());
+        assertSame(MissionStatus.ENDED, spaceXFacade.endMission(luna.getId()).getStatus());
+        assertEquals(RocketStatus.ON_GROUND, rocketService.get(dragon.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void end_missions_ends_none_when_one_is_rejected() {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon.getId()));
+        Rocket started = spaceXFacade.startRocket(dragon.getId());
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+
+        assertThrows(InvalidObjectStateException.class,
+                () -> spaceXFacade.endMissions(List.of(luna.getId(), mars.getId())));
+
+        assertSame(MissionStatus.IN_PROGRESS, spaceXFacade.getMission(luna.getId()).getStatus());
+        assertEquals(started, rocketService.get(dragon.getId()).orElseThrow());
+    }
+
+    @Test
+    public void start_rockets_starts_none_when_one_mission_is_rejected() {
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        Mission assignedMars = spaceXFacade.assignRocketsToMission(mars.getId(), List.of(dragon.getId()));
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        spaceXFacade.assignRocketsToMission(luna.getId(), List.of(falcon.getId()));
+        spaceXFacade.startRocket(falcon.getId());
+        spaceXFacade.endMission(luna.getId());
+        Rocket landed = rocketService.get(falcon.getId()).orElseThrow();
+
+        assertThrows(InvalidObjectStateException.class,
+                () -> spaceXFacade.startRockets(List.of(dragon.getId(), falcon.getId())));
+
+        assertEquals(assignedMars, spaceXFacade.getMission(mars.getId()));
+        assertEquals(assignedMars.getRockets().get(dragon.getId()), rocketService.get(dragon.getId()).orElseThrow());
+        assertEquals(landed, rocketService.get(falcon.getId()).orElseThrow());
+    }
+
+    @Test
+    public void object_changed_again_in_a_batch_is_committed_in_its_newest_version() {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        Rocket falcon = spaceXFacade.addRocket("Falcon");
+        Mission assigned = spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon.getId()));
+        Rocket assignedDragon = rocketService.get(dragon.getId()).orElseThrow();
+
+        WriteBatch batch = new WriteBatch(missionService, rocketService);
+        batch.saveRocket(batch.getRocket(dragon.getId()).repair());
+        batch.saveMission(batch.getMission(luna.getId()).markAsPending(batch.getRocketsByMissionId(luna.getId())));
+        batch.keepCommand();
+        batch.saveRocket(batch.getRocket(falcon.getId()).repair());
+        batch.keepCommand();
+        Rocket repaired = batch.saveRocket(batch.getRocket(dragon.getId()).onGround());
+        Mission scheduled = batch.saveMission(
+                batch.getMission(luna.getId()).schedule(batch.getRocketsByMissionId(luna.getId())));
+        batch.keepCommand();
+
+        List<UnitOfWork> committed = new ArrayList<>();
+        batch.commit(work -> {
+            committed.add(work);
+            rocketService.saveAll(work.getRockets(), work::getExpectedVersion);
+            missionService.saveAll(work.getMissions(), work::getExpectedVersion);
+        });
+        batch.clear();
+
+        assertEquals(1, committed.size());
+        UnitOfWork work = committed.get(0);
+        assertEquals(List.of(repaired, falcon.repair()), List.copyOf(work.getRockets()));
+        assertEquals(List.of(scheduled), List.copyOf(work.getMissions()));
+        assertEquals(assignedDragon.getVersion(), work.getExpectedVersion(repaired));
+        assertEquals(assigned.getVersion(), work.getExpectedVersion(scheduled));
+        assertTrue(batch.isEmpty());
+        assertEquals(scheduled, missionService.get(luna.getId()).orElseThrow());
+        assertEquals(repaired, rocketService.get(dragon.getId()).orElseThrow());
+        assertEquals(RocketStatus.IN_REPAIR, rocketService.get(falcon.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void commands_on_one_mission_are_committed_once_per_batch() throws Exception {
+        int commands = 10;
+        Mission mars = spaceXFacade.addMission("Mars", List.of());
+        List<RocketId> rocketIds = new ArrayList<>();
+        for (int i = 0; i < commands; i++) {
+            rocketIds.add(spaceXFacade.addRocket("Dragon " + i).getId());
+        }
+        spaceXFacade.close();
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicBoolean blocking = new AtomicBoolean(true);
+        List<UnitOfWork> committed = new ArrayList<>();
+        spaceXFacade = blockingFacade(work -> {
+            if (blocking.getAndSet(false)) {
+                blocked.countDown();
+                awaitUninterruptibly(released);
+            }
+            committed.add(work);
+            rocketService.saveAll(work.getRockets(), work::getExpectedVersion);
+            missionService.saveAll(work.getMissions(), work::getExpectedVersion);
+        });
+
+        FutureTask<Rocket> titan = submitted(() -> spaceXFacade.addRocket("Titan"));
+        blocked.await();
+        List<FutureTask<Mission>> assignments = new ArrayList<>();
+        for (RocketId rocketId: rocketIds) {
+            assignments.add(submitted(() -> spaceXFacade.assignRocketsToMission(mars.getId(), List.of(rocketId))));
+        }
+        released.countDown();
+
+        titan.get();
+        for (FutureTask<Mission> assignment: assignments) {
+            assignment.get();
+        }
+        assertEquals(2, committed.size());
+        assertEquals(1, committed.get(1).getMissions().size());
+        Mission mission = missionService.get(mars.getId()).orElseThrow();
+        assertEquals(mars.getVersion() + commands, mission.getVersion());
+        assertEquals(commands, mission.getRockets().size());
+    }
+
+    @Test
+    public void failed_commit_fails_only_the_commands_of_its_batch() throws Exception {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        Mission assigned = spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon.getId()));
+        Rocket assignedDragon = rocketService.get(dragon.getId()).orElseThrow();
+        spaceXFacade.close();
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicBoolean blocking = new AtomicBoolean(true);
+        spaceXFacade = blockingFacade(work -> {
+            if (blocking.getAndSet(false)) {
+                blocked.countDown();
+                awaitUninterruptibly(released);
+            } else if (work.getRocket(dragon.getId()).isPresent()) {
+                throw new IllegalStateException("Store is down");
+            }
+            rocketService.saveAll(work.getRockets(), work::getExpectedVersion);
+            missionService.saveAll(work.getMissions(), work::getExpectedVersion);
+        });
+
+        FutureTask<Rocket> titan = submitted(() -> spaceXFacade.addRocket("Titan"));
+        blocked.await();
+        FutureTask<Rocket> repair = submitted(() -> spaceXFacade.repairRocket(dragon.getId()));
+        FutureTask<Rocket> falcon = submitted(() -> spaceXFacade.addRocket("Falcon"));
+        FutureTask<Rocket> repaired = submitted(() -> spaceXFacade.markRocketAsRepaired(dragon.getId()));
+        released.countDown();
+
+        assertTrue(rocketService.get(titan.get().getId()).isPresent());
+        for (FutureTask<Rocket> failed: List.of(repair, falcon, repaired)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, failed::get);
+            assertTrue(failure.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(2, rocketService.getAll().size());
+        assertEquals(assignedDragon, rocketService.get(dragon.getId()).orElseThrow());
+        assertEquals(assigned, missionService.get(luna.getId()).orElseThrow());
+
+        assertEquals(RocketStatus.IN_REPAIR, spaceXFacade.repairRocket(titan.get().getId()).getStatus());
+    }
+
+    @Test
+    public void failed_commit_stores_no_part_of_a_command() throws Exception {
+        Mission luna = spaceXFacade.addMission("Luna", List.of());
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        Rocket titan = spaceXFacade.addRocket("Titan");
+        Mission assigned = spaceXFacade.assignRocketsToMission(luna.getId(), List.of(dragon.getId(), titan.getId()));
+        Rocket assignedDragon = rocketService.get(dragon.getId()).orElseThrow();
+        Rocket assignedTitan = rocketService.get(titan.getId()).orElseThrow();
+        spaceXFacade.close();
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicBoolean blocking = new AtomicBoolean(true);
+        List<UnitOfWork> committed = new ArrayList<>();
+        spaceXFacade = blockingFacade(work -> {
+            if (blocking.getAndSet(false)) {
+                blocked.countDown();
+                awaitUninterruptibly(released);
+            } else if (work.getMissions().stream().anyMatch(mission -> mission.getRockets().get(titan.getId())
+                    .getStatus() == RocketStatus.IN_SPACE)) {
+                throw new IllegalStateException("Store is down");
+            }
+            committed.add(work);
+            rocketService.saveAll(work.getRockets(), work::getExpectedVersion);
+            missionService.saveAll(work.getMissions(), work::getExpectedVersion);
+        });
+
+        FutureTask<Rocket> falcon = submitted(() -> spaceXFacade.addRocket("Falcon"));
+        blocked.await();
+        // the rockets are changed once each, their mission by both commands
+        FutureTask<Rocket> startedDragon = submitted(() -> spaceXFacade.startRocket(dragon.getId()));
+        FutureTask<Rocket> startedTitan = submitted(() -> spaceXFacade.startRocket(titan.getId()));
+        released.countDown();
+
+        falcon.get();
+        for (FutureTask<Rocket> failed: List.of(startedDragon, startedTitan)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, failed::get);
+            assertTrue(failure.getCause() instanceof IllegalStateException);
+        }
+
+        assertEquals(1, committed.size());
+        assertEquals(assignedDragon, rocketService.get(dragon.getId()).orElseThrow());
+        assertEquals(assignedTitan, rocketService.get(titan.getId()).orElseThrow());
+        assertEquals(assigned, missionService.get(luna.getId()).orElseThrow());
+    }
+
+    @Test
+    public void closed_facade_rejects_commands() {
+        Rocket dragon = spaceXFacade.addRocket("Dragon");
+        spaceXFacade.close();
+
+        assertThrows(SpaceXServiceException.class, () -> spaceXFacade.repairRocket(dragon.getId()));
+        assertEquals(dragon, rocketService.get(dragon.getId()).orElseThrow());
+    }
+
+    /**
+     * Facade which reports every published command, so {@link #submitted(Callable)} can wait for it.
+     */
+    private PipelinedSpaceXFacade blockingFacade(TransactionManager transactionManager) {
+        return new PipelinedSpaceXFacade(missionService, rocketService, transactionManager, 16,
+                new TimeOrderedIdGenerator(), published::release);
+    }
+
+    /**
+     * Runs the command on its own thread and returns once the command is published, so commands submitted
+     * one after another are published in that order.
+     */
+    private <T> FutureTask<T> submitted(Callable<T> command) throws InterruptedException {
+        FutureTask<T> task = new FutureTask<>(command);
+        new Thread(task).start();
+        published.acquire();
+        return task;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
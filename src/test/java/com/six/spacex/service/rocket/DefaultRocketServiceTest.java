@@ -0,0 +1,40 @@
+package com.six.spacex.service.rocket;
+
+import com.six.spacex.domain.InvalidObjectStateException;
+import com.six.spacex.domain.Rocket;
+import com.six.spacex.domain.id.MissionId;
+import com.six.spacex.domain.id.RocketId;
+import com.six.spacex.repository.RocketInMemoryRepository;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class DefaultRocketServiceTest {
+
+    @Test
+    public void batch_losing_the_race_to_an_equal_transition_is_rejected() {
+        AtomicBoolean raced = new AtomicBoolean();
+        RocketInMemoryRepository repository = new RocketInMemoryRepository() {
+            @Override
+            public List<Rocket> saveAll(Collection<Rocket> batch) {
+                if (!raced.getAndSet(true)) {
+                    // a concurrent startAll computed the same started rocket and saved it first
+                    batch.forEach(this::save);
+                }
+                return super.saveAll(batch);
+            }
+        };
+        DefaultRocketService rocketService = new DefaultRocketService(repository);
+        Rocket dragon = repository.save(
+                new Rocket(new RocketId(UUID.randomUUID()), "Dragon").assignToMission(new MissionId(UUID.randomUUID()))
+        );
+
+        assertThrows(InvalidObjectStateException.class, () -> rocketService.startAll(List.of(dragon.getId())));
+        assertEquals(dragon.start(), repository.get(dragon.getId()).orElseThrow());
+    }
+}